@@ -1,12 +1,17 @@
+import database.DatabaseExecutor;
 import database.DatabaseLoader;
+import database.EconomyAudit;
+import database.Journal;
 import lombok.extern.slf4j.Slf4j;
 import manager.WorldManager;
+import game.inventory.ItemCodec;
 import model.ModelMapper;
 import model.item.BaseItem;
 import model.item.EquipmentItem;
 import model.item.MaterialItem;
 import model.item.PotionItem;
 import network.GameServer;
+import service.LeaderboardService;
 
 
 @Slf4j
@@ -23,13 +28,20 @@ public class Main {
         ModelMapper.registerPolymorphicType(BaseItem.class, "MATERIAL", MaterialItem.class);
         ModelMapper.setDiscriminatorField(BaseItem.class, "category");
 
-        // Load game data SYNCHRONOUSLY
+        // Slot arrays are stored in the compact binary format; legacy JSON rows still load
+        ItemCodec.register();
+
+        // Progress journaled since the last autosave of a crashed run goes to the database first;
+        // throws (and aborts startup) if it cannot be applied
+        Journal.gI().replay();
+
+        // Load game data and build the maps; throws (and aborts startup) if any loader fails
         log.info("Loading game data...");
         DatabaseLoader db = DatabaseLoader.getInstance();
         db.loadAll();
 
-        // Create game maps
-        WorldManager.getInstance().createGameMaps();
+        LeaderboardService.gI().start();
+
         log.info("Game data loaded successfully - {} maps created",
                 WorldManager.getInstance().gameMaps.size());
 
@@ -45,6 +57,9 @@ public class Main {
             log.info("Shutting down server...");
             ServerLoop.getInstance().stop();
             server.shutdown();
+            EconomyAudit.gI().close();
+            Journal.gI().close();
+            DatabaseExecutor.gI().shutdown();
             log.info("Server shutdown complete");
         }, "ShutdownHook"));
 
@@ -1,18 +1,25 @@
 
 
 import database.DataSaver;
+import database.DatabaseExecutor;
+import database.Journal;
+import database.Lane;
+import database.SaveScheduler;
+import game.TickExecutor;
+import game.entity.player.PlayerEntity;
 import game.event.EventManager;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
+import manager.PlayerCache;
 import manager.WorldManager;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 public class ServerLoop {
@@ -20,6 +27,10 @@ public class ServerLoop {
     private static final int TARGET_TPS = 20;
     private static final long TICK_MS = 50; // 1000 / 20 TPS
     private static final long SAVE_INTERVAL_MS = TimeUnit.MINUTES.toMillis(5);
+    // A round is paced to finish well before the next one starts
+    private static final long SAVE_SPREAD_MS = SAVE_INTERVAL_MS * 4 / 5;
+    // Tick time spent copying players for saves; the rest waits for the next tick
+    private static final long CAPTURE_BUDGET_NS = TimeUnit.MILLISECONDS.toNanos(2);
 
     private final ScheduledExecutorService scheduler;
     private final ExecutorService saveExecutor =
@@ -35,6 +46,7 @@ public class ServerLoop {
         this.scheduler = Executors.newScheduledThreadPool(1, r -> {
             Thread t = new Thread(r, "GameServer-Tick");
             t.setDaemon(false);
+            TickExecutor.getInstance().bind(t);
             return t;
         });
         this.running = new AtomicBoolean(false);
@@ -69,9 +81,11 @@ public class ServerLoop {
                 log.warn("Forcing scheduler shutdown");
                 scheduler.shutdownNow();
             }
+            SaveScheduler.gI().tickStopped();
             log.info("ServerLoop stopped after {} ticks", tickCount);
         } catch (InterruptedException e) {
             scheduler.shutdownNow();
+            SaveScheduler.gI().tickStopped();
             Thread.currentThread().interrupt();
             log.error("ServerLoop interrupted during shutdown", e);
         }
@@ -83,8 +97,11 @@ public class ServerLoop {
         long tickStart = System.currentTimeMillis();
 
         try {
+            TickExecutor.getInstance().drain();
             updateWorld();
             updateEvents(tickStart);
+            journal();
+            SaveScheduler.gI().capture(CAPTURE_BUDGET_NS);
             if (tickStart - lastSaveTime >= SAVE_INTERVAL_MS) {
                 autoSaveAsync();
                 lastSaveTime = tickStart;
@@ -111,31 +128,52 @@ public class ServerLoop {
         EventManager.getInstance().onUpdate(currentTime);
     }
 
+    // Records what changed this tick; one fsync for the whole batch
+    private void journal() {
+        Journal journal = Journal.gI();
+        WorldManager.getInstance().gameMaps.values().forEach(map ->
+                map.getZones().forEach(zone -> {
+                    for (var player : zone.getPlayers()) {
+                        journal.capture(player);
+                    }
+                })
+        );
+        PlayerCache.getInstance().forEachParked(journal::capture);
+        journal.commit();
+    }
+
     private void autoSaveAsync() {
         saveExecutor.submit(() -> {
-            AtomicInteger saved = new AtomicInteger();
             long start = System.currentTimeMillis();
+            List<PlayerEntity> players = new ArrayList<>();
 
             WorldManager.getInstance().gameMaps.values().forEach(map ->
                     map.getZones().forEach(zone -> {
-                        var snapshot = List.copyOf(zone.getPlayers());
-                        for (var player : snapshot) {
-                            if (player.isClone()) continue;
-
-                            try {
-                                DataSaver.savePlayerData(player);
-
-                                saved.incrementAndGet();
-                            } catch (Exception e) {
-                                log.error("Save failed {}", player.getId(), e);
-                            }
+                        for (var player : List.copyOf(zone.getPlayers())) {
+                            if (!player.isClone()) players.add(player);
                         }
                     })
             );
 
-            DataSaver.saveGlobalData();
-
-            log.debug("Auto-saved {} players in {}ms", saved, System.currentTimeMillis() - start);
+            // Disconnected players waiting in the warm cache still hold unsaved state
+            players.addAll(PlayerCache.getInstance().getParkedPlayers());
+
+            // Everything journaled so far is covered by this round once it completes
+            long sealed = Journal.gI().rotate();
+            SaveScheduler scheduler = SaveScheduler.gI();
+            scheduler.saveAll(players, SAVE_SPREAD_MS).thenAccept(complete -> {
+                if (complete) {
+                    Journal.gI().checkpoint(sealed);
+                }
+                log.debug("Auto-save round of {} players done in {}ms (complete={})",
+                        players.size(), System.currentTimeMillis() - start, complete);
+            });
+            DatabaseExecutor.gI().run(Lane.SAVE, DataSaver::saveGlobalData);
+
+            log.debug("Database lanes: {}", DatabaseExecutor.gI().describe());
+            log.debug("Auto-save queued {} players: depth={}, lag={}ms, in flight={}, coalesced={}",
+                    players.size(), scheduler.getQueueDepth(), scheduler.getLagMillis(),
+                    scheduler.getInFlight(), scheduler.getCoalesced());
         });
     }
 
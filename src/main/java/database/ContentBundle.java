@@ -0,0 +1,356 @@
+package database;
+
+import game.map.PathFinding;
+import language.Language;
+import lombok.extern.slf4j.Slf4j;
+import model.ModelMapper;
+import model.item.*;
+import model.map.MapData;
+import model.map.MapName;
+import model.monster.Monster;
+import model.npc.NpcData;
+import model.pet.PetData;
+import model.shop.Shop;
+import model.skill.Skill;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Static game content (item, option, monster, skill, map, NPC, shop, pet and language tables)
+ * exported into one checksummed file, so a cold start reads one memory-mapped file instead
+ * of a dozen table scans. Maps also carry their prebuilt walkable masks.
+ * <p>
+ * Layout: header {@code [magic][format][schema hash][content stamp][created at][section count]},
+ * then per section {@code [name][raw length][deflated length][deflated bytes]}, then the CRC32
+ * of everything before it. Table sections hold the rows as JSON; the schema hash covers the
+ * fields of every bundled model class, so a bundle written by an older build is ignored. The
+ * content stamp is the database's own checksum of the bundled tables at export time, so a
+ * bundle older than an edit to those tables is ignored too.
+ * <p>
+ * {@link #open()} returns null when the file is missing, damaged, from another format or
+ * schema, or behind the database, and the loaders read MySQL instead. Export it again after
+ * editing content ({@link #export(Path)}, admin menu or {@code dev.ContentExport}) to get the
+ * fast start back.
+ */
+@Slf4j
+public final class ContentBundle {
+
+    public static final Path PATH = Paths.get("data/content.bin");
+
+    private static final int MAGIC = 0x48534F43; // "HSOC"
+    private static final int FORMAT = 2;
+    private static final int HEADER_BYTES = 36;
+    private static final String GRIDS = "grids";
+
+    /**
+     * One bundled table and how to read it from MySQL.
+     */
+    public record Section<T>(String name, Class<T> type, String table) {
+        public List<T> query() throws SQLException {
+            SQL.QueryBuilder<T> query = SQL.from(type);
+            if (table != null) query.table(table);
+            return query.get();
+        }
+
+        public String tableName() {
+            return table != null ? table : ModelMapper.getTableName(type);
+        }
+    }
+
+    public static final Section<EquipmentItem> EQUIPMENT = new Section<>("equipment", EquipmentItem.class, null);
+    public static final Section<PotionItem> POTION = new Section<>("potion", PotionItem.class, null);
+    public static final Section<MaterialItem> MATERIAL = new Section<>("material", MaterialItem.class, null);
+    public static final Section<ItemOption> ITEM_OPTION = new Section<>("itemOption", ItemOption.class, "option_item");
+    public static final Section<Fashion> FASHION = new Section<>("fashion", Fashion.class, "fashion");
+    public static final Section<MapData> MAP = new Section<>("map", MapData.class, null);
+    public static final Section<MapName> MAP_NAME = new Section<>("mapName", MapName.class, null);
+    public static final Section<Monster> MONSTER = new Section<>("monster", Monster.class, null);
+    public static final Section<Skill> SKILL = new Section<>("skill", Skill.class, null);
+    public static final Section<NpcData> NPC = new Section<>("npc", NpcData.class, "npc");
+    public static final Section<Shop> SHOP = new Section<>("shop", Shop.class, null);
+    public static final Section<PetData> PET = new Section<>("pet", PetData.class, null);
+    public static final Section<Language> LANGUAGE = new Section<>("language", Language.class, null);
+
+    private static final List<Section<?>> SECTIONS = List.of(
+            EQUIPMENT, POTION, MATERIAL, ITEM_OPTION, FASHION, MAP, MAP_NAME,
+            MONSTER, SKILL, NPC, SHOP, PET, LANGUAGE);
+
+    private record Chunk(int rawLength, ByteBuffer deflated) {
+    }
+
+    private final Map<String, Chunk> chunks;
+    private final long createdAt;
+
+    private ContentBundle(Map<String, Chunk> chunks, long createdAt) {
+        this.chunks = chunks;
+        this.createdAt = createdAt;
+    }
+
+    // ==================== READ ====================
+
+    /**
+     * Maps the bundle and verifies it.
+     *
+     * @return the bundle, or null when the loaders should read the database
+     */
+    public static ContentBundle open() {
+        if (!Files.exists(PATH)) return null;
+
+        try (FileChannel channel = FileChannel.open(PATH, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            ByteBuffer buf = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buf.remaining() < HEADER_BYTES + Long.BYTES) {
+                log.warn("Content bundle truncated, loading from database");
+                return null;
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buf.duplicate().limit(buf.limit() - Long.BYTES));
+            if (crc.getValue() != buf.getLong(buf.limit() - Long.BYTES)) {
+                log.warn("Content bundle checksum mismatch, loading from database");
+                return null;
+            }
+
+            if (buf.getInt() != MAGIC || buf.getInt() != FORMAT) {
+                log.warn("Content bundle has another format, loading from database");
+                return null;
+            }
+            if (buf.getLong() != schemaHash()) {
+                log.warn("Content bundle was written for other model classes, loading from database");
+                return null;
+            }
+            long stamp = buf.getLong();
+            long createdAt = buf.getLong();
+            if (stamp != contentStamp()) {
+                log.warn("Content bundle from {} is behind the database, loading from database; export it again for a fast start",
+                        new Date(createdAt));
+                return null;
+            }
+
+            int count = buf.getInt();
+            Map<String, Chunk> chunks = new HashMap<>(count * 2);
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[buf.getShort()];
+                buf.get(name);
+                int rawLength = buf.getInt();
+                int deflatedLength = buf.getInt();
+                ByteBuffer deflated = buf.slice(buf.position(), deflatedLength);
+                buf.position(buf.position() + deflatedLength);
+                chunks.put(new String(name, StandardCharsets.UTF_8), new Chunk(rawLength, deflated));
+            }
+
+            log.info("Content bundle from {} mapped ({} sections, {} KB)",
+                    new Date(createdAt), count, channel.size() / 1024);
+            return new ContentBundle(chunks, createdAt);
+
+        } catch (IOException | RuntimeException e) {
+            log.warn("Content bundle unreadable, loading from database: {}", e.getMessage());
+            return null;
+        } catch (SQLException e) {
+            log.warn("Content bundle cannot be checked against the database, loading from database: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Rows of a bundled table, or null when the bundle lacks the section.
+     */
+    public <T> List<T> rows(Section<T> section) {
+        Chunk chunk = chunks.get(section.name());
+        if (chunk == null) return null;
+
+        String json = new String(inflate(chunk), StandardCharsets.UTF_8);
+        List<T> rows = ModelMapper.fromJsonList(json, section.type());
+        if (rows == null) {
+            throw new IllegalStateException("Content bundle section " + section.name() + " is unreadable");
+        }
+        return rows;
+    }
+
+    /**
+     * Prebuilt walkable masks by map id; empty when the bundle has none.
+     */
+    public Map<Integer, BitSet> grids() {
+        Chunk chunk = chunks.get(GRIDS);
+        if (chunk == null) return Map.of();
+
+        ByteBuffer buf = ByteBuffer.wrap(inflate(chunk));
+        int count = buf.getInt();
+        Map<Integer, BitSet> grids = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            int mapId = buf.getInt();
+            long[] words = new long[buf.getInt()];
+            for (int w = 0; w < words.length; w++) {
+                words[w] = buf.getLong();
+            }
+            grids.put(mapId, BitSet.valueOf(words));
+        }
+        return grids;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    private static byte[] inflate(Chunk chunk) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(chunk.deflated().duplicate());
+            byte[] raw = new byte[chunk.rawLength()];
+            int read = 0;
+            while (read < raw.length && !inflater.finished()) {
+                read += inflater.inflate(raw, read, raw.length - read);
+            }
+            if (read != raw.length) {
+                throw new IllegalStateException("Content bundle section shorter than recorded");
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Content bundle section corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    // ==================== EXPORT ====================
+
+    /**
+     * Reads every bundled table from the database and writes the bundle atomically.
+     *
+     * @return the bundle size in bytes
+     */
+    public static long export(Path path) throws SQLException, IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 20);
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT);
+        out.writeLong(schemaHash());
+        // Taken before the rows: an edit in between makes the bundle look stale, never current
+        out.writeLong(contentStamp());
+        out.writeLong(System.currentTimeMillis());
+        out.writeInt(SECTIONS.size() + 1);
+
+        List<MapData> maps = null;
+        for (Section<?> section : SECTIONS) {
+            List<?> rows = section.query();
+            if (section == MAP) {
+                maps = rows.stream().map(MapData.class::cast).toList();
+            }
+            writeChunk(out, section.name(), ModelMapper.toJson(rows).getBytes(StandardCharsets.UTF_8));
+            log.info("Exported {} {} rows", rows.size(), section.name());
+        }
+        writeChunk(out, GRIDS, encodeGrids(maps));
+        out.flush();
+
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        Files.write(tmp, bytes.toByteArray());
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        log.info("Content bundle written to {} ({} KB)", path, bytes.size() / 1024);
+        return bytes.size();
+    }
+
+    private static byte[] encodeGrids(List<MapData> maps) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        List<MapData> withTiles = maps == null ? List.of() : maps.stream()
+                .filter(m -> m.getTileData() != null && m.getTileData().getData() != null)
+                .toList();
+        out.writeInt(withTiles.size());
+        for (MapData map : withTiles) {
+            long[] words = PathFinding.walkableMask(map.getTileData()).toLongArray();
+            out.writeInt(map.getId());
+            out.writeInt(words.length);
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeChunk(DataOutputStream out, String name, byte[] raw) throws IOException {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        ByteArrayOutputStream deflated = new ByteArrayOutputStream(raw.length / 4 + 64);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            byte[] buffer = new byte[64 * 1024];
+            while (!deflater.finished()) {
+                deflated.write(buffer, 0, deflater.deflate(buffer));
+            }
+        } finally {
+            deflater.end();
+        }
+
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(nameBytes.length);
+        out.write(nameBytes);
+        out.writeInt(raw.length);
+        out.writeInt(deflated.size());
+        deflated.writeTo(out);
+    }
+
+    /**
+     * The database's checksum of every bundled table (CHECKSUM TABLE, computed server side, so
+     * only one number per table crosses the wire). Changes with any edit to their rows.
+     */
+    static long contentStamp() throws SQLException {
+        String tables = SECTIONS.stream()
+                .map(section -> "`" + section.tableName() + "`")
+                .distinct()
+                .collect(Collectors.joining(", "));
+
+        return SQL.query("CHECKSUM TABLE " + tables, rs -> {
+            CRC32 crc = new CRC32();
+            while (rs.next()) {
+                // A missing table reports a NULL checksum, which still changes the stamp
+                crc.update((rs.getString(1) + "=" + rs.getString(2) + ";").getBytes(StandardCharsets.UTF_8));
+            }
+            return crc.getValue();
+        });
+    }
+
+    // Field names and types of every bundled model, so a class change invalidates old bundles
+    private static long schemaHash() {
+        StringBuilder sb = new StringBuilder();
+        for (Section<?> section : SECTIONS) {
+            List<String> fields = new ArrayList<>();
+            for (Class<?> c = section.type(); c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    int modifiers = field.getModifiers();
+                    if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) continue;
+                    fields.add(c.getSimpleName() + "." + field.getName() + "=" + field.getGenericType().getTypeName());
+                }
+            }
+            Collections.sort(fields); // declaration order is not guaranteed by reflection
+            sb.append(section.name()).append(':').append(String.join(",", fields)).append(';');
+        }
+        CRC32 crc = new CRC32();
+        crc.update(sb.toString().getBytes(StandardCharsets.UTF_8));
+        return crc.getValue();
+    }
+}
@@ -11,12 +11,18 @@ import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.EnumMap;
 import java.util.Map;
 
 @Slf4j
 @Data
 public final class DBConfig {
 
+    // -Ddatabase.config=<path> points the server (or a dev harness) at another configuration
+    private static final String DEFAULT_PATH = "data/config/database.yaml";
+
+    // Optional full JDBC URL (database.url); replaces host, port and name, e.g. for an embedded database
+    private String url;
     private String host;
     private int port;
     private String name;
@@ -29,6 +35,19 @@ public final class DBConfig {
     private long idleTimeout;
     private long maxLifetime;
 
+    // Optional per-lane overrides (database.lanes.<key>)
+    private Map<Lane, LaneConfig> lanes = new EnumMap<>(Lane.class);
+
+    // Statement metrics (database.metrics), see SqlMetrics
+    private long slowQueryMs = 200;
+    private long metricsDumpSeconds = 60;
+
+    /**
+     * Pool sizing and checkout timeout of one lane.
+     */
+    public record LaneConfig(int maximumPoolSize, long connectionTimeout) {
+    }
+
     private DBConfig() {
         load();
     }
@@ -43,10 +62,10 @@ public final class DBConfig {
 
     @SuppressWarnings("unchecked")
     private void load() {
-        Path path = Paths.get("data/config/database.yaml");
+        Path path = Paths.get(System.getProperty("database.config", DEFAULT_PATH));
 
         if (!Files.exists(path)) {
-            throw new RuntimeException("database.yaml not found in root directory");
+            throw new RuntimeException(path + " not found");
         }
 
         try (InputStream is = Files.newInputStream(path)) {
@@ -56,8 +75,9 @@ public final class DBConfig {
             Map<String, Object> db = (Map<String, Object>) root.get("database");
             Map<String, Object> pool = (Map<String, Object>) db.get("pool");
 
+            url = (String) db.get("url");
             host = (String) db.get("host");
-            port = ((Number) db.get("port")).intValue();
+            port = db.get("port") != null ? ((Number) db.get("port")).intValue() : 3306;
             name = (String) db.get("name");
             username = (String) db.get("username");
             password = (String) db.get("password");
@@ -68,6 +88,28 @@ public final class DBConfig {
             idleTimeout = ((Number) pool.get("idleTimeout")).longValue();
             maxLifetime = ((Number) pool.get("maxLifetime")).longValue();
 
+            Map<String, Object> laneSection = (Map<String, Object>) db.get("lanes");
+            for (Lane lane : Lane.values()) {
+                Map<String, Object> section = laneSection != null ? (Map<String, Object>) laneSection.get(lane.getKey()) : null;
+                int size = section != null && section.get("maximumPoolSize") != null
+                        ? ((Number) section.get("maximumPoolSize")).intValue()
+                        : Math.max(1, (int) Math.round(maximumPoolSize * lane.getPoolShare()));
+                long timeout = section != null && section.get("connectionTimeout") != null
+                        ? ((Number) section.get("connectionTimeout")).longValue()
+                        : Math.min(connectionTimeout, lane.getDefaultConnectionTimeout());
+                lanes.put(lane, new LaneConfig(size, timeout));
+            }
+
+            Map<String, Object> metrics = (Map<String, Object>) db.get("metrics");
+            if (metrics != null) {
+                if (metrics.get("slowQueryMs") != null) {
+                    slowQueryMs = ((Number) metrics.get("slowQueryMs")).longValue();
+                }
+                if (metrics.get("dumpSeconds") != null) {
+                    metricsDumpSeconds = ((Number) metrics.get("dumpSeconds")).longValue();
+                }
+            }
+
             log.info("Database configuration loaded");
 
         } catch (Exception e) {
@@ -76,5 +118,15 @@ public final class DBConfig {
         }
     }
 
+    public LaneConfig getLane(Lane lane) {
+        return lanes.get(lane);
+    }
 
+    public String getJdbcUrl() {
+        if (url != null && !url.isBlank()) return url;
+        return String.format(
+                "jdbc:mysql://%s:%d/%s?autoReconnect=true&useUnicode=yes&characterEncoding=UTF-8&serverTimezone=UTC"
+                        + "&rewriteBatchedStatements=true",
+                host, port, name);
+    }
 }
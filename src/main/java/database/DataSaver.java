@@ -1,24 +1,211 @@
 package database;
 
+import database.repositories.InventoryRepository;
+import database.repositories.PlayerRepository;
 import game.entity.player.PlayerEntity;
+import game.friend.FriendList;
 import game.guild.GuildService;
+import game.pet.PlayerPet;
 import lombok.extern.slf4j.Slf4j;
-import model.player.PlayerMapper;
-import service.PlayerService;
+import model.player.Player;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 @Slf4j
 public class DataSaver {
+    private static final PlayerRepository playerRepository = new PlayerRepository();
+    private static final InventoryRepository inventoryRepository = new InventoryRepository();
+
+    /**
+     * Writes every aggregate of the player unconditionally (logout), capturing it on the
+     * calling thread. Callers go through {@link SaveScheduler} so two saves of the same player
+     * never overlap.
+     *
+     * @return true when everything was written
+     */
+    public static boolean savePlayerData(PlayerEntity player) {
+        return saveSnapshot(PlayerSnapshot.capture(player, true));
+    }
+
+    /**
+     * Write-behind flush: only the aggregates whose version moved since their last successful
+     * write hit the database.
+     *
+     * @return number of aggregates written
+     */
+    public static int flushPlayerData(PlayerEntity player) {
+        PlayerSnapshot snapshot = PlayerSnapshot.capture(player, false);
+        return saveSnapshot(snapshot) ? snapshot.size() : 0;
+    }
+
+    /**
+     * Writes one captured player as a single unit of work: the row, containers, friends and pet
+     * commit together or not at all. Safe on any thread, the snapshot holds no live state.
+     *
+     * @return true when the snapshot was written
+     */
+    public static boolean saveSnapshot(PlayerSnapshot snapshot) {
+        if (snapshot.isEmpty()) return true;
+
+        try {
+            UnitOfWork.run(() -> writeSnapshot(snapshot));
+        } catch (SQLException | RuntimeException e) {
+            log.error("saveSnapshot() Failed for player {}: {}", snapshot.getPlayerId(), e.getMessage());
+            return false;
+        }
+
+        snapshot.confirm();
+        if (snapshot.isForce()) {
+            Journal.gI().saved(snapshot.getPlayer());
+        }
+        log.debug("Saved player {} ({} aggregates)", snapshot.getPlayerId(), snapshot.size());
+        return true;
+    }
+
+    private static void writeSnapshot(PlayerSnapshot snapshot) throws SQLException {
+        if (snapshot.getRow() != null) playerRepository.update(snapshot.getRow().model());
+        if (snapshot.getEquipment() != null) inventoryRepository.saveEquipment(snapshot.getEquipment().model());
+        if (snapshot.getBag() != null) inventoryRepository.saveInventory(snapshot.getBag().model());
+        if (snapshot.getStorage() != null) inventoryRepository.saveStorage(snapshot.getStorage().model());
+        if (snapshot.getFriends() != null) playerRepository.saveFriendList(snapshot.getFriends().model());
+        if (snapshot.getPet() != null) playerRepository.savePlayerPet(snapshot.getPet().model());
+    }
+
+    /**
+     * Outcome of a flush; {@code complete} means every snapshot was written.
+     */
+    public record FlushResult(int written, boolean complete) {
+    }
+
+    /**
+     * Captures and flushes many players on the calling thread. Prefer
+     * {@link SaveScheduler#saveAll}, which captures on the tick.
+     */
+    public static FlushResult flushPlayers(Collection<PlayerEntity> players) {
+        List<PlayerSnapshot> snapshots = new ArrayList<>(players.size());
+        for (PlayerEntity player : players) {
+            snapshots.add(PlayerSnapshot.capture(player, false));
+        }
+        return flushSnapshots(snapshots);
+    }
+
+    /**
+     * Batched write-behind flush for many snapshots: every part of the same kind goes out as
+     * one JDBC batch, all inside a single transaction. If the batch fails the snapshots are
+     * written one by one, so a single bad row cannot hold back everyone else.
+     */
+    public static FlushResult flushSnapshots(List<PlayerSnapshot> snapshots) {
+        PendingWrites pending = new PendingWrites();
+        for (PlayerSnapshot snapshot : snapshots) {
+            pending.add(snapshot);
+        }
+        if (pending.isEmpty()) return new FlushResult(0, true);
+
+        try {
+            UnitOfWork.run(pending::write);
+            return new FlushResult(pending.confirm(), true);
+        } catch (SQLException | RuntimeException e) {
+            log.error("flushSnapshots() Failed: {}, retrying per player", e.getMessage());
+        }
+
+        int written = 0;
+        boolean complete = true;
+        for (PlayerSnapshot snapshot : snapshots) {
+            if (saveSnapshot(snapshot)) {
+                written += snapshot.size();
+            } else {
+                complete = false;
+            }
+        }
+        return new FlushResult(written, complete);
+    }
+
+    private static final class PendingWrites {
+        private final List<PlayerSnapshot> snapshots = new ArrayList<>();
+        private final List<Player> rows = new ArrayList<>();
+        private final List<PlayerSnapshot.EquipmentRow> equipments = new ArrayList<>();
+        private final List<PlayerSnapshot.InventoryRow> bags = new ArrayList<>();
+        private final List<PlayerSnapshot.InventoryRow> storages = new ArrayList<>();
+        private final List<FriendList> friendLists = new ArrayList<>();
+        private final List<PlayerPet> pets = new ArrayList<>();
+
+        void add(PlayerSnapshot snapshot) {
+            if (snapshot.isEmpty()) return;
+            snapshots.add(snapshot);
+            add(rows, snapshot.getRow());
+            add(equipments, snapshot.getEquipment());
+            add(bags, snapshot.getBag());
+            add(storages, snapshot.getStorage());
+            add(friendLists, snapshot.getFriends());
+            add(pets, snapshot.getPet());
+        }
+
+        private static <T> void add(List<T> list, PlayerSnapshot.Part<T> part) {
+            if (part != null) list.add(part.model());
+        }
+
+        boolean isEmpty() {
+            return snapshots.isEmpty();
+        }
+
+        void write() throws SQLException {
+            if (!rows.isEmpty()) {
+                playerRepository.updateAll(rows);
+            }
+
+            // Containers without an id were never inserted; the single save assigns the generated one
+            List<PlayerSnapshot.EquipmentRow> knownEquipments = new ArrayList<>();
+            for (PlayerSnapshot.EquipmentRow row : equipments) {
+                if (row.getId() > 0) knownEquipments.add(row);
+                else inventoryRepository.saveEquipment(row);
+            }
+            if (!knownEquipments.isEmpty()) inventoryRepository.saveEquipment(knownEquipments);
+
+            List<PlayerSnapshot.InventoryRow> knownBags = new ArrayList<>();
+            for (PlayerSnapshot.InventoryRow row : bags) {
+                if (row.getId() > 0) knownBags.add(row);
+                else inventoryRepository.saveInventory(row);
+            }
+            if (!knownBags.isEmpty()) inventoryRepository.saveInventory(knownBags);
+
+            List<PlayerSnapshot.InventoryRow> knownStorages = new ArrayList<>();
+            for (PlayerSnapshot.InventoryRow row : storages) {
+                if (row.getId() > 0) knownStorages.add(row);
+                else inventoryRepository.saveStorage(row);
+            }
+            if (!knownStorages.isEmpty()) inventoryRepository.saveStorage(knownStorages);
+
+            if (!friendLists.isEmpty()) {
+                playerRepository.saveFriendLists(friendLists);
+            }
 
-    public static void savePlayerData(PlayerEntity player) {
-        PlayerService playerService = PlayerService.gI();
-        playerService.update(PlayerMapper.toModel(player));
-        player.getInventoryManager().save();
-        playerService.saveFriendList(player.getFriendList());
-        boolean sPet = playerService.savePlayerPet(player.getPlayerPet());
+            if (!pets.isEmpty()) {
+                // Pet rows are keyed by player_id, which may not be unique-indexed: update, then insert the misses
+                int[] counts = playerRepository.savePlayerPets(pets);
+                for (int i = 0; i < counts.length; i++) {
+                    if (counts[i] == 0) {
+                        playerRepository.savePlayerPet(pets.get(i));
+                    }
+                }
+            }
+        }
 
-        log.debug("save player pet size{} status {}", player.getPlayerPet().getPets().size(), sPet);
+        int confirm() {
+            int written = 0;
+            for (PlayerSnapshot snapshot : snapshots) {
+                snapshot.confirm();
+                written += snapshot.size();
+            }
+            return written;
+        }
     }
 
+    /**
+     * Writes guilds, guild inventories and mines that changed since the last save.
+     */
     public static void saveGlobalData() {
         GuildService.getInstance().save();
     }
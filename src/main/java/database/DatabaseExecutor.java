@@ -0,0 +1,191 @@
+package database;
+
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs blocking JDBC work off the tick and session threads.
+ * <p>
+ * Work is classified by {@link Lane}: each lane has as many threads as its connection pool has
+ * connections (more would only queue inside Hikari) and a bounded queue; when the queue is full
+ * the returned future fails instead of piling up work. Background lanes hold back while the
+ * interactive lanes have work waiting. Continuations go back to their owner with the async
+ * variants, e.g. {@code supply(...).thenAcceptAsync(result -> ..., session)} or
+ * {@code thenAcceptAsync(..., TickExecutor.getInstance())}.
+ */
+@Slf4j
+public final class DatabaseExecutor {
+
+    private static final int QUEUE_CAPACITY = 4096;
+
+    // Background tasks wait at most this long for interactive pressure to drop
+    private static final long MAX_YIELD_MS = 200;
+    private static final long YIELD_STEP_MS = 10;
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T execute() throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface Task {
+        void execute() throws SQLException;
+    }
+
+    private static final ThreadLocal<Boolean> WORKER = ThreadLocal.withInitial(() -> false);
+
+    private final Map<Lane, ThreadPoolExecutor> executors = new EnumMap<>(Lane.class);
+
+    private DatabaseExecutor() {
+        for (Lane lane : Lane.values()) {
+            int threads = Math.max(1, DBConfig.gI().getLane(lane).maximumPoolSize());
+            AtomicInteger sequence = new AtomicInteger();
+
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    threads, threads,
+                    60, TimeUnit.SECONDS,
+                    new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                    r -> {
+                        Thread t = new Thread(() -> {
+                            WORKER.set(true);
+                            Lane.set(lane);
+                            r.run();
+                        }, "DB-" + lane.getKey() + "-" + sequence.incrementAndGet());
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+            executor.allowCoreThreadTimeOut(true);
+            executors.put(lane, executor);
+        }
+    }
+
+    private static class Holder {
+        private static final DatabaseExecutor INSTANCE = new DatabaseExecutor();
+    }
+
+    public static DatabaseExecutor gI() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * True on the executor's own threads; code that would wait on another database task must
+     * do the work inline there instead, or it can starve the pool.
+     */
+    public static boolean isWorkerThread() {
+        return WORKER.get();
+    }
+
+    public <T> CompletableFuture<T> supply(Work<T> work) {
+        return supply(Lane.INTERACTIVE, work);
+    }
+
+    public CompletableFuture<Void> run(Task task) {
+        return run(Lane.INTERACTIVE, task);
+    }
+
+    public <T> CompletableFuture<T> supply(Lane lane, Work<T> work) {
+        ThreadPoolExecutor executor = executors.get(lane);
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            executor.execute(() -> {
+                try {
+                    if (lane.isBackground()) {
+                        yieldToInteractive();
+                    }
+                    future.complete(work.execute());
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.error("Database lane {} full ({} pending), rejecting work", lane.getKey(), executor.getQueue().size());
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    public CompletableFuture<Void> run(Lane lane, Task task) {
+        return supply(lane, () -> {
+            task.execute();
+            return null;
+        });
+    }
+
+    // ==================== BULKHEADS ====================
+
+    /**
+     * True while logins or gameplay queries are queued, or waiting for a connection.
+     */
+    public boolean isUnderInteractivePressure() {
+        return hasPressure(Lane.INTERACTIVE) || hasPressure(Lane.LOGIN);
+    }
+
+    private boolean hasPressure(Lane lane) {
+        if (!executors.get(lane).getQueue().isEmpty()) return true;
+        HikariPoolMXBean pool = SQL.getPoolStats(lane);
+        return pool != null && pool.getThreadsAwaitingConnection() > 0;
+    }
+
+    // Background work steps aside briefly (bounded, so it cannot starve) while players wait
+    private void yieldToInteractive() throws InterruptedException {
+        for (long waited = 0; waited < MAX_YIELD_MS && isUnderInteractivePressure(); waited += YIELD_STEP_MS) {
+            Thread.sleep(YIELD_STEP_MS);
+        }
+    }
+
+    public int getPending() {
+        int pending = 0;
+        for (ThreadPoolExecutor executor : executors.values()) {
+            pending += executor.getQueue().size();
+        }
+        return pending;
+    }
+
+    public int getPending(Lane lane) {
+        return executors.get(lane).getQueue().size();
+    }
+
+    /**
+     * One line per lane: queued and running tasks, completed count, and the pool's connections.
+     */
+    public String describe() {
+        StringJoiner joiner = new StringJoiner(" | ");
+        for (Lane lane : Lane.values()) {
+            ThreadPoolExecutor executor = executors.get(lane);
+            HikariPoolMXBean pool = SQL.getPoolStats(lane);
+            joiner.add(String.format("%s: queued=%d running=%d done=%d conn=%d/%d waiting=%d",
+                    lane.getKey(), executor.getQueue().size(), executor.getActiveCount(),
+                    executor.getCompletedTaskCount(),
+                    pool != null ? pool.getActiveConnections() : 0,
+                    pool != null ? pool.getTotalConnections() : 0,
+                    pool != null ? pool.getThreadsAwaitingConnection() : 0));
+        }
+        return joiner.toString();
+    }
+
+    /**
+     * Lets queued work finish, then stops the workers.
+     */
+    public void shutdown() {
+        executors.values().forEach(ThreadPoolExecutor::shutdown);
+        try {
+            for (Map.Entry<Lane, ThreadPoolExecutor> entry : executors.entrySet()) {
+                if (!entry.getValue().awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("Database lane {} still busy, {} tasks dropped",
+                            entry.getKey().getKey(), entry.getValue().shutdownNow().size());
+                }
+            }
+        } catch (InterruptedException e) {
+            executors.values().forEach(ThreadPoolExecutor::shutdownNow);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -20,14 +20,31 @@ import model.shop.Shop;
 import model.skill.Skill;
 
 import java.sql.SQLException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 public class DatabaseLoader {
 
+    // Set while loadAll() runs from a valid content bundle; reloads always read the database
+    private volatile ContentBundle bundle;
+
+    // Categories an admin can reload one at a time, see reload(String)
+    private final Map<String, LoaderGraph.Loader> categories = new LinkedHashMap<>();
+
     private DatabaseLoader() {
+        categories.put("items", () -> {
+            loadEquipment();
+            loadPotion();
+            loadMaterial();
+        });
+        categories.put("options", this::loadItemOption);
+        categories.put("fashion", this::loadItemFashion);
+        categories.put("monsters", () -> loadMonster(true));
+        categories.put("skills", () -> loadSkill(true));
+        categories.put("npcs", () -> loadNpc(true));
+        categories.put("shops", () -> loadShop(true));
+        categories.put("languages", () -> LanguageManager.getInstance().load(fetch(ContentBundle.LANGUAGE)));
     }
 
     private static class Holder {
@@ -38,258 +55,236 @@ public class DatabaseLoader {
         return DatabaseLoader.Holder.INSTANCE;
     }
 
+    /**
+     * Loads every game table and builds the world. Static content comes from the
+     * {@link ContentBundle} when a valid one exists, otherwise from MySQL. Independent tables
+     * load in parallel; a table whose rows reference another (guild inventories decode items,
+     * zones spawn monsters) waits for it. Any failure aborts startup with a report of what loaded.
+     */
     public void loadAll() {
-        LanguageManager.getInstance().loadLanguages();
-
-        loadEquipment();
-        loadPotion();
-        loadMaterial();
-        loadItemOption();
-        loadItemFashion();
-        loadSvConfig();
-        loadGuild();
-        loadPet();
-        loadMap(false);
-        loadMonster(false);
-        loadSkill(false);
-        loadNpc(false);
-        loadShop(false);
+        int threads = Math.max(2, DBConfig.gI().getLane(Lane.INTERACTIVE).maximumPoolSize());
 
-    }
-
-    public void loadEquipment() {
-        try {
-            List<EquipmentItem> items = SQL.from(EquipmentItem.class).get();
-            items.forEach(
-                    item -> {
-                        ItemManager.getInstance().addEquipment(item);
-                    }
-            );
-            log.debug("{} Equipment loaded", items.size());
-        } catch (SQLException e) {
-            log.error("loadEquipment() Failed: {}", e.getMessage());
+        bundle = ContentBundle.open();
+        if (bundle != null) {
+            WorldManager.getInstance().setPrebuiltGrids(bundle.grids());
         }
-    }
 
-    public void loadPotion() {
         try {
-            List<PotionItem> items = SQL.from(PotionItem.class).get();
-            items.forEach(
-                    item -> ItemManager.getInstance().addPotion(item)
-            );
-            log.debug("{} Potion loaded", items.size());
-        } catch (SQLException e) {
-            log.error("loadPotion() Failed: {}", e.getMessage());
+            loadGraph(threads);
+        } finally {
+            bundle = null;
         }
     }
 
-    public void loadMaterial() {
-        try {
-            List<MaterialItem> items = SQL.from(MaterialItem.class).get();
-            items.forEach(
-                    item -> ItemManager.getInstance().addMaterial(item)
-            );
-
-            log.debug("{} Material loaded", items.size());
-        } catch (SQLException e) {
-            log.error("loadMaterial() Failed: {}", e.getMessage());
-        }
+    private void loadGraph(int threads) {
+        new LoaderGraph()
+                .add("language", () -> LanguageManager.getInstance().load(fetch(ContentBundle.LANGUAGE)))
+                .add("equipment", this::loadEquipment)
+                .add("potion", this::loadPotion)
+                .add("material", this::loadMaterial)
+                .add("itemOption", this::loadItemOption)
+                .add("fashion", this::loadItemFashion)
+                .add("svConfig", this::loadSvConfig)
+                .add("pet", this::loadPet)
+                .add("map", () -> loadMap(false))
+                .add("monster", () -> loadMonster(false))
+                .add("skill", () -> loadSkill(false))
+                .add("npc", () -> loadNpc(false))
+                .add("guild", this::loadGuild, "equipment", "potion", "material")
+                .add("shop", () -> loadShop(false), "equipment", "potion", "material")
+                .add("world", WorldManager.getInstance()::createGameMaps, "map", "monster", "npc", "guild")
+                .run(threads);
     }
 
-    public void loadItemOption() {
-        try {
-            List<ItemOption> items = SQL.from(ItemOption.class).table("option_item").get();
-            items.forEach(
-                    item -> ItemManager.getInstance().addItemOption(item)
-            );
-            log.debug("{} ItemOption loaded", items.size());
-        } catch (SQLException e) {
-            log.error("loadItemOption() Failed: {}", e.getMessage());
-        }
+    public void loadEquipment() throws SQLException {
+        List<EquipmentItem> items = fetch(ContentBundle.EQUIPMENT);
+        ItemManager.getInstance().loadEquipment(items);
+        log.debug("{} Equipment loaded", items.size());
     }
 
-    public void loadItemFashion() {
-        try {
-            List<Fashion> items = SQL.from(Fashion.class).table("fashion").get();
-            items.forEach(
-                    item -> ItemManager.getInstance().addFashion(item)
-            );
-            log.debug("{} ItemFashion loaded", items.size());
-        } catch (SQLException e) {
-            log.error("loadItemFashion() Failed: {}", e.getMessage());
-        }
+    public void loadPotion() throws SQLException {
+        List<PotionItem> items = fetch(ContentBundle.POTION);
+        ItemManager.getInstance().loadPotions(items);
+        log.debug("{} Potion loaded", items.size());
     }
 
+    public void loadMaterial() throws SQLException {
+        List<MaterialItem> items = fetch(ContentBundle.MATERIAL);
+        ItemManager.getInstance().loadMaterials(items);
+        log.debug("{} Material loaded", items.size());
+    }
 
-    public void loadSvConfig() {
-        try {
-            SVConfig cfg = SQL.from(SVConfig.class).table("sv_config").first();
-            ConfigManager configManager = ConfigManager.getInstance();
-            configManager.setSvConfig(cfg);
-            log.debug("SvConfig loaded && {} pet", cfg.getPetTemplate().size());
-
-            List<AttributeConfig> attributeConfigs = SQL.from(AttributeConfig.class).get();
-            attributeConfigs.forEach(configManager::addAttributeConfig);
-
-            log.debug("AttributeConfig loaded {}", attributeConfigs.size());
-        } catch (SQLException e) {
-            log.error("loadConfig() Failed: {}", e.getMessage());
-        }
+    public void loadItemOption() throws SQLException {
+        List<ItemOption> items = fetch(ContentBundle.ITEM_OPTION);
+        ItemManager.getInstance().loadOptions(items);
+        log.debug("{} ItemOption loaded", items.size());
     }
 
-    public void loadMap(boolean isReload) {
-        try {
-            List<MapData> items = SQL.from(MapData.class).get();
-            if (isReload) {
-                WorldManager.getInstance().reloadMapData(items);
-            } else {
-                items.forEach(
-                        map -> WorldManager.getInstance().addMapData(map)
-                );
-                log.info("{} MapData loaded", items.size());
-            }
+    public void loadItemFashion() throws SQLException {
+        List<Fashion> items = fetch(ContentBundle.FASHION);
+        ItemManager.getInstance().loadFashion(items);
+        log.debug("{} ItemFashion loaded", items.size());
+    }
 
-            List<MapName> names = SQL.from(MapName.class).get();
-            if (isReload) {
-                WorldManager.getInstance().mapNames.clear();
-            }
-            names.forEach(name -> WorldManager.getInstance().addMapName(name));
 
+    public void loadSvConfig() throws SQLException {
+        SVConfig cfg = SQL.from(SVConfig.class).table("sv_config").first();
+        ConfigManager configManager = ConfigManager.getInstance();
+        configManager.setSvConfig(cfg);
+        log.debug("SvConfig loaded && {} pet", cfg.getPetTemplate().size());
 
-        } catch (SQLException e) {
-            log.error("loadMap() Failed: {}", e.getMessage());
-        }
+        List<AttributeConfig> attributeConfigs = SQL.from(AttributeConfig.class).get();
+        attributeConfigs.forEach(configManager::addAttributeConfig);
 
+        log.debug("AttributeConfig loaded {}", attributeConfigs.size());
     }
 
-    public void loadMonster(boolean isReload) {
-        try {
-            List<Monster> items = SQL.from(Monster.class).get();
-
-            if (isReload) MonsterManager.getInstance().clear();
-
+    public void loadMap(boolean isReload) throws SQLException {
+        List<MapData> items = fetch(ContentBundle.MAP);
+        if (isReload) {
+            WorldManager.getInstance().reloadMapData(items);
+        } else {
             items.forEach(
-                    map -> {
-                        MonsterManager.getInstance().addMonster(map);
-                    }
+                    map -> WorldManager.getInstance().addMapData(map)
             );
-            log.info("{} Monster loaded", items.size());
-        } catch (SQLException e) {
-            log.error("loadMonster() Failed: {}", e.getMessage());
+            log.info("{} MapData loaded", items.size());
         }
 
-    }
-
-    public void loadSkill(boolean isReload) {
-        try {
-            if (isReload) SkillManager.getInstance().clear();
-
-            List<Skill> items = SQL.from(Skill.class).get();
-            Map<Integer, Map<Byte, Skill>> skills = new HashMap<>();
-            for (Skill skill : items) {
-                skills
-                        .computeIfAbsent(skill.role, r -> new HashMap<>())
-                        .put(skill.sid, skill);
-            }
-
-            skills.forEach(
-                    (role, skill) -> SkillManager.getInstance().addSkill(role, skill)
-            );
-
-            log.info("{} Skill loaded", items.size());
-        } catch (SQLException e) {
-            log.error("loadSkill() Failed: {}", e.getMessage());
+        List<MapName> names = fetch(ContentBundle.MAP_NAME);
+        if (isReload) {
+            WorldManager.getInstance().mapNames.clear();
         }
+        names.forEach(name -> WorldManager.getInstance().addMapName(name));
 
     }
 
-    public void loadNpc(boolean isReload) {
-        try {
-            if (isReload) NpcManager.getInstance().clear();
-
-            List<NpcData> items = SQL.from(NpcData.class).table("npc").get();
-
-            items.forEach(
-                    npc -> {
-                        NpcManager.getInstance().addNpc(npc);
-                    }
-            );
-            log.info("{} NPC loaded", items.size());
-        } catch (SQLException e) {
-            log.error("loadNPC() Failed: {}", e.getMessage());
-        }
+    public void loadMonster(boolean isReload) throws SQLException {
+        List<Monster> items = fetch(ContentBundle.MONSTER);
+        MonsterManager.getInstance().load(items);
+        log.info("{} Monster loaded", items.size());
     }
 
-    public void loadShop(boolean isReload) {
-        try {
-            if (isReload) ShopManager.getInstance().clear();
+    public void loadSkill(boolean isReload) throws SQLException {
+        List<Skill> items = fetch(ContentBundle.SKILL);
+        Map<Integer, Map<Byte, Skill>> skills = new HashMap<>();
+        for (Skill skill : items) {
+            skills
+                    .computeIfAbsent(skill.role, r -> new HashMap<>())
+                    .put(skill.sid, skill);
+        }
 
-            List<Shop> items = SQL.from(Shop.class).get();
+        // Replaces the previous table atomically, so a reload needs no clear()
+        SkillManager.getInstance().load(skills);
 
-            items.forEach(
-                    s -> {
-                        ShopManager.getInstance().addShop(s);
-                    }
-            );
-            log.info("{} Shop loaded", items.size());
-        } catch (SQLException e) {
-            log.error("loadShop() Failed: {}", e.getMessage());
-        }
+        log.info("{} Skill loaded", items.size());
     }
 
-    public void loadPet() {
-        try {
+    public void loadNpc(boolean isReload) throws SQLException {
+        List<NpcData> items = fetch(ContentBundle.NPC);
+        NpcManager.getInstance().load(items);
+        log.info("{} NPC loaded", items.size());
+    }
 
+    public void loadShop(boolean isReload) throws SQLException {
+        List<Shop> items = fetch(ContentBundle.SHOP);
+        ShopManager.getInstance().load(items);
+        log.info("{} Shop loaded", items.size());
+    }
 
-            List<PetData> items = SQL.from(PetData.class).get();
+    public void loadPet() throws SQLException {
+        List<PetData> items = fetch(ContentBundle.PET);
 
-            items.forEach(
-                    s -> {
-                        PetManager.getInstance().addPet(s);
-                    }
-            );
-            log.info("{} Pet loaded", items.size());
-        } catch (SQLException e) {
-            log.error("loadPet() Failed: {}", e.getMessage());
-        }
+        items.forEach(
+                s -> {
+                    PetManager.getInstance().addPet(s);
+                }
+        );
+        log.info("{} Pet loaded", items.size());
     }
 
 
-    public void loadGuild() {
-        try {
-
-            List<Guild> items = SQL.from(Guild.class).get();
-            GuildManager.getInstance().setGuilds(items);
-            log.info("{} Guilds loaded", items.size());
+    public void loadGuild() throws SQLException {
+        List<Guild> items = SQL.from(Guild.class).get();
+        GuildManager.getInstance().setGuilds(items);
+        log.info("{} Guilds loaded", items.size());
 
-            List<GuildMine> crystals = SQL.from(GuildMine.class).get();
-            GuildManager.getInstance().setGuildCrystal(crystals);
-            log.info("{} Guild Mines loaded", crystals.size());
+        List<GuildMine> crystals = SQL.from(GuildMine.class).get();
+        GuildManager.getInstance().setGuildCrystal(crystals);
+        log.info("{} Guild Mines loaded", crystals.size());
 
+    }
 
-        } catch (SQLException e) {
-            log.error("loadGuild() Failed: {}", e.getMessage());
+    // Rows from the bundle during a bundled startup, otherwise from the table
+    private <T> List<T> fetch(ContentBundle.Section<T> section) throws SQLException {
+        ContentBundle current = bundle;
+        if (current != null) {
+            List<T> rows = current.rows(section);
+            if (rows != null) return rows;
         }
+        return section.query();
     }
 
+    /**
+     * Reloads every content table; each registry is swapped as a whole, so lookups see either
+     * the old or the new table while this runs.
+     */
     public synchronized void reloadAll(Runnable onComplete) {
-        ItemManager.getInstance().clearAll();
-        loadEquipment();
-        loadPotion();
-        loadMaterial();
-        loadItemOption();
-        loadItemFashion();
+        reload("loadEquipment", this::loadEquipment);
+        reload("loadPotion", this::loadPotion);
+        reload("loadMaterial", this::loadMaterial);
+        reload("loadItemOption", this::loadItemOption);
+        reload("loadItemFashion", this::loadItemFashion);
         //loadSvConfig();
 
-        loadMap(true);
-        loadMonster(true);
-        loadSkill(true);
-        loadNpc(true);
-        loadShop(true);
+        reload("loadMap", () -> loadMap(true));
+        reload("loadMonster", () -> loadMonster(true));
+        reload("loadSkill", () -> loadSkill(true));
+        reload("loadNpc", () -> loadNpc(true));
+        reload("loadShop", () -> loadShop(true));
 
         if (onComplete != null) {
             onComplete.run();
         }
     }
 
+    // ==================== HOT RELOAD ====================
+
+    /**
+     * Rebuilds one content category on the reporting lane and swaps it in while the world
+     * keeps running.
+     *
+     * @param category one of {@link #getReloadCategories()}
+     */
+    public CompletableFuture<Void> reload(String category) {
+        LoaderGraph.Loader loader = categories.get(category.trim().toLowerCase(Locale.ROOT));
+        if (loader == null) {
+            return CompletableFuture.failedFuture(new IllegalArgumentException(
+                    "Unknown category " + category + ", expected one of " + categories.keySet()));
+        }
+        return DatabaseExecutor.gI().run(Lane.REPORTING, () -> {
+            long start = System.currentTimeMillis();
+            try {
+                loader.load();
+            } catch (SQLException | RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new SQLException(e.getMessage(), e);
+            }
+            log.info("Reloaded {} in {} ms", category, System.currentTimeMillis() - start);
+        });
+    }
+
+    public Set<String> getReloadCategories() {
+        return categories.keySet();
+    }
+
+    // A live reload keeps the server up: a failed table keeps its previous contents
+    private static void reload(String name, LoaderGraph.Loader loader) {
+        try {
+            loader.load();
+        } catch (Exception e) {
+            log.error("{}() Failed: {}", name, e.getMessage());
+        }
+    }
+
 }
@@ -0,0 +1,78 @@
+package database;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Version counter for one persisted aggregate (player row, inventory, pets, guild...).
+ * <p>
+ * Mutations call {@link #mark()}. The saver reads {@link #version()} before serializing,
+ * writes, then confirms with {@link #saved(long)}. A mutation that lands while the write
+ * is in flight moves the version past the confirmed one, so the aggregate stays dirty
+ * for the next flush.
+ * <p>
+ * The write-ahead {@link Journal} keeps its own mark in the same way, so an aggregate is
+ * journaled once per change rather than once per tick.
+ */
+public final class DirtyTracker {
+    private final AtomicLong version = new AtomicLong();
+    private volatile long savedVersion;
+
+    // Content hash of the last write, for aggregates that are also changed through plain setters
+    private volatile int savedFingerprint;
+
+    private volatile long journaledVersion;
+    private volatile int journaledFingerprint;
+
+    public void mark() {
+        version.incrementAndGet();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public boolean isDirty() {
+        return version.get() != savedVersion;
+    }
+
+    public boolean isDirty(int fingerprint) {
+        return isDirty() || fingerprint != savedFingerprint;
+    }
+
+    public synchronized void saved(long version) {
+        if (version > savedVersion) {
+            savedVersion = version;
+        }
+    }
+
+    public synchronized void saved(long version, int fingerprint) {
+        saved(version);
+        savedFingerprint = fingerprint;
+    }
+
+    // ==================== JOURNAL ====================
+
+    public boolean needsJournal() {
+        return version.get() != journaledVersion;
+    }
+
+    public boolean needsJournal(int fingerprint) {
+        return needsJournal() || fingerprint != journaledFingerprint;
+    }
+
+    public void journaled(long version) {
+        journaledVersion = version;
+    }
+
+    public void journaled(long version, int fingerprint) {
+        journaledVersion = version;
+        journaledFingerprint = fingerprint;
+    }
+
+    /**
+     * Forces the next journal capture to write the aggregate again.
+     */
+    public void resetJournal() {
+        journaledVersion = -1;
+    }
+}
@@ -0,0 +1,271 @@
+package database;
+
+import game.entity.player.PlayerEntity;
+import lombok.extern.slf4j.Slf4j;
+import model.item.BaseItem;
+import model.item.EquipmentItem;
+import model.item.Option;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Durable trail of gold, gem and item movements, for investigating dupes.
+ * <p>
+ * Gameplay threads publish events into a bounded lock-free ring and return immediately; the
+ * "EconomyAudit" thread drains it every few hundred milliseconds and appends the batch to a
+ * daily file under {@code data/audit} (rolled early when it grows past {@link #MAX_FILE_BYTES}).
+ * Lines are tab separated, see {@link #format(Event)}, and {@code dev.AuditQuery} searches them.
+ * <p>
+ * Nothing here ever blocks the caller. Once the ring is three quarters full only one event in
+ * {@link #SAMPLE_RATE} is kept; when it is full events are dropped. Both are counted and written
+ * to the trail as a {@code GAP} line, so a reader knows the history around it is incomplete.
+ */
+@Slf4j
+public final class EconomyAudit {
+
+    public static final Path DIR = Paths.get("data/audit");
+
+    // Marks the piece's fingerprint before an upgrade in the detail column
+    public static final String PIECE_BEFORE = "from=";
+
+    private static final int CAPACITY = 1 << 16;
+    private static final int HIGH_WATER = CAPACITY / 4 * 3;
+    private static final int SAMPLE_RATE = 8;
+    private static final long DRAIN_INTERVAL_MS = 250;
+    private static final long MAX_FILE_BYTES = 256L << 20;
+
+    public enum Asset {GOLD, GEM, ITEM}
+
+    public enum Reason {
+        SHOP_BUY,
+        UPGRADE,
+        UPGRADE_MATERIAL,
+        GUILD_DONATE,
+        GUILD_DEPOSIT,
+        GUILD_WITHDRAW,
+        GUILD_STORAGE_DONATE,
+        GUILD_STORAGE_TAKE
+    }
+
+    /**
+     * One movement. {@code amount} is signed from the player's side (negative when it left the
+     * player); {@code balance} is the player's gold or gems afterwards, -1 for items.
+     * {@code counterparty} is the guild or player on the other side, 0 when there is none.
+     */
+    public record Event(long time, int playerId, Reason reason, Asset asset, int itemId, String category,
+                        long amount, long balance, int counterparty, String fingerprint, String detail) {
+    }
+
+    // Producers claim a sequence with CAS on tail; the writer consumes from head
+    private final AtomicReferenceArray<Event> ring = new AtomicReferenceArray<>(CAPACITY);
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    private final LongAdder sampledOut = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    private final ScheduledExecutorService writer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "EconomyAudit");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Owned by the writer thread
+    private OutputStream out;
+    private Path file;
+    private LocalDate fileDay;
+    private long fileBytes;
+
+    private EconomyAudit() {
+        writer.scheduleWithFixedDelay(this::drain, DRAIN_INTERVAL_MS, DRAIN_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static class Holder {
+        private static final EconomyAudit INSTANCE = new EconomyAudit();
+    }
+
+    public static EconomyAudit gI() {
+        return Holder.INSTANCE;
+    }
+
+    // ==================== RECORDING ====================
+
+    public void gold(PlayerEntity player, long amount, Reason reason, int counterparty) {
+        publish(new Event(System.currentTimeMillis(), player.getId(), reason, Asset.GOLD, 0, null,
+                amount, player.getGold(), counterparty, null, null));
+    }
+
+    public void gem(PlayerEntity player, long amount, Reason reason, int counterparty) {
+        publish(new Event(System.currentTimeMillis(), player.getId(), reason, Asset.GEM, 0, null,
+                amount, player.getGems(), counterparty, null, null));
+    }
+
+    public void item(PlayerEntity player, BaseItem item, long amount, Reason reason, int counterparty) {
+        item(player, item, amount, reason, counterparty, null);
+    }
+
+    public void item(PlayerEntity player, BaseItem item, long amount, Reason reason, int counterparty, String detail) {
+        if (item == null) return;
+        publish(new Event(System.currentTimeMillis(), player.getId(), reason, Asset.ITEM, item.getId(),
+                item.getCategory().name(), amount, -1, counterparty, fingerprint(item), detail));
+    }
+
+    /**
+     * An upgrade attempt. The fingerprint covers the plus, so the one the piece had before goes
+     * into the detail; that links its history across upgrades (see {@code dev.AuditQuery}).
+     */
+    public void upgrade(PlayerEntity player, EquipmentItem item, int plusBefore, String fingerprintBefore) {
+        item(player, item, 0, Reason.UPGRADE, 0,
+                "+" + plusBefore + "->+" + item.getPlus() + " " + PIECE_BEFORE + fingerprintBefore);
+    }
+
+    /**
+     * Queues an event without blocking; under pressure it may be sampled out or dropped (and counted).
+     */
+    public void publish(Event event) {
+        while (true) {
+            long t = tail.get();
+            long used = t - head.get();
+            if (used >= CAPACITY) {
+                dropped.increment();
+                return;
+            }
+            if (used >= HIGH_WATER && sampleCounter.incrementAndGet() % SAMPLE_RATE != 0) {
+                sampledOut.increment();
+                return;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                ring.set((int) (t & (CAPACITY - 1)), event);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Identifies one rolled equipment piece (template, plus, grade, options), so the same piece
+     * showing up on two characters stands out. Null for stackable items.
+     */
+    public static String fingerprint(BaseItem item) {
+        if (!(item instanceof EquipmentItem eq)) return null;
+
+        long h = 1125899906842597L;
+        h = 31 * h + eq.getId();
+        h = 31 * h + eq.getPlus();
+        h = 31 * h + eq.getGrade();
+        if (eq.getOption() != null) {
+            for (Option op : eq.getOption()) {
+                h = 31 * h + op.getId();
+                h = 31 * h + op.getValue();
+            }
+        }
+        return Long.toHexString(h);
+    }
+
+    // ==================== WRITER ====================
+
+    private void drain() {
+        try {
+            List<String> lines = new ArrayList<>();
+            long sampled = sampledOut.sumThenReset();
+            long lost = dropped.sumThenReset();
+            if (sampled > 0 || lost > 0) {
+                lines.add(System.currentTimeMillis() + "\tGAP\tsampled=" + sampled + "\tdropped=" + lost);
+                log.warn("Economy audit under pressure: {} events sampled out, {} dropped", sampled, lost);
+            }
+
+            long h = head.get();
+            long end = tail.get();
+            while (h < end) {
+                int index = (int) (h & (CAPACITY - 1));
+                Event event = ring.get(index);
+                if (event == null) break; // claimed but not stored yet; picked up next round
+                ring.set(index, null);
+                lines.add(format(event));
+                h++;
+                head.set(h);
+            }
+
+            if (!lines.isEmpty()) write(lines);
+        } catch (Exception e) {
+            log.error("drain() Failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * {@code time playerId reason asset itemId category amount balance counterparty fingerprint detail},
+     * tab separated, {@code -} for empty fields.
+     */
+    static String format(Event e) {
+        return e.time() + "\t" + e.playerId() + "\t" + e.reason() + "\t" + e.asset() + "\t" + e.itemId()
+                + "\t" + orDash(e.category()) + "\t" + e.amount() + "\t" + e.balance() + "\t" + e.counterparty()
+                + "\t" + orDash(e.fingerprint()) + "\t" + orDash(e.detail());
+    }
+
+    private static String orDash(String value) {
+        return value == null || value.isEmpty() ? "-" : value.replace('\t', ' ').replace('\n', ' ');
+    }
+
+    // No fsync: the trail may lose the last moments before a crash, never gameplay time
+    private void write(List<String> lines) throws IOException {
+        LocalDate today = LocalDate.now(ZoneId.systemDefault());
+        if (out == null || !today.equals(fileDay) || fileBytes >= MAX_FILE_BYTES) {
+            roll(today);
+        }
+        for (String line : lines) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            out.write(bytes);
+            out.write('\n');
+            fileBytes += bytes.length + 1;
+        }
+        out.flush();
+    }
+
+    private void roll(LocalDate today) throws IOException {
+        if (out != null) out.close();
+        Files.createDirectories(DIR);
+
+        Path next = DIR.resolve("audit-" + today + ".log");
+        for (int i = 1; Files.exists(next) && Files.size(next) >= MAX_FILE_BYTES; i++) {
+            next = DIR.resolve("audit-" + today + "." + i + ".log");
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(next,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        file = next;
+        fileDay = today;
+        fileBytes = Files.size(next);
+        log.info("Economy audit writing to {}", file);
+    }
+
+    /**
+     * Writes whatever is queued and closes the file.
+     */
+    public void close() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) writer.shutdownNow();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        drain();
+        try {
+            if (out != null) out.close();
+        } catch (IOException e) {
+            log.error("close() Failed: {}", e.getMessage());
+        }
+    }
+}
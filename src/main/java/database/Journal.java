@@ -0,0 +1,476 @@
+package database;
+
+import database.repositories.PlayerRepository;
+import game.entity.player.PlayerEntity;
+import game.equipment.PlayerEquipment;
+import game.friend.FriendList;
+import game.inventory.InventoryManager;
+import game.inventory.ItemCodec;
+import game.inventory.PlayerInventory;
+import game.pet.PlayerPet;
+import lombok.extern.slf4j.Slf4j;
+import model.ModelMapper;
+import model.player.Player;
+import model.player.PlayerMapper;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Local write-ahead journal covering the gap between autosaves.
+ * <p>
+ * At the end of every tick the aggregates that changed since they were last journaled
+ * are appended as compact records (player row/pet/friend JSON, slot columns already in their
+ * stored encoding) and the batch is fsynced once on the journal thread. Records hold absolute
+ * values, so replaying them is idempotent and the last record per aggregate wins.
+ * <p>
+ * Autosave seals the current segment before flushing and deletes the sealed segments once the
+ * flush went through; a forced save (logout, cache eviction) writes a marker that supersedes the
+ * player's earlier records. On startup {@link #replay()} writes whatever survived a crash into
+ * MySQL before the world is loaded.
+ */
+@Slf4j
+public final class Journal {
+
+    private static final Path DIR = Paths.get("data/journal");
+    private static final String SUFFIX = ".wal";
+
+    private static final byte PLAYER = 1;
+    private static final byte EQUIPMENT = 2;
+    private static final byte BAG = 3;
+    private static final byte STORAGE = 4;
+    private static final byte PET = 5;
+    private static final byte FRIENDS = 6;
+    private static final byte SAVED = 7;
+
+    private static final int MAX_RECORD = 1 << 20;
+
+    private final PlayerRepository playerRepository = new PlayerRepository();
+
+    // Tick-thread batch, handed to the writer by commit()
+    private final ByteArrayOutputStream batch = new ByteArrayOutputStream(16 * 1024);
+    private final ByteArrayOutputStream scratch = new ByteArrayOutputStream(1024);
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "Journal");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // Owned by the writer thread
+    private FileChannel channel;
+    private long segment;
+
+    private Journal() {
+    }
+
+    private static class Holder {
+        private static final Journal INSTANCE = new Journal();
+    }
+
+    public static Journal gI() {
+        return Holder.INSTANCE;
+    }
+
+    // ==================== CAPTURE (tick thread) ====================
+
+    /**
+     * Appends a record for every aggregate of the player that changed since its last record.
+     */
+    public void capture(PlayerEntity player) {
+        if (player.isClone()) return;
+        int playerId = player.getId();
+
+        try {
+            // The whole row, as autosave writes it: skills and location change through plain setters,
+            // so like autosave the content hash decides, not just the version
+            Player model = PlayerMapper.toModel(player);
+            int fingerprint = model.hashCode();
+            DirtyTracker tracker = player.getTracker();
+            if (tracker.needsJournal(fingerprint)) {
+                long version = tracker.version();
+                writeColumn(PLAYER, playerId, ModelMapper.toJson(model));
+                tracker.journaled(version, fingerprint);
+            }
+
+            InventoryManager inventoryManager = player.getInventoryManager();
+            if (inventoryManager != null) {
+                PlayerEquipment wearing = inventoryManager.getWearing();
+                tracker = wearing.getTracker();
+                if (tracker.needsJournal()) {
+                    long version = tracker.version();
+                    writeColumn(EQUIPMENT, playerId, ItemCodec.EQUIPMENT.encode(wearing.getItems()));
+                    tracker.journaled(version);
+                }
+                captureInventory(BAG, playerId, inventoryManager.getInventory());
+                captureInventory(STORAGE, playerId, inventoryManager.getStorage());
+            }
+
+            PlayerPet pet = player.getPlayerPet();
+            if (pet != null && pet.getTracker().needsJournal()) {
+                long version = pet.getTracker().version();
+                writeColumn(PET, playerId, ModelMapper.toJson(pet));
+                pet.getTracker().journaled(version);
+            }
+
+            FriendList friendList = player.getFriendList();
+            if (friendList != null && friendList.getTracker().needsJournal()) {
+                long version = friendList.getTracker().version();
+                writeColumn(FRIENDS, playerId, ModelMapper.toJson(friendList));
+                friendList.getTracker().journaled(version);
+            }
+        } catch (IOException e) {
+            log.error("capture() Failed: {}", e.getMessage());
+        }
+    }
+
+    private void captureInventory(byte type, int playerId, PlayerInventory inventory) throws IOException {
+        if (inventory == null) return;
+
+        DirtyTracker tracker = inventory.getTracker();
+        if (!tracker.needsJournal()) return;
+
+        long version = tracker.version();
+        writeColumn(type, playerId, ItemCodec.INVENTORY.encode(inventory.getItems()));
+        tracker.journaled(version);
+    }
+
+    private void writeColumn(byte type, int playerId, String value) throws IOException {
+        DataOutputStream out = begin(type, playerId);
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        end();
+    }
+
+    private DataOutputStream begin(byte type, int playerId) throws IOException {
+        scratch.reset();
+        DataOutputStream out = new DataOutputStream(scratch);
+        out.writeByte(type);
+        out.writeInt(playerId);
+        return out;
+    }
+
+    // Frames the scratch record into the tick batch: length, payload, crc
+    private void end() throws IOException {
+        frame(scratch.toByteArray(), batch);
+    }
+
+    private static void frame(byte[] payload, ByteArrayOutputStream target) throws IOException {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        DataOutputStream out = new DataOutputStream(target);
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.writeInt((int) crc.getValue());
+    }
+
+    /**
+     * Hands this tick's records to the journal thread, which writes and fsyncs them in one go.
+     */
+    public void commit() {
+        if (batch.size() == 0) return;
+
+        byte[] bytes = batch.toByteArray();
+        batch.reset();
+        submit(() -> append(bytes));
+    }
+
+    // ==================== FORCED SAVES / CHECKPOINTS ====================
+
+    /**
+     * Every aggregate of the player was just written in full: earlier records are obsolete.
+     * The trackers are re-armed so a change racing the save is journaled again after the marker.
+     */
+    public void saved(PlayerEntity player) {
+        try {
+            ByteArrayOutputStream payload = new ByteArrayOutputStream(5);
+            DataOutputStream out = new DataOutputStream(payload);
+            out.writeByte(SAVED);
+            out.writeInt(player.getId());
+
+            ByteArrayOutputStream record = new ByteArrayOutputStream(16);
+            frame(payload.toByteArray(), record);
+
+            byte[] bytes = record.toByteArray();
+            submit(() -> append(bytes));
+        } catch (IOException e) {
+            log.error("saved() Failed: {}", e.getMessage());
+        }
+
+        player.getTracker().resetJournal();
+        InventoryManager inventoryManager = player.getInventoryManager();
+        if (inventoryManager != null) {
+            inventoryManager.getWearing().getTracker().resetJournal();
+            inventoryManager.getInventory().getTracker().resetJournal();
+            if (inventoryManager.getStorage() != null) inventoryManager.getStorage().getTracker().resetJournal();
+        }
+        if (player.getPlayerPet() != null) player.getPlayerPet().getTracker().resetJournal();
+        if (player.getFriendList() != null) player.getFriendList().getTracker().resetJournal();
+    }
+
+    /**
+     * Seals the current segment; records appended from now on go to a new one.
+     *
+     * @return the sealed segment, to pass to {@link #checkpoint(long)} once the flush succeeded
+     */
+    public long rotate() {
+        try {
+            return writer.submit(() -> {
+                closeChannel();
+                return segment++;
+            }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } catch (ExecutionException e) {
+            log.error("rotate() Failed: {}", e.getCause().getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Truncates the journal up to (and including) the given sealed segment.
+     */
+    public void checkpoint(long sealed) {
+        if (sealed < 0) return;
+        submit(() -> {
+            for (Path file : segments()) {
+                if (segmentOf(file) <= sealed) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            log.debug("Journal checkpoint at segment {}", sealed);
+        });
+    }
+
+    /**
+     * Writes what is still queued and closes the file. Called on shutdown.
+     */
+    public void close() {
+        submit(this::closeChannel);
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                log.warn("Journal writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ==================== WRITER (journal thread) ====================
+
+    @FunctionalInterface
+    private interface IoTask {
+        void run() throws IOException;
+    }
+
+    private void submit(IoTask task) {
+        try {
+            writer.execute(() -> {
+                try {
+                    task.run();
+                } catch (IOException e) {
+                    log.error("Journal write failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Journal closed, record dropped");
+        }
+    }
+
+    private void append(byte[] bytes) throws IOException {
+        if (channel == null) {
+            Files.createDirectories(DIR);
+            channel = FileChannel.open(segmentPath(segment),
+                    StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private static Path segmentPath(long segment) {
+        return DIR.resolve(String.format("%012d%s", segment, SUFFIX));
+    }
+
+    private static long segmentOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    private static List<Path> segments() throws IOException {
+        if (!Files.isDirectory(DIR)) return List.of();
+        try (Stream<Path> files = Files.list(DIR)) {
+            return files.filter(f -> f.getFileName().toString().matches("\\d+\\" + SUFFIX))
+                    .sorted(Comparator.comparingLong(Journal::segmentOf))
+                    .toList();
+        }
+    }
+
+    // ==================== REPLAY (startup) ====================
+
+    /**
+     * Applies the records left by a crash to the database, then truncates the journal.
+     * Must run before the world is loaded and before the first capture.
+     *
+     * @throws IllegalStateException when the journal cannot be read or applied; it is left in
+     * place for the next start, which must not happen on the stale rows
+     */
+    public void replay() {
+        List<Path> files;
+        try {
+            files = segments();
+        } catch (IOException e) {
+            throw new IllegalStateException("Journal replay failed, cannot list " + DIR + ": " + e.getMessage(), e);
+        }
+        if (files.isEmpty()) return;
+
+        // (playerId, type) -> last payload; a SAVED marker drops everything before it
+        Map<Long, byte[]> latest = new LinkedHashMap<>();
+        int records = 0;
+        for (Path file : files) {
+            records += read(file, latest);
+        }
+        segment = segmentOf(files.getLast()) + 1;
+
+        try {
+            SQL.transaction(() -> {
+                for (byte[] payload : latest.values()) {
+                    apply(payload);
+                }
+            });
+        } catch (SQLException | RuntimeException e) {
+            // Starting anyway would let players write newer progress over rows the journal is
+            // still ahead of; the journal stays as it is and the next start replays it again
+            log.error("replay() Failed: {}, journal kept in {}", e.getMessage(), DIR);
+            throw new IllegalStateException("Journal replay failed, startup aborted", e);
+        }
+
+        try {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            // Leftovers would be replayed over newer progress on a later start; applying them
+            // again before anyone plays is harmless, so stop here instead
+            log.error("replay() could not truncate the journal: {}", e.getMessage());
+            throw new IllegalStateException("Journal replayed but not truncated, startup aborted", e);
+        }
+        log.info("Journal replayed: {} records, {} aggregates restored", records, latest.size());
+    }
+
+    // Reads records until the end of the file or the first torn/corrupt one
+    private static int read(Path file, Map<Long, byte[]> latest) {
+        int count = 0;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                if (length <= 0 || length > MAX_RECORD) {
+                    log.warn("Journal {}: bad record length {}, stopping", file.getFileName(), length);
+                    break;
+                }
+                byte[] payload = new byte[length];
+                in.readFully(payload);
+                CRC32 crc = new CRC32();
+                crc.update(payload);
+                if (in.readInt() != (int) crc.getValue()) {
+                    log.warn("Journal {}: checksum mismatch, stopping", file.getFileName());
+                    break;
+                }
+
+                byte type = payload[0];
+                int playerId = ByteBuffer.wrap(payload, 1, 4).getInt();
+                if (type == SAVED) {
+                    for (byte t = PLAYER; t <= FRIENDS; t++) {
+                        latest.remove(key(playerId, t));
+                    }
+                } else {
+                    latest.remove(key(playerId, type)); // keep insertion order = last write
+                    latest.put(key(playerId, type), payload);
+                }
+                count++;
+            }
+        } catch (EOFException e) {
+            log.warn("Journal {}: truncated tail ignored", file.getFileName());
+        } catch (IOException e) {
+            log.error("read() Failed: {}", e.getMessage());
+        }
+        return count;
+    }
+
+    private static long key(int playerId, byte type) {
+        return ((long) playerId << 8) | type;
+    }
+
+    private void apply(byte[] payload) throws SQLException {
+        try {
+            apply(new DataInputStream(new ByteArrayInputStream(payload)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen on a checksummed in-memory record
+        }
+    }
+
+    private void apply(DataInputStream in) throws SQLException, IOException {
+        byte type = in.readByte();
+        int playerId = in.readInt();
+
+        switch (type) {
+            case PLAYER -> {
+                Player player = ModelMapper.fromJson(readString(in), Player.class);
+                if (player != null) playerRepository.update(player);
+            }
+            case EQUIPMENT -> SQL.update(PlayerEquipment.class)
+                    .set("items", readString(in))
+                    .where("playerId", playerId)
+                    .execute();
+            case BAG -> SQL.update(PlayerInventory.class)
+                    .set("items", readString(in))
+                    .where("playerId", playerId)
+                    .execute();
+            case STORAGE -> SQL.update(PlayerInventory.class)
+                    .table("player_storage")
+                    .set("items", readString(in))
+                    .where("playerId", playerId)
+                    .execute();
+            case PET -> {
+                PlayerPet pet = ModelMapper.fromJson(readString(in), PlayerPet.class);
+                if (pet != null) playerRepository.savePlayerPet(pet);
+            }
+            case FRIENDS -> {
+                FriendList friendList = ModelMapper.fromJson(readString(in), FriendList.class);
+                if (friendList != null) playerRepository.saveFriendList(friendList);
+            }
+            default -> log.warn("Journal: unknown record type {} for player {}", type, playerId);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,46 @@
+package database;
+
+import lombok.Getter;
+
+/**
+ * Database traffic classes. Each lane has its own connection pool and its own worker threads,
+ * so a slow class (an autosave sweep, a leaderboard reload) can only exhaust its own share.
+ * <p>
+ * A thread's statements go to the lane it is running in: the lane of the
+ * {@link DatabaseExecutor} worker, the one opened with {@link SQL#inLane}, or
+ * {@link #INTERACTIVE} by default.
+ */
+@Getter
+public enum Lane {
+    /** Gameplay reads and writes a player is waiting on. */
+    INTERACTIVE("interactive", 0.4, 5_000, false),
+    /** Account login, registration and character hydration. */
+    LOGIN("login", 0.2, 10_000, false),
+    /** Autosave, logout and guild saves; yields to the interactive lanes. */
+    SAVE("save", 0.3, 30_000, true),
+    /** Leaderboards and other reports; yields to the interactive lanes. */
+    REPORTING("reporting", 0.1, 15_000, true);
+
+    private final String key;
+    // Share of database.pool.maximumPoolSize when the lane has no explicit size
+    private final double poolShare;
+    private final long defaultConnectionTimeout;
+    private final boolean background;
+
+    Lane(String key, double poolShare, long defaultConnectionTimeout, boolean background) {
+        this.key = key;
+        this.poolShare = poolShare;
+        this.defaultConnectionTimeout = defaultConnectionTimeout;
+        this.background = background;
+    }
+
+    private static final ThreadLocal<Lane> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    public static Lane current() {
+        return CURRENT.get();
+    }
+
+    static void set(Lane lane) {
+        CURRENT.set(lane);
+    }
+}
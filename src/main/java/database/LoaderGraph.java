@@ -0,0 +1,179 @@
+package database;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Startup loaders declared as named nodes with explicit dependencies, run on a bounded pool.
+ * <p>
+ * A node starts as soon as everything it depends on has finished, so independent tables load
+ * side by side. Each node is timed. When a node fails, nodes that have not started yet are
+ * skipped, and {@link #run(int)} throws with a report naming the failed and skipped loaders.
+ * Usage:
+ * <pre>
+ * new LoaderGraph()
+ *         .add("items", this::loadItems)
+ *         .add("shops", this::loadShops, "items")
+ *         .run(4);
+ * </pre>
+ */
+@Slf4j
+public final class LoaderGraph {
+
+    @FunctionalInterface
+    public interface Loader {
+        void load() throws Exception;
+    }
+
+    private enum Status {PENDING, DONE, FAILED, SKIPPED}
+
+    private static final class Node {
+        final String name;
+        final Loader loader;
+        final List<String> dependsOn;
+        volatile Status status = Status.PENDING;
+        volatile long millis;
+        volatile Throwable error;
+
+        Node(String name, Loader loader, List<String> dependsOn) {
+            this.name = name;
+            this.loader = loader;
+            this.dependsOn = dependsOn;
+        }
+    }
+
+    private final Map<String, Node> nodes = new LinkedHashMap<>();
+
+    public LoaderGraph add(String name, Loader loader, String... dependsOn) {
+        if (nodes.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate loader: " + name);
+        }
+        nodes.put(name, new Node(name, loader, List.of(dependsOn)));
+        return this;
+    }
+
+    /**
+     * Runs every loader and waits for all of them.
+     *
+     * @throws IllegalStateException when the graph is invalid or any loader failed
+     */
+    public void run(int threads) {
+        List<Node> order = topologicalOrder();
+
+        AtomicInteger sequence = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "Loader-" + sequence.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        AtomicBoolean failed = new AtomicBoolean();
+        Map<String, CompletableFuture<Void>> futures = new HashMap<>();
+        long start = System.nanoTime();
+        try {
+            // Dependencies come first in topological order, so their futures already exist
+            for (Node node : order) {
+                CompletableFuture<?>[] deps = node.dependsOn.stream()
+                        .map(futures::get)
+                        .toArray(CompletableFuture[]::new);
+                futures.put(node.name, CompletableFuture.allOf(deps)
+                        .thenRunAsync(() -> execute(node, failed), pool));
+            }
+            CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new))
+                    .exceptionally(e -> null)
+                    .join();
+        } finally {
+            pool.shutdownNow();
+        }
+
+        for (Node node : order) {
+            if (node.status == Status.PENDING) node.status = Status.SKIPPED; // a dependency failed
+        }
+        report(order, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void execute(Node node, AtomicBoolean failed) {
+        if (failed.get()) {
+            node.status = Status.SKIPPED;
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            node.loader.load();
+            node.status = Status.DONE;
+        } catch (Throwable e) {
+            node.status = Status.FAILED;
+            node.error = e;
+            failed.set(true);
+            log.error("Loader {} failed", node.name, e);
+            throw new CompletionException(e);
+        } finally {
+            node.millis = (System.nanoTime() - start) / 1_000_000;
+        }
+    }
+
+    // Kahn's algorithm; also rejects unknown dependencies and cycles before anything runs
+    private List<Node> topologicalOrder() {
+        Map<String, Integer> indegree = new LinkedHashMap<>();
+        Map<String, List<String>> dependents = new HashMap<>();
+        for (Node node : nodes.values()) {
+            indegree.put(node.name, node.dependsOn.size());
+            for (String dep : node.dependsOn) {
+                if (!nodes.containsKey(dep)) {
+                    throw new IllegalStateException("Loader " + node.name + " depends on unknown loader " + dep);
+                }
+                dependents.computeIfAbsent(dep, k -> new ArrayList<>()).add(node.name);
+            }
+        }
+
+        Deque<String> ready = new ArrayDeque<>();
+        indegree.forEach((name, count) -> {
+            if (count == 0) ready.add(name);
+        });
+
+        List<Node> order = new ArrayList<>(nodes.size());
+        while (!ready.isEmpty()) {
+            String name = ready.poll();
+            order.add(nodes.get(name));
+            for (String dependent : dependents.getOrDefault(name, List.of())) {
+                if (indegree.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+
+        if (order.size() != nodes.size()) {
+            List<String> cyclic = indegree.entrySet().stream()
+                    .filter(e -> e.getValue() > 0)
+                    .map(Map.Entry::getKey)
+                    .toList();
+            throw new IllegalStateException("Loader dependency cycle between " + cyclic);
+        }
+        return order;
+    }
+
+    private static void report(List<Node> order, long totalMillis) {
+        StringBuilder sb = new StringBuilder();
+        List<String> failed = new ArrayList<>();
+        List<String> skipped = new ArrayList<>();
+        for (Node node : order) {
+            sb.append(String.format("%n  %-16s %-8s %6d ms", node.name, node.status, node.millis));
+            if (node.status == Status.FAILED) {
+                failed.add(node.name + " (" + node.error + ")");
+            } else if (node.status == Status.SKIPPED) {
+                skipped.add(node.name);
+            }
+        }
+
+        if (failed.isEmpty()) {
+            log.info("Startup loaders finished in {} ms:{}", totalMillis, sb);
+            return;
+        }
+        log.error("Startup loaders failed after {} ms:{}", totalMillis, sb);
+        throw new IllegalStateException("Startup failed, loaders " + failed + ", skipped " + skipped);
+    }
+}
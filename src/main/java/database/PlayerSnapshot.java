@@ -0,0 +1,205 @@
+package database;
+
+import game.entity.Position;
+import game.entity.player.PlayerEntity;
+import game.equipment.PlayerEquipment;
+import game.friend.FriendList;
+import game.inventory.InventoryManager;
+import game.inventory.ItemCodec;
+import game.inventory.PlayerInventory;
+import game.pet.PlayerPet;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import model.ModelMapper;
+import model.item.PartSettings;
+import model.player.Player;
+import model.player.PlayerMapper;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Frozen copy of the parts of a player that need writing, taken on the thread that owns the
+ * player (the tick, or the session holding its dispatch lock).
+ * <p>
+ * Nothing in a snapshot points back into live state: the row's arrays are copied, slot arrays
+ * are already encoded into their column value, and pets/friends are copied. Serialization and
+ * JDBC can then run on any thread while the game keeps mutating the player. Each part carries
+ * the tracker version it reflects, which is what gets confirmed after the write.
+ */
+@Getter
+public final class PlayerSnapshot {
+
+    /**
+     * One captured aggregate and the tracker version it reflects.
+     */
+    public record Part<T>(T model, DirtyTracker tracker, long version, int fingerprint) {
+    }
+
+    /**
+     * Equipment row with the slots already in their stored encoding.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class EquipmentRow {
+        private int id;
+        private final int playerId;
+        private final String items;
+    }
+
+    /**
+     * Bag or storage row with the slots already in their stored encoding.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class InventoryRow {
+        private int id;
+        private final int playerId;
+        private final int capacity;
+        private final String items;
+    }
+
+    private final PlayerEntity player; // identity only: trackers, journal marker, generated ids
+    private final boolean force;
+    private final Part<Player> row;
+    private final Part<EquipmentRow> equipment;
+    private final Part<InventoryRow> bag;
+    private final Part<InventoryRow> storage;
+    private final Part<FriendList> friends;
+    private final Part<PlayerPet> pet;
+
+    private PlayerSnapshot(PlayerEntity player, boolean force, Part<Player> row, Part<EquipmentRow> equipment,
+                           Part<InventoryRow> bag, Part<InventoryRow> storage, Part<FriendList> friends, Part<PlayerPet> pet) {
+        this.player = player;
+        this.force = force;
+        this.row = row;
+        this.equipment = equipment;
+        this.bag = bag;
+        this.storage = storage;
+        this.friends = friends;
+        this.pet = pet;
+    }
+
+    /**
+     * Copies the dirty parts of the player (all of them when forced). Call on the owning thread.
+     */
+    public static PlayerSnapshot capture(PlayerEntity player, boolean force) {
+        Part<Player> row = null;
+        Player model = PlayerMapper.toModel(player);
+        int fingerprint = model.hashCode();
+        DirtyTracker tracker = player.getTracker();
+        if (force || tracker.isDirty(fingerprint)) {
+            long version = tracker.version();
+            row = new Part<>(freeze(model), tracker, version, fingerprint);
+        }
+
+        InventoryManager inventoryManager = player.getInventoryManager();
+        Part<EquipmentRow> equipment = null;
+        PlayerEquipment wearing = inventoryManager.getWearing();
+        tracker = wearing.getTracker();
+        if (force || tracker.isDirty()) {
+            long version = tracker.version();
+            equipment = new Part<>(new EquipmentRow(wearing.getId(), player.getId(),
+                    ItemCodec.EQUIPMENT.encode(wearing.getItems())), tracker, version, 0);
+        }
+
+        Part<FriendList> friends = null;
+        FriendList friendList = player.getFriendList();
+        tracker = friendList.getTracker();
+        if (force || tracker.isDirty()) {
+            long version = tracker.version();
+            FriendList copy = new FriendList();
+            copy.setId(friendList.getId());
+            copy.setFriends(new ArrayList<>(friendList.getFriends()));
+            friends = new Part<>(copy, tracker, version, 0);
+        }
+
+        Part<PlayerPet> pet = null;
+        PlayerPet playerPet = player.getPlayerPet();
+        tracker = playerPet.getTracker();
+        if (force || tracker.isDirty()) {
+            long version = tracker.version();
+            // Pets are a small nested graph: a JSON round trip is the simplest deep copy
+            pet = new Part<>(ModelMapper.fromJson(ModelMapper.toJson(playerPet), PlayerPet.class), tracker, version, 0);
+        }
+
+        return new PlayerSnapshot(player, force, row, equipment,
+                inventory(player, inventoryManager.getInventory(), force),
+                inventory(player, inventoryManager.getStorage(), force),
+                friends, pet);
+    }
+
+    private static Part<InventoryRow> inventory(PlayerEntity player, PlayerInventory inventory, boolean force) {
+        if (inventory == null) return null; // storage not loaded this session: the stored row is current
+
+        DirtyTracker tracker = inventory.getTracker();
+        if (!force && !tracker.isDirty()) return null;
+
+        long version = tracker.version();
+        return new Part<>(new InventoryRow(inventory.getId(), player.getId(), inventory.getCapacity(),
+                ItemCodec.INVENTORY.encode(inventory.getItems())), tracker, version, 0);
+    }
+
+    // toModel shares the entity's arrays and objects; copy the mutable ones
+    private static Player freeze(Player model) {
+        model.setBody(model.getBody().clone());
+        byte[][] rms = model.getRms();
+        if (rms != null) {
+            byte[][] copy = new byte[rms.length][];
+            for (int i = 0; i < rms.length; i++) {
+                copy[i] = rms[i] != null ? rms[i].clone() : null;
+            }
+            model.setRms(copy);
+        }
+        Position location = model.getLocation();
+        if (location != null) {
+            model.setLocation(new Position(location.getMap(), location.getX(), location.getY()));
+        }
+        if (model.getPartSettings() != null) {
+            model.setPartSettings(ModelMapper.fromJson(ModelMapper.toJson(model.getPartSettings()), PartSettings.class));
+        }
+        return model;
+    }
+
+    public boolean isEmpty() {
+        return row == null && equipment == null && bag == null && storage == null && friends == null && pet == null;
+    }
+
+    public int size() {
+        return (int) Arrays.stream(new Part<?>[]{row, equipment, bag, storage, friends, pet})
+                .filter(p -> p != null)
+                .count();
+    }
+
+    public int getPlayerId() {
+        return player.getId();
+    }
+
+    /**
+     * Marks every captured part saved at the version it was captured at, and hands ids
+     * generated for first-time container inserts back to the live containers.
+     */
+    public void confirm() {
+        InventoryManager inventoryManager = player.getInventoryManager();
+        if (equipment != null && inventoryManager.getWearing().getId() <= 0) {
+            inventoryManager.getWearing().setId(equipment.model().getId());
+        }
+        if (bag != null && inventoryManager.getInventory().getId() <= 0) {
+            inventoryManager.getInventory().setId(bag.model().getId());
+        }
+        if (storage != null && inventoryManager.getStorage().getId() <= 0) {
+            inventoryManager.getStorage().setId(storage.model().getId());
+        }
+
+        if (row != null) row.tracker().saved(row.version(), row.fingerprint());
+        confirm(equipment);
+        confirm(bag);
+        confirm(storage);
+        confirm(friends);
+        confirm(pet);
+    }
+
+    private static void confirm(Part<?> part) {
+        if (part != null) part.tracker().saved(part.version());
+    }
+}
@@ -2,7 +2,10 @@ package database;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import game.TickExecutor;
 import lombok.extern.slf4j.Slf4j;
+import model.ColumnDecodeException;
 import model.ModelMapper;
 
 import java.sql.*;
@@ -13,40 +16,54 @@ import java.util.stream.Collectors;
 public class SQL {
 
     private static volatile SQL instance;
-    private final HikariDataSource dataSource;
+    private final Map<Lane, HikariDataSource> dataSources = new EnumMap<>(Lane.class);
+
+    // Connection bound by transaction(); statements on this thread join it instead of committing alone
+    private final ThreadLocal<Connection> boundConnection = new ThreadLocal<>();
 
     @FunctionalInterface
     public interface ResultSetHandler<T> {
         T handle(ResultSet rs) throws SQLException;
     }
 
+    @FunctionalInterface
+    public interface TransactionTask {
+        void execute() throws SQLException;
+    }
+
+    @FunctionalInterface
+    public interface TransactionWork<R> {
+        R execute() throws SQLException;
+    }
+
     private SQL() {
         DBConfig cfg = DBConfig.gI();
 
-        String jdbcUrl = String.format(
-                "jdbc:mysql://%s:%d/%s?autoReconnect=true&useUnicode=yes&characterEncoding=UTF-8&serverTimezone=UTC",
-                cfg.getHost(),
-                cfg.getPort(),
-                cfg.getName()
-        );
+        String jdbcUrl = cfg.getJdbcUrl();
+
+        // One pool per lane, so one traffic class cannot take the connections of another
+        for (Lane lane : Lane.values()) {
+            DBConfig.LaneConfig laneCfg = cfg.getLane(lane);
 
-        HikariConfig hc = new HikariConfig();
-        hc.setJdbcUrl(jdbcUrl);
-        hc.setUsername(cfg.getUsername());
-        hc.setPassword(cfg.getPassword());
+            HikariConfig hc = new HikariConfig();
+            hc.setJdbcUrl(jdbcUrl);
+            hc.setUsername(cfg.getUsername());
+            hc.setPassword(cfg.getPassword());
 
-        hc.setMaximumPoolSize(cfg.getMaximumPoolSize());
-        hc.setMinimumIdle(cfg.getMinimumIdle());
-        hc.setConnectionTimeout(cfg.getConnectionTimeout());
-        hc.setIdleTimeout(cfg.getIdleTimeout());
-        hc.setMaxLifetime(cfg.getMaxLifetime());
-        hc.setPoolName("HSO_POOL");
+            hc.setMaximumPoolSize(laneCfg.maximumPoolSize());
+            hc.setMinimumIdle(Math.min(cfg.getMinimumIdle(), laneCfg.maximumPoolSize()));
+            hc.setConnectionTimeout(laneCfg.connectionTimeout());
+            hc.setIdleTimeout(cfg.getIdleTimeout());
+            hc.setMaxLifetime(cfg.getMaxLifetime());
+            hc.setPoolName("HSO_POOL-" + lane.getKey());
 
-        hc.setAutoCommit(false);
-        hc.setLeakDetectionThreshold(60000); // 60 seconds
+            hc.setAutoCommit(false);
+            hc.setLeakDetectionThreshold(60000); // 60 seconds
 
-        dataSource = new HikariDataSource(hc);
-        log.info("HikariCP initialized successfully");
+            dataSources.put(lane, new HikariDataSource(hc));
+            log.info("HikariCP lane {} initialized: {} connections, {}ms timeout",
+                    lane.getKey(), laneCfg.maximumPoolSize(), laneCfg.connectionTimeout());
+        }
     }
 
     public static SQL gI() {
@@ -115,6 +132,64 @@ public class SQL {
         return from(modelClass).where("id", "==", id).first();
     }
 
+    /**
+     * Plain statement for what the builders cannot express
+     * Usage: SQL.query("CHECKSUM TABLE `npc`", rs -> rs.next() ? rs.getLong(2) : 0L)
+     */
+    public static <T> T query(String query, ResultSetHandler<T> handler, Object... params) throws SQLException {
+        return gI().executeQuery(query, handler, params);
+    }
+
+    /**
+     * Insert or update in a single statement (INSERT ... ON DUPLICATE KEY UPDATE)
+     * Usage: SQL.upsert(friendList).execute()
+     */
+    public static <T> InsertBuilder<T> upsert(T model) {
+        return new InsertBuilder<>(gI(), model).onDuplicateKeyUpdate();
+    }
+
+    /**
+     * Start building a multi-row insert, sent as one JDBC batch
+     * Usage: SQL.insertAll(lists).onDuplicateKeyUpdate().execute()
+     */
+    public static <T> BatchInsertBuilder<T> insertAll(Collection<T> models) {
+        return new BatchInsertBuilder<>(gI(), models);
+    }
+
+    /**
+     * Start building a per-row update keyed by an id field, sent as one JDBC batch
+     * Usage: SQL.updateAll(players).whereId().execute()
+     */
+    public static <T> BatchUpdateBuilder<T> updateAll(Collection<T> models) {
+        return new BatchUpdateBuilder<>(gI(), models);
+    }
+
+    /**
+     * Run statements on one shared connection and commit once at the end; any exception
+     * rolls everything back. Nested calls join the outer transaction.
+     * Usage: SQL.transaction(() -> { SQL.updateAll(players).whereId().execute(); ... })
+     */
+    public static void transaction(TransactionTask task) throws SQLException {
+        gI().runInTransaction(() -> {
+            task.execute();
+            return null;
+        });
+    }
+
+    /**
+     * Same as {@link #transaction(TransactionTask)} but returns the work's result
+     */
+    public static <R> R inTransaction(TransactionWork<R> work) throws SQLException {
+        return gI().runInTransaction(work);
+    }
+
+    /**
+     * True when the calling thread is inside {@link #transaction(TransactionTask)}
+     */
+    public static boolean isInTransaction() {
+        return gI().boundConnection.get() != null;
+    }
+
     /**
      * Save (insert or update) a model
      * Usage: SQL.save(player)
@@ -209,9 +284,14 @@ public class SQL {
             String query = buildQuery();
             List<Object> params = buildParams();
 
-            List<T> result = sql.executeQuery(query,
-                    rs -> ModelMapper.toList(rs, modelClass),
-                    params.toArray());
+            List<T> result = sql.executeQuery(query, rs -> {
+                try {
+                    return ModelMapper.toList(rs, modelClass);
+                } catch (ColumnDecodeException e) {
+                    // An undecodable row must fail the load, not come back with empty defaults
+                    throw new SQLException(e.getMessage(), e);
+                }
+            }, params.toArray());
 
             return result != null ? result : Collections.emptyList();
         }
@@ -288,6 +368,7 @@ public class SQL {
         private final T model;
         private String tableName;
         private boolean ignoreId = true;
+        private String upsertKey;
 
         private InsertBuilder(SQL sql, T model) {
             this.sql = sql;
@@ -309,9 +390,75 @@ public class SQL {
             return this;
         }
 
+        /**
+         * Update the existing row instead of failing when the primary/unique key already exists
+         */
+        public InsertBuilder<T> onDuplicateKeyUpdate() {
+            return onDuplicateKeyUpdate("id");
+        }
+
+        public InsertBuilder<T> onDuplicateKeyUpdate(String keyField) {
+            this.upsertKey = ModelMapper.toSnakeCase(keyField);
+            return this;
+        }
+
         public long execute() throws SQLException {
             Map<String, Object> data = ModelMapper.toMap(model, ignoreId);
-            return sql.executeInsert(tableName, data);
+            return sql.executeInsert(tableName, data, upsertKey);
+        }
+    }
+
+    // ==================== BATCH INSERT BUILDER ====================
+
+    /**
+     * Every row is written with all columns (null fields as NULL) so they share one statement.
+     */
+    public static class BatchInsertBuilder<T> {
+        private final SQL sql;
+        private final Collection<T> models;
+        private String tableName;
+        private String upsertKey;
+
+        private BatchInsertBuilder(SQL sql, Collection<T> models) {
+            this.sql = sql;
+            this.models = models;
+            this.tableName = models.isEmpty() ? null : ModelMapper.getTableName(models.iterator().next().getClass());
+        }
+
+        public BatchInsertBuilder<T> table(String customTableName) {
+            this.tableName = customTableName;
+            return this;
+        }
+
+        public BatchInsertBuilder<T> onDuplicateKeyUpdate() {
+            return onDuplicateKeyUpdate("id");
+        }
+
+        public BatchInsertBuilder<T> onDuplicateKeyUpdate(String keyField) {
+            this.upsertKey = ModelMapper.toSnakeCase(keyField);
+            return this;
+        }
+
+        public int[] execute() throws SQLException {
+            if (models.isEmpty()) {
+                return new int[0];
+            }
+
+            List<String> columns = null;
+            List<Object[]> rows = new ArrayList<>(models.size());
+            for (T model : models) {
+                Map<String, Object> data = ModelMapper.toMap(model, false);
+                if (columns == null) {
+                    columns = new ArrayList<>(data.keySet());
+                }
+                Object[] row = new Object[columns.size()];
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = data.get(columns.get(i));
+                }
+                rows.add(row);
+            }
+
+            return sql.executeBatch(buildInsert(tableName, columns, upsertKey), rows);
         }
     }
 
@@ -420,6 +567,74 @@ public class SQL {
         }
     }
 
+    // ==================== BATCH UPDATE BUILDER ====================
+
+    /**
+     * Updates each model's own row, matched by its id field. Every non-id column is written
+     * (null fields as NULL) so all rows share one statement.
+     */
+    public static class BatchUpdateBuilder<T> {
+        private final SQL sql;
+        private final Collection<T> models;
+        private String tableName;
+        private String idField = "id";
+
+        private BatchUpdateBuilder(SQL sql, Collection<T> models) {
+            this.sql = sql;
+            this.models = models;
+            this.tableName = models.isEmpty() ? null : ModelMapper.getTableName(models.iterator().next().getClass());
+        }
+
+        public BatchUpdateBuilder<T> table(String customTableName) {
+            this.tableName = customTableName;
+            return this;
+        }
+
+        public BatchUpdateBuilder<T> whereId() {
+            return whereId("id");
+        }
+
+        public BatchUpdateBuilder<T> whereId(String idField) {
+            this.idField = idField;
+            return this;
+        }
+
+        /**
+         * @return affected row count per model, in iteration order
+         */
+        public int[] execute() throws SQLException {
+            if (models.isEmpty()) {
+                return new int[0];
+            }
+
+            String idColumn = ModelMapper.toSnakeCase(idField);
+            List<String> columns = null;
+            List<Object[]> rows = new ArrayList<>(models.size());
+            for (T model : models) {
+                Map<String, Object> data = ModelMapper.toMap(model, false);
+                Object idValue = data.remove(idColumn);
+                if (idValue == null) {
+                    throw new IllegalStateException("ID field '" + idField + "' is null");
+                }
+                if (columns == null) {
+                    columns = new ArrayList<>(data.keySet());
+                }
+                Object[] row = new Object[columns.size() + 1];
+                for (int i = 0; i < columns.size(); i++) {
+                    row[i] = data.get(columns.get(i));
+                }
+                row[columns.size()] = idValue;
+                rows.add(row);
+            }
+
+            String query = "UPDATE " + tableName + " SET "
+                    + columns.stream().map(c -> "`" + c + "` = ?").collect(Collectors.joining(", "))
+                    + " WHERE `" + idColumn + "` = ?";
+
+            return sql.executeBatch(query, rows);
+        }
+    }
+
     // ==================== DELETE BUILDER ====================
 
     public static class DeleteBuilder<T> {
@@ -527,113 +742,241 @@ public class SQL {
     // ==================== INTERNAL METHODS ====================
 
     Connection getConnection() throws SQLException {
-        return dataSource.getConnection();
+        checkThread();
+        Lane lane = Lane.current();
+        long start = System.nanoTime();
+        Connection conn = dataSources.get(lane).getConnection();
+        SqlMetrics.gI().recordConnectionWait(lane, System.nanoTime() - start);
+        return conn;
+    }
+
+    /**
+     * Runs work with this thread's statements sent to the given lane's pool.
+     * Usage: SQL.inLane(Lane.LOGIN, () -> repository.findByUsername(user))
+     */
+    public static <R> R inLane(Lane lane, TransactionWork<R> work) throws SQLException {
+        Lane previous = Lane.current();
+        Lane.set(lane);
+        try {
+            return work.execute();
+        } finally {
+            Lane.set(previous);
+        }
+    }
+
+    /**
+     * Pool state of a lane, for metrics.
+     */
+    public static HikariPoolMXBean getPoolStats(Lane lane) {
+        return gI().dataSources.get(lane).getHikariPoolMXBean();
+    }
+
+    /**
+     * JDBC on the tick thread stalls the whole world. Always logged with the offending call
+     * stack; with assertions enabled (-ea) the call fails instead.
+     */
+    private static void checkThread() {
+        if (!TickExecutor.getInstance().isTickThread()) return;
+
+        IllegalStateException e = new IllegalStateException("JDBC call on the tick thread, use DatabaseExecutor");
+        if (SQL.class.desiredAssertionStatus()) {
+            throw e;
+        }
+        log.error("Blocking database access on the tick thread", e);
     }
 
     public void close() {
-        if (!dataSource.isClosed()) {
-            dataSource.close();
-            log.info("HikariCP closed");
+        SqlMetrics.gI().dump();
+        SqlMetrics.gI().shutdown();
+        for (HikariDataSource dataSource : dataSources.values()) {
+            if (!dataSource.isClosed()) {
+                dataSource.close();
+            }
+        }
+        log.info("HikariCP closed");
+    }
+
+    private <R> R runInTransaction(TransactionWork<R> work) throws SQLException {
+        if (boundConnection.get() != null) {
+            return work.execute(); // join the outer transaction
+        }
+
+        Connection conn = getConnection();
+        boundConnection.set(conn);
+        try {
+            R result = work.execute();
+            commit(conn);
+            return result;
+        } catch (SQLException | RuntimeException e) {
+            rollback(conn);
+            throw e;
+        } finally {
+            boundConnection.remove();
+            close(conn);
+        }
+    }
+
+    // Statements outside transaction() borrow, commit and release their own connection;
+    // inside one they use the bound connection and leave commit/close to the scope.
+
+    private Connection acquire() throws SQLException {
+        Connection bound = boundConnection.get();
+        return bound != null ? bound : getConnection();
+    }
+
+    private boolean isBound(Connection conn) {
+        return conn != null && conn == boundConnection.get();
+    }
+
+    private void release(Connection conn) {
+        if (!isBound(conn)) {
+            close(conn);
         }
     }
 
     private <T> T executeQuery(String query, ResultSetHandler<T> handler, Object... params) throws SQLException {
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(query)) {
+        Connection conn = acquire();
+        long start = System.nanoTime();
+        try (PreparedStatement ps = conn.prepareStatement(query)) {
 
             setParameters(ps, params);
 
             try (ResultSet rs = ps.executeQuery()) {
-                return handler.handle(rs);
+                T result = handler.handle(rs);
+                SqlMetrics.gI().record(query, System.nanoTime() - start, SqlMetrics.rowCount(result), 0);
+                return result;
             }
 
         } catch (SQLException e) {
+            SqlMetrics.gI().recordFailure(query, System.nanoTime() - start);
             log.error("Query failed: {}", query, e);
             throw e;
+        } finally {
+            release(conn);
         }
     }
 
     private int executeUpdate(String query, Object... params) throws SQLException {
         Connection conn = null;
+        long start = 0;
         try {
-            conn = getConnection();
-            PreparedStatement ps = conn.prepareStatement(query);
-
-            setParameters(ps, params);
-            int rows = ps.executeUpdate();
-            conn.commit();
-
-            ps.close();
-            conn.close();
-            return rows;
+            conn = acquire();
+            start = System.nanoTime();
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                setParameters(ps, params);
+                int rows = ps.executeUpdate();
+                SqlMetrics.gI().record(query, System.nanoTime() - start, 0, rows);
+                if (!isBound(conn)) commit(conn);
+                return rows;
+            }
 
         } catch (SQLException e) {
+            if (start != 0) SqlMetrics.gI().recordFailure(query, System.nanoTime() - start);
             log.error("Update failed: {}", query, e);
-            rollback(conn);
-            if (conn != null) {
-                try {
-                    conn.close();
-                } catch (SQLException ex) {
-                    log.error("Failed to close connection", ex);
+            if (!isBound(conn)) rollback(conn);
+            throw e;
+        } finally {
+            release(conn);
+        }
+    }
+
+    private int[] executeBatch(String query, List<Object[]> rows) throws SQLException {
+        Connection conn = null;
+        long start = 0;
+        try {
+            conn = acquire();
+            start = System.nanoTime();
+            try (PreparedStatement ps = conn.prepareStatement(query)) {
+                for (Object[] row : rows) {
+                    setParameters(ps, row);
+                    ps.addBatch();
                 }
+                int[] counts = ps.executeBatch();
+                SqlMetrics.gI().record(query, System.nanoTime() - start, 0, SqlMetrics.rowCount(counts));
+                if (!isBound(conn)) commit(conn);
+                return counts;
             }
+
+        } catch (SQLException e) {
+            if (start != 0) SqlMetrics.gI().recordFailure(query, System.nanoTime() - start);
+            log.error("Batch failed ({} rows): {}", rows.size(), query, e);
+            if (!isBound(conn)) rollback(conn);
             throw e;
+        } finally {
+            release(conn);
+        }
+    }
+
+    private static String buildInsert(String table, Collection<String> columns, String upsertKey) {
+        String placeholders = columns.stream()
+                .map(k -> "?")
+                .collect(Collectors.joining(", "));
+
+        StringBuilder query = new StringBuilder("INSERT INTO ").append(table)
+                .append(" (").append(String.join(", ", columns)).append(")")
+                .append(" VALUES (").append(placeholders).append(")");
+
+        if (upsertKey != null) {
+            String updates = columns.stream()
+                    .filter(c -> !c.equals(upsertKey))
+                    .map(c -> "`" + c + "` = VALUES(`" + c + "`)")
+                    .collect(Collectors.joining(", "));
+            if (!updates.isEmpty()) {
+                query.append(" ON DUPLICATE KEY UPDATE ").append(updates);
+            }
         }
+        return query.toString();
     }
 
     private long executeInsert(String table, Map<String, Object> values) throws SQLException {
+        return executeInsert(table, values, null);
+    }
+
+    private long executeInsert(String table, Map<String, Object> values, String upsertKey) throws SQLException {
         if (values == null || values.isEmpty()) {
             throw new SQLException("Cannot insert with empty values");
         }
 
-        String columns = String.join(", ", values.keySet());
-        String placeholders = values.keySet().stream()
-                .map(k -> "?")
-                .collect(Collectors.joining(", "));
-
-        String query = "INSERT INTO " + table + " (" + columns + ") VALUES (" + placeholders + ")";
+        String query = buildInsert(table, values.keySet(), upsertKey);
 
         Connection conn = null;
+        long start = 0;
         try {
-            conn = getConnection();
-            PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS);
-
-            setParameters(ps, values.values().toArray());
-
-            int rows = ps.executeUpdate();
-            conn.commit();
-
-            long generatedId = -1;
-            if (rows > 0) {
-                try (ResultSet rs = ps.getGeneratedKeys()) {
-                    if (rs.next()) {
-                        generatedId = rs.getLong(1);
+            conn = acquire();
+            start = System.nanoTime();
+            try (PreparedStatement ps = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+
+                setParameters(ps, values.values().toArray());
+
+                int rows = ps.executeUpdate();
+                SqlMetrics.gI().record(query, System.nanoTime() - start, 0, rows);
+                if (!isBound(conn)) commit(conn);
+
+                long generatedId = -1;
+                if (rows > 0) {
+                    try (ResultSet rs = ps.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            generatedId = rs.getLong(1);
+                        }
                     }
                 }
-            }
 
-            ps.close();
-            conn.close();
-
-            if (generatedId > 0) {
-                return generatedId;
-            } else if (rows > 0) {
-                return 0; // Insert successful but no generated key
-            } else {
-                throw new SQLException("Insert failed: no rows affected");
+                if (generatedId > 0) {
+                    return generatedId;
+                } else if (rows > 0 || upsertKey != null) {
+                    return 0; // Insert successful but no generated key (or upsert left the row unchanged)
+                } else {
+                    throw new SQLException("Insert failed: no rows affected");
+                }
             }
 
         } catch (SQLException e) {
+            if (start != 0) SqlMetrics.gI().recordFailure(query, System.nanoTime() - start);
             log.error("Insert failed: {}", table, e);
-            rollback(conn);
-            if (conn != null) {
-                try {
-                    conn.close();
-                } catch (SQLException ex) {
-                    log.error("Failed to close connection", ex);
-                }
-            }
+            if (!isBound(conn)) rollback(conn);
             throw e;
+        } finally {
+            release(conn);
         }
     }
 
@@ -644,7 +987,13 @@ public class SQL {
 
         Object idValue = ModelMapper.getField(model, idField);
 
-        // If ID exists and is valid, check if row exists in database
+        // "id" is the primary key, so a known id is written in one round trip
+        if ("id".equals(idField) && idValue instanceof Number && ((Number) idValue).longValue() > 0) {
+            executeInsert(tableName, data, ModelMapper.toSnakeCase(idField));
+            return true;
+        }
+
+        // Other key fields may not carry a unique index: check if row exists in database
         if (idValue != null && idValue instanceof Number && ((Number) idValue).longValue() > 0) {
             boolean exists = from((Class<T>) model.getClass())
                     .table(tableName)
@@ -690,6 +1039,22 @@ public class SQL {
         }
     }
 
+    private void commit(Connection conn) throws SQLException {
+        long start = System.nanoTime();
+        conn.commit();
+        SqlMetrics.gI().recordCommit(Lane.current(), System.nanoTime() - start);
+    }
+
+    private void close(Connection conn) {
+        if (conn != null) {
+            try {
+                conn.close();
+            } catch (SQLException e) {
+                log.error("Failed to close connection", e);
+            }
+        }
+    }
+
     private void rollback(Connection conn) {
         if (conn != null) {
             try {
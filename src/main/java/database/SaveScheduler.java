@@ -0,0 +1,347 @@
+package database;
+
+import game.TickExecutor;
+import game.entity.player.PlayerEntity;
+import lombok.extern.slf4j.Slf4j;
+import network.Session;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single entry point for player saves (autosave, logout, cache eviction).
+ * <p>
+ * Requests are coalesced per player: while a player waits in the queue, further requests join
+ * the queued one (a forced request upgrades it). At most one save per player is in flight; a
+ * request arriving meanwhile waits for it and then writes the then-current state, so the latest
+ * state always wins. Autosave rounds are paced by a token bucket whose rate spreads the round
+ * over the requested window instead of sending every player to the pool at once; forced saves
+ * go first and are not throttled.
+ * <p>
+ * Players taken for saving are copied into {@link PlayerSnapshot}s on the tick thread (see
+ * {@link #capture(long)}); serialization and JDBC then run on the database executor against
+ * the frozen copies.
+ */
+@Slf4j
+public final class SaveScheduler {
+
+    private static final long DRAIN_MS = 250;
+    private static final int MAX_BATCH = 200;
+    private static final double MIN_RATE = 5.0;   // players per second
+    private static final double BURST = 50.0;
+
+    private static final class Request {
+        final PlayerEntity player;
+        final long queuedAt;
+        final CompletableFuture<Boolean> done = new CompletableFuture<>();
+        boolean force;
+
+        Request(PlayerEntity player, boolean force, long queuedAt) {
+            this.player = player;
+            this.force = force;
+            this.queuedAt = queuedAt;
+        }
+    }
+
+    // playerId -> queued request, in arrival order; guarded by `this`
+    private final Map<Integer, Request> urgent = new LinkedHashMap<>();
+    private final Map<Integer, Request> paced = new LinkedHashMap<>();
+    private final Set<Integer> inFlight = new HashSet<>();
+
+    // Taken for saving, waiting for the tick to copy them
+    private final Queue<Request> capturing = new ConcurrentLinkedQueue<>();
+    // Held while checking the tick binding and enqueueing, and while unbinding (see tickStopped)
+    private final Object captureLock = new Object();
+
+    // Token bucket, only touched by the drain thread
+    private volatile double rate = MIN_RATE;
+    private double tokens = BURST;
+    private long lastRefill = System.nanoTime();
+    private volatile boolean unthrottled;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    private final ScheduledExecutorService drainer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "SaveScheduler");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private SaveScheduler() {
+        drainer.scheduleWithFixedDelay(this::drain, DRAIN_MS, DRAIN_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private static class Holder {
+        private static final SaveScheduler INSTANCE = new SaveScheduler();
+    }
+
+    public static SaveScheduler gI() {
+        return Holder.INSTANCE;
+    }
+
+    // ==================== REQUESTS ====================
+
+    /**
+     * Queues a save for the player, joining one already queued.
+     *
+     * @param force write every aggregate (logout, eviction) instead of only the dirty ones
+     * @return completes with true when everything changed before the save started was written
+     */
+    public synchronized CompletableFuture<Boolean> request(PlayerEntity player, boolean force) {
+        int id = player.getId();
+        Request queued = urgent.get(id);
+        if (queued == null) queued = paced.get(id);
+
+        if (queued != null && queued.player == player) {
+            coalesced.incrementAndGet();
+            if (force && !queued.force) {
+                queued.force = true;
+                paced.remove(id);
+                urgent.put(id, queued);
+            }
+            return queued.done;
+        }
+        if (queued != null) {
+            // Another instance of the same character: save the newest one, settle the old waiters with it
+            Request replaced = queued;
+            urgent.remove(id);
+            paced.remove(id);
+            Request request = enqueue(player, force || replaced.force);
+            request.done.whenComplete((ok, e) -> {
+                if (e != null) replaced.done.completeExceptionally(e);
+                else replaced.done.complete(ok);
+            });
+            return request.done;
+        }
+        return enqueue(player, force).done;
+    }
+
+    private Request enqueue(PlayerEntity player, boolean force) {
+        Request request = new Request(player, force, System.currentTimeMillis());
+        (force ? urgent : paced).put(player.getId(), request);
+        return request;
+    }
+
+    /**
+     * Queues a paced autosave round, spread over {@code spreadMs}.
+     *
+     * @return completes with true once every player of the round was fully written
+     */
+    public CompletableFuture<Boolean> saveAll(Collection<PlayerEntity> players, long spreadMs) {
+        List<CompletableFuture<Boolean>> futures = new ArrayList<>(players.size());
+        synchronized (this) {
+            for (PlayerEntity player : players) {
+                futures.add(request(player, false));
+            }
+            rate = Math.max(MIN_RATE, paced.size() * 1000.0 / Math.max(1, spreadMs));
+        }
+        if (futures.isEmpty()) return CompletableFuture.completedFuture(true);
+
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, e) -> e == null && futures.stream().allMatch(CompletableFuture::join));
+    }
+
+    /**
+     * Stops pacing so everything queued goes out as fast as the pool allows. Used on shutdown.
+     */
+    public void unthrottle() {
+        unthrottled = true;
+    }
+
+    // ==================== METRICS ====================
+
+    public synchronized int getQueueDepth() {
+        return urgent.size() + paced.size();
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight.size();
+    }
+
+    /**
+     * Age of the oldest queued request, in ms.
+     */
+    public synchronized long getLagMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (Request r : urgent.values()) oldest = Math.min(oldest, r.queuedAt);
+        if (!paced.isEmpty()) oldest = Math.min(oldest, paced.values().iterator().next().queuedAt);
+        return oldest == Long.MAX_VALUE ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    public long getCompleted() {
+        return completed.get();
+    }
+
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    // ==================== DRAIN ====================
+
+    private void drain() {
+        try {
+            long now = System.nanoTime();
+            tokens = Math.min(BURST, tokens + rate * (now - lastRefill) / 1e9);
+            lastRefill = now;
+
+            List<Request> taken = new ArrayList<>();
+            int forced;
+            synchronized (this) {
+                take(urgent, taken, MAX_BATCH);
+                forced = taken.size();
+                take(paced, taken, unthrottled ? MAX_BATCH : Math.min(MAX_BATCH, (int) tokens));
+            }
+            tokens -= taken.size() - forced;
+            if (taken.isEmpty()) return;
+
+            synchronized (captureLock) {
+                if (TickExecutor.getInstance().isBound()) {
+                    capturing.addAll(taken); // copied by the tick, see capture()
+                    return;
+                }
+                // Left behind by a tick that did not stop cleanly
+                pollAll(capturing, taken);
+            }
+            captureInline(taken);
+        } catch (Exception e) {
+            log.error("SaveScheduler drain failed", e);
+        }
+    }
+
+    /**
+     * Unbinds the tick and captures whatever it had not copied yet, so those players are neither
+     * lost nor left in flight (which would block their forced shutdown saves). Called by the
+     * loop once it has stopped.
+     */
+    public void tickStopped() {
+        List<Request> left = new ArrayList<>();
+        synchronized (captureLock) {
+            TickExecutor.getInstance().unbind();
+            pollAll(capturing, left);
+        }
+        if (!left.isEmpty()) {
+            log.info("Capturing {} saves left by the stopped tick", left.size());
+            captureInline(left);
+        }
+    }
+
+    // Loop stopped (shutdown): nothing else touches the players any more
+    private void captureInline(List<Request> requests) {
+        if (requests.isEmpty()) return;
+
+        List<PlayerSnapshot> snapshots = new ArrayList<>(requests.size());
+        for (Request request : requests) {
+            snapshots.add(PlayerSnapshot.capture(request.player, request.force));
+        }
+        dispatch(requests, snapshots);
+    }
+
+    private static void pollAll(Queue<Request> queue, List<Request> into) {
+        Request request;
+        while ((request = queue.poll()) != null) {
+            into.add(request);
+        }
+    }
+
+    // Moves up to `limit` requests whose player has no save in flight; others keep their place
+    private void take(Map<Integer, Request> queue, List<Request> into, int limit) {
+        int added = 0;
+        Iterator<Request> it = queue.values().iterator();
+        while (it.hasNext() && added < limit) {
+            Request request = it.next();
+            if (inFlight.add(request.player.getId())) {
+                it.remove();
+                into.add(request);
+                added++;
+            }
+        }
+    }
+
+    // ==================== CAPTURE (tick thread) ====================
+
+    /**
+     * Copies the players taken for saving into immutable snapshots, within a time budget, and
+     * hands them to the database executor. A player whose session is handling a message is
+     * retried next tick rather than read mid-mutation.
+     */
+    public void capture(long budgetNanos) {
+        if (capturing.isEmpty()) return;
+
+        long deadline = System.nanoTime() + budgetNanos;
+        List<Request> requests = new ArrayList<>();
+        List<PlayerSnapshot> snapshots = new ArrayList<>();
+        List<Request> busy = new ArrayList<>();
+
+        Request request;
+        while (System.nanoTime() < deadline && (request = capturing.poll()) != null) {
+            PlayerSnapshot snapshot = captureOwned(request);
+            if (snapshot == null) {
+                busy.add(request);
+                continue;
+            }
+            requests.add(request);
+            snapshots.add(snapshot);
+        }
+        capturing.addAll(busy);
+
+        if (!requests.isEmpty()) {
+            dispatch(requests, snapshots);
+        }
+    }
+
+    private static PlayerSnapshot captureOwned(Request request) {
+        PlayerEntity player = request.player;
+        Session session = player.getSession();
+        if (session == null) {
+            return PlayerSnapshot.capture(player, request.force);
+        }
+        return session.tryExclusive(() -> PlayerSnapshot.capture(player, request.force));
+    }
+
+    // ==================== WRITE ====================
+
+    private void dispatch(List<Request> requests, List<PlayerSnapshot> snapshots) {
+        DatabaseExecutor.gI().supply(Lane.SAVE, () -> write(requests, snapshots))
+                .whenComplete((results, e) -> {
+                    synchronized (this) {
+                        for (Request request : requests) {
+                            inFlight.remove(request.player.getId());
+                        }
+                    }
+                    for (int i = 0; i < requests.size(); i++) {
+                        if (e != null) {
+                            requests.get(i).done.completeExceptionally(e);
+                        } else {
+                            requests.get(i).done.complete(results[i]);
+                        }
+                    }
+                    completed.addAndGet(requests.size());
+                });
+    }
+
+    // Forced snapshots are written one unit of work each; the rest as one batch
+    private static boolean[] write(List<Request> requests, List<PlayerSnapshot> snapshots) {
+        boolean[] results = new boolean[requests.size()];
+        List<PlayerSnapshot> batch = new ArrayList<>();
+        List<Integer> batchIndexes = new ArrayList<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i).force) {
+                results[i] = DataSaver.saveSnapshot(snapshots.get(i));
+            } else {
+                batch.add(snapshots.get(i));
+                batchIndexes.add(i);
+            }
+        }
+
+        if (!batch.isEmpty()) {
+            boolean complete = DataSaver.flushSnapshots(batch).complete();
+            for (int i : batchIndexes) {
+                results[i] = complete;
+            }
+        }
+        return results;
+    }
+}
@@ -0,0 +1,264 @@
+package database;
+
+import game.TickExecutor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Statement metrics, keyed by normalized SQL template (the statement with literals and
+ * IN-lists folded, so {@code WHERE id IN (?, ?, ?)} and {@code WHERE id IN (?)} are one key).
+ * <p>
+ * Per template: calls, failures, a latency histogram, rows read and written, and calls made
+ * on the tick thread. Per lane: time spent waiting for a pooled connection and commit time.
+ * Statements slower than {@code database.metrics.slowQueryMs} are logged with the calling
+ * thread and a short stack (at most once per template every few seconds), and every
+ * {@code database.metrics.dumpSeconds} the busiest templates are logged and the window reset.
+ */
+@Slf4j
+public final class SqlMetrics {
+
+    private static final int TOP_TEMPLATES = 10;
+    private static final int STACK_FRAMES = 6;
+    private static final long SLOW_LOG_INTERVAL_MS = 10_000;
+    private static final int MAX_CACHED_TEMPLATES = 4096;
+
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^'\\\\]|\\\\.)*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("(?<![\\w`])-?\\d+(\\.\\d+)?\\b");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final class TemplateStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final LongAdder failures = new LongAdder();
+        final LongAdder rowsRead = new LongAdder();
+        final LongAdder rowsWritten = new LongAdder();
+        final LongAdder tickCalls = new LongAdder();
+    }
+
+    // One reporting window; swapped out whole by dump()
+    private static final class Window {
+        final long startedAt = System.currentTimeMillis();
+        final Map<String, TemplateStats> templates = new ConcurrentHashMap<>();
+        final Map<Lane, LatencyHistogram> connectionWait = new EnumMap<>(Lane.class);
+        final Map<Lane, LatencyHistogram> commit = new EnumMap<>(Lane.class);
+
+        Window() {
+            for (Lane lane : Lane.values()) {
+                connectionWait.put(lane, new LatencyHistogram());
+                commit.put(lane, new LatencyHistogram());
+            }
+        }
+    }
+
+    private final long slowQueryNanos;
+    private volatile Window window = new Window();
+
+    // Raw statement -> template; builder SQL repeats, so normalizing once per shape is enough
+    private final Map<String, String> normalized = new ConcurrentHashMap<>();
+    // Template (or lane) -> last time it was logged as slow
+    private final Map<String, AtomicLong> lastSlowLog = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "SqlMetrics");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private SqlMetrics() {
+        DBConfig cfg = DBConfig.gI();
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(cfg.getSlowQueryMs());
+
+        long dumpSeconds = cfg.getMetricsDumpSeconds();
+        if (dumpSeconds > 0) {
+            reporter.scheduleWithFixedDelay(this::dump, dumpSeconds, dumpSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    private static class Holder {
+        private static final SqlMetrics INSTANCE = new SqlMetrics();
+    }
+
+    public static SqlMetrics gI() {
+        return Holder.INSTANCE;
+    }
+
+    // ==================== RECORDING ====================
+
+    /**
+     * Records one executed statement; {@code nanos} covers prepare, execute and result mapping.
+     */
+    public void record(String sql, long nanos, long rowsRead, long rowsWritten) {
+        String template = template(sql);
+        TemplateStats stats = window.templates.computeIfAbsent(template, k -> new TemplateStats());
+        stats.latency.recordNanos(nanos);
+        stats.rowsRead.add(rowsRead);
+        stats.rowsWritten.add(rowsWritten);
+        if (TickExecutor.getInstance().isTickThread()) {
+            stats.tickCalls.increment();
+        }
+        if (nanos >= slowQueryNanos) {
+            logSlow(template, "Slow query", nanos, template);
+        }
+    }
+
+    public void recordFailure(String sql, long nanos) {
+        String template = template(sql);
+        TemplateStats stats = window.templates.computeIfAbsent(template, k -> new TemplateStats());
+        stats.latency.recordNanos(nanos);
+        stats.failures.increment();
+        if (TickExecutor.getInstance().isTickThread()) {
+            stats.tickCalls.increment();
+        }
+    }
+
+    public void recordConnectionWait(Lane lane, long nanos) {
+        window.connectionWait.get(lane).recordNanos(nanos);
+        if (nanos >= slowQueryNanos) {
+            logSlow("wait:" + lane.getKey(), "Slow connection checkout", nanos, "lane " + lane.getKey());
+        }
+    }
+
+    public void recordCommit(Lane lane, long nanos) {
+        window.commit.get(lane).recordNanos(nanos);
+        if (nanos >= slowQueryNanos) {
+            logSlow("commit:" + lane.getKey(), "Slow commit", nanos, "lane " + lane.getKey());
+        }
+    }
+
+    /**
+     * Rows a query handler produced: the size of a collection, otherwise one row per value.
+     */
+    public static long rowCount(Object result) {
+        if (result == null) return 0;
+        if (result instanceof Collection<?> collection) return collection.size();
+        return 1;
+    }
+
+    /**
+     * Rows written by a batch; drivers report {@link java.sql.Statement#SUCCESS_NO_INFO} for
+     * rewritten batches, counted as one row each.
+     */
+    public static long rowCount(int[] counts) {
+        long rows = 0;
+        for (int c : counts) {
+            rows += c >= 0 ? c : 1;
+        }
+        return rows;
+    }
+
+    private void logSlow(String key, String what, long nanos, String subject) {
+        long now = System.currentTimeMillis();
+        AtomicLong last = lastSlowLog.computeIfAbsent(key, k -> new AtomicLong());
+        long previous = last.get();
+        if (now - previous < SLOW_LOG_INTERVAL_MS || !last.compareAndSet(previous, now)) {
+            return;
+        }
+        log.warn("{} ({} ms) on thread {}: {}\n    at {}", what, millis(nanos / 1_000),
+                Thread.currentThread().getName(), subject, callerStack());
+    }
+
+    // The first frames outside the database layer: who issued the statement
+    private static String callerStack() {
+        return Arrays.stream(new Throwable().getStackTrace())
+                .filter(f -> !f.getClassName().startsWith("database.SQL")
+                        && !f.getClassName().equals(SqlMetrics.class.getName()))
+                .limit(STACK_FRAMES)
+                .map(StackTraceElement::toString)
+                .collect(Collectors.joining("\n    at "));
+    }
+
+    // ==================== TEMPLATES ====================
+
+    private String template(String sql) {
+        String template = normalized.get(sql);
+        if (template == null) {
+            template = normalize(sql);
+            if (normalized.size() < MAX_CACHED_TEMPLATES) {
+                normalized.put(sql, template);
+            }
+        }
+        return template;
+    }
+
+    /**
+     * Strips literals and folds placeholder lists so statements of the same shape share a key.
+     */
+    public static String normalize(String sql) {
+        String s = STRING_LITERAL.matcher(sql).replaceAll("?");
+        s = NUMBER_LITERAL.matcher(s).replaceAll("?");
+        s = IN_LIST.matcher(s).replaceAll("(?…)");
+        return WHITESPACE.matcher(s).replaceAll(" ").trim();
+    }
+
+    // ==================== REPORTING ====================
+
+    /**
+     * Logs the busiest templates of the window, flags JDBC issued from the tick thread, and
+     * starts a new window.
+     */
+    public void dump() {
+        try {
+            Window current = window;
+            window = new Window();
+            long seconds = Math.max(1, (System.currentTimeMillis() - current.startedAt) / 1000);
+
+            if (!current.templates.isEmpty()) {
+                List<Map.Entry<String, TemplateStats>> busiest = current.templates.entrySet().stream()
+                        .sorted(Comparator.comparingLong(
+                                (Map.Entry<String, TemplateStats> e) -> e.getValue().latency.getTotalMicros()).reversed())
+                        .limit(TOP_TEMPLATES)
+                        .toList();
+
+                StringBuilder sb = new StringBuilder();
+                sb.append(String.format("SQL over the last %ds, %d templates, by total time:", seconds, current.templates.size()));
+                for (Map.Entry<String, TemplateStats> entry : busiest) {
+                    TemplateStats s = entry.getValue();
+                    sb.append(String.format("%n  calls=%d fail=%d total=%sms p50=%sms p99=%sms max=%sms read=%d written=%d  %s",
+                            s.latency.getCount(), s.failures.sum(), millis(s.latency.getTotalMicros()),
+                            millis(s.latency.percentile(50)), millis(s.latency.percentile(99)),
+                            millis(s.latency.getMaxMicros()), s.rowsRead.sum(), s.rowsWritten.sum(), entry.getKey()));
+                }
+                log.info(sb.toString());
+            }
+
+            StringJoiner lanes = new StringJoiner(" | ");
+            for (Lane lane : Lane.values()) {
+                LatencyHistogram wait = current.connectionWait.get(lane);
+                LatencyHistogram commit = current.commit.get(lane);
+                if (wait.getCount() == 0 && commit.getCount() == 0) continue;
+                lanes.add(String.format("%s: wait p99=%sms max=%sms, commit n=%d p99=%sms max=%sms",
+                        lane.getKey(), millis(wait.percentile(99)), millis(wait.getMaxMicros()),
+                        commit.getCount(), millis(commit.percentile(99)), millis(commit.getMaxMicros())));
+            }
+            if (lanes.length() > 0) {
+                log.info("SQL lanes: {}", lanes);
+            }
+
+            current.templates.forEach((template, s) -> {
+                long onTick = s.tickCalls.sum();
+                if (onTick > 0) {
+                    log.warn("{} JDBC calls on the tick thread: {}", onTick, template);
+                }
+            });
+        } catch (Exception e) {
+            log.error("dump() Failed: {}", e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        reporter.shutdownNow();
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.1f", micros / 1000.0);
+    }
+}
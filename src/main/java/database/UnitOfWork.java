@@ -0,0 +1,132 @@
+package database;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The writes of one aggregate (player + inventories + pet + friends, guild + inventory)
+ * committed together on one connection.
+ * <p>
+ * Each write is registered with the tracker it persists; the tracker version is read at
+ * registration and confirmed only after the commit, so either every part of the aggregate is
+ * marked saved or none is and the next flush writes it all again. A transaction that loses a
+ * deadlock (or times out on a lock) is rolled back and retried.
+ * Usage:
+ * <pre>
+ * UnitOfWork uow = new UnitOfWork();
+ * uow.write(player.getTracker(), () -> repository.update(model));
+ * uow.write(bag.getTracker(), () -> inventoryRepository.updateInventory(bag));
+ * uow.commit();
+ * </pre>
+ */
+@Slf4j
+public final class UnitOfWork {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BACKOFF_MS = 25;
+
+    // MySQL: ER_LOCK_DEADLOCK, ER_LOCK_WAIT_TIMEOUT
+    private static final int ER_LOCK_DEADLOCK = 1213;
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    private record Write(SQL.TransactionTask task, DirtyTracker tracker, long version, Integer fingerprint) {
+    }
+
+    private final List<Write> writes = new ArrayList<>();
+
+    /**
+     * Adds a write; {@code tracker} is confirmed at the version it has now once the unit commits.
+     */
+    public UnitOfWork write(DirtyTracker tracker, SQL.TransactionTask task) {
+        writes.add(new Write(task, tracker, tracker.version(), null));
+        return this;
+    }
+
+    /**
+     * Same as {@link #write(DirtyTracker, SQL.TransactionTask)} for aggregates that also compare a content hash.
+     */
+    public UnitOfWork write(DirtyTracker tracker, int fingerprint, SQL.TransactionTask task) {
+        writes.add(new Write(task, tracker, tracker.version(), fingerprint));
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return writes.isEmpty();
+    }
+
+    public int size() {
+        return writes.size();
+    }
+
+    /**
+     * Runs every write in one transaction and confirms the trackers.
+     *
+     * @throws SQLException when the transaction failed for good; nothing is confirmed then
+     */
+    public void commit() throws SQLException {
+        if (writes.isEmpty()) return;
+
+        run(() -> {
+            for (Write write : writes) {
+                write.task().execute();
+            }
+        });
+
+        for (Write write : writes) {
+            if (write.fingerprint() != null) {
+                write.tracker().saved(write.version(), write.fingerprint());
+            } else {
+                write.tracker().saved(write.version());
+            }
+        }
+    }
+
+    /**
+     * {@link SQL#transaction} with a retry when the transaction is chosen as a deadlock victim.
+     * Inside an outer transaction the task simply joins it; the outer scope owns the retry.
+     */
+    public static void run(SQL.TransactionTask task) throws SQLException {
+        if (SQL.isInTransaction()) {
+            task.execute();
+            return;
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                SQL.transaction(task);
+                return;
+            } catch (SQLException e) {
+                if (attempt >= MAX_ATTEMPTS || !isRetryable(e)) {
+                    throw e;
+                }
+                log.warn("Transaction lost a lock conflict ({}), retry {}/{}", e.getMessage(), attempt, MAX_ATTEMPTS - 1);
+                backoff(attempt);
+            }
+        }
+    }
+
+    static boolean isRetryable(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException sql) {
+                if (sql.getErrorCode() == ER_LOCK_DEADLOCK || sql.getErrorCode() == ER_LOCK_WAIT_TIMEOUT
+                        || "40001".equals(sql.getSQLState())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void backoff(int attempt) throws SQLException {
+        try {
+            Thread.sleep(BACKOFF_MS * attempt + ThreadLocalRandom.current().nextLong(BACKOFF_MS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while retrying transaction", e);
+        }
+    }
+}
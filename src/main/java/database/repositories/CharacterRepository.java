@@ -0,0 +1,76 @@
+package database.repositories;
+
+import database.Lane;
+import database.SQL;
+import game.equipment.PlayerEquipment;
+import game.friend.FriendList;
+import game.inventory.PlayerInventory;
+import game.pet.PlayerPet;
+import model.player.CharacterData;
+import model.player.Player;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Loads whole characters for many ids at once: one query per table keyed by character id,
+ * all on a single connection and committed once, instead of a query (and checkout) per
+ * table per character. Hydration is part of logging in, so it runs in the login lane.
+ */
+public class CharacterRepository {
+
+    public Map<Integer, CharacterData> findAllById(List<Integer> ids) throws SQLException {
+        if (ids.isEmpty()) return Map.of();
+        return SQL.inLane(Lane.LOGIN, () -> SQL.inTransaction(() -> hydrate(SQL.from(Player.class).whereIn("id", ids).get())));
+    }
+
+    /**
+     * Every character of an account, for the character list.
+     */
+    public List<CharacterData> findAllByAccountId(int accountId) throws SQLException {
+        return SQL.inLane(Lane.LOGIN, () -> SQL.inTransaction(() -> {
+            List<Player> players = SQL.from(Player.class).where("uid", accountId).get();
+            Map<Integer, CharacterData> loaded = hydrate(players);
+
+            List<CharacterData> result = new ArrayList<>(players.size());
+            for (Player player : players) {
+                result.add(loaded.get(player.getId()));
+            }
+            return result;
+        }));
+    }
+
+    private Map<Integer, CharacterData> hydrate(List<Player> players) throws SQLException {
+        if (players.isEmpty()) return Map.of();
+
+        List<Integer> ids = players.stream().map(Player::getId).toList();
+
+        Map<Integer, PlayerEquipment> equipments = new HashMap<>();
+        for (PlayerEquipment e : SQL.from(PlayerEquipment.class).whereIn("playerId", ids).get()) {
+            equipments.put(e.getPlayerId(), e);
+        }
+
+        Map<Integer, PlayerInventory> inventories = new HashMap<>();
+        for (PlayerInventory i : SQL.from(PlayerInventory.class).whereIn("playerId", ids).get()) {
+            inventories.put(i.getPlayerId(), i);
+        }
+
+        Map<Integer, PlayerPet> pets = new HashMap<>();
+        for (PlayerPet p : SQL.from(PlayerPet.class).whereIn("playerId", ids).get()) {
+            pets.put(p.getPlayerId(), p);
+        }
+
+        Map<Integer, FriendList> friends = new HashMap<>();
+        for (FriendList f : SQL.from(FriendList.class).whereIn("id", ids).get()) {
+            friends.put(f.getId(), f);
+        }
+
+        Map<Integer, CharacterData> result = new HashMap<>();
+        for (Player player : players) {
+            int id = player.getId();
+            result.put(id, new CharacterData(player, equipments.get(id), inventories.get(id),
+                    pets.get(id), friends.get(id)));
+        }
+        return result;
+    }
+}
@@ -1,14 +1,19 @@
 package database.repositories;
 
+import database.PlayerSnapshot;
 import database.SQL;
 import game.equipment.PlayerEquipment;
 import game.inventory.PlayerInventory;
+import model.ModelMapper;
 
 
 import java.sql.SQLException;
 import java.util.List;
 
 public class InventoryRepository {
+    private static final String EQUIPMENT_TABLE = ModelMapper.getTableName(PlayerEquipment.class);
+    private static final String INVENTORY_TABLE = ModelMapper.getTableName(PlayerInventory.class);
+    private static final String STORAGE_TABLE = "player_storage";
 
     public List<PlayerEquipment> findEquipmentById(List<Integer> ids) throws SQLException {
         return SQL.from(PlayerEquipment.class).whereIn("playerId", ids).get();
@@ -26,6 +31,10 @@ public class InventoryRepository {
         SQL.save(inventoy);
     }
 
+    public int[] updateEquipment(List<PlayerEquipment> equipments) throws SQLException {
+        return SQL.insertAll(equipments).onDuplicateKeyUpdate().execute();
+    }
+
     public PlayerInventory findInventoryById(int playerId) throws SQLException {
         return SQL.from(PlayerInventory.class).where("playerId", playerId).first();
     }
@@ -38,6 +47,10 @@ public class InventoryRepository {
         SQL.save(inventoy);
     }
 
+    public int[] updateInventory(List<PlayerInventory> inventories) throws SQLException {
+        return SQL.insertAll(inventories).onDuplicateKeyUpdate().execute();
+    }
+
     public void createStorage(PlayerInventory inventoy) throws SQLException {
         SQL.insert(inventoy).table("player_storage").execute();
     }
@@ -46,8 +59,40 @@ public class InventoryRepository {
         SQL.save(inventoy, "id", "player_storage");
     }
 
+    public int[] updateStorage(List<PlayerInventory> storages) throws SQLException {
+        return SQL.insertAll(storages).table("player_storage").onDuplicateKeyUpdate().execute();
+    }
+
     public PlayerInventory findStorageById(int playerId) throws SQLException {
         return SQL.from(PlayerInventory.class).table("player_storage").where("playerId", playerId).first();
     }
 
+    // ==================== SNAPSHOT ROWS ====================
+
+    /**
+     * Upserts a captured equipment row; a row without an id is inserted and gets the generated one.
+     */
+    public void saveEquipment(PlayerSnapshot.EquipmentRow row) throws SQLException {
+        SQL.save(row, "id", EQUIPMENT_TABLE);
+    }
+
+    public int[] saveEquipment(List<PlayerSnapshot.EquipmentRow> rows) throws SQLException {
+        return SQL.insertAll(rows).table(EQUIPMENT_TABLE).onDuplicateKeyUpdate().execute();
+    }
+
+    public void saveInventory(PlayerSnapshot.InventoryRow row) throws SQLException {
+        SQL.save(row, "id", INVENTORY_TABLE);
+    }
+
+    public int[] saveInventory(List<PlayerSnapshot.InventoryRow> rows) throws SQLException {
+        return SQL.insertAll(rows).table(INVENTORY_TABLE).onDuplicateKeyUpdate().execute();
+    }
+
+    public void saveStorage(PlayerSnapshot.InventoryRow row) throws SQLException {
+        SQL.save(row, "id", STORAGE_TABLE);
+    }
+
+    public int[] saveStorage(List<PlayerSnapshot.InventoryRow> rows) throws SQLException {
+        return SQL.insertAll(rows).table(STORAGE_TABLE).onDuplicateKeyUpdate().execute();
+    }
 }
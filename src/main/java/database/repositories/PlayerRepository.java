@@ -59,6 +59,14 @@ public class PlayerRepository {
         SQL.update(player).whereId().execute();
     }
 
+    public int[] updateAll(List<Player> players) throws SQLException {
+        return SQL.updateAll(players).whereId().execute();
+    }
+
+    public int[] savePlayerPets(List<PlayerPet> pets) throws SQLException {
+        return SQL.updateAll(pets).whereId("playerId").execute();
+    }
+
     public void delete(int id) throws SQLException {
         SQL.delete(Player.class).where("id", id).execute();
     }
@@ -79,4 +87,8 @@ public class PlayerRepository {
         return SQL.save(fl);
     }
 
+    public int[] saveFriendLists(List<FriendList> lists) throws SQLException {
+        return SQL.insertAll(lists).onDuplicateKeyUpdate().execute();
+    }
+
 }
@@ -0,0 +1,119 @@
+package dev;
+
+import database.EconomyAudit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Searches the economy audit trail in data/audit, oldest first:
+ * <pre>
+ * AuditQuery piece &lt;fingerprint&gt;   one rolled equipment piece, across every character and upgrade
+ * AuditQuery item &lt;itemId&gt;          every movement of an item template
+ * AuditQuery player &lt;playerId&gt;      everything one character gained or lost
+ * </pre>
+ * GAP lines (events sampled out or dropped under load) are always printed, since matching
+ * events may be missing around them.
+ */
+public class AuditQuery {
+
+    // Columns of a trail line, see EconomyAudit.format
+    private static final int PLAYER = 1;
+    private static final int ASSET = 3;
+    private static final int ITEM = 4;
+    private static final int FINGERPRINT = 9;
+    private static final int DETAIL = 10;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: AuditQuery piece <fingerprint> | item <itemId> | player <playerId>");
+            System.exit(1);
+        }
+
+        if (!Files.isDirectory(EconomyAudit.DIR)) {
+            System.err.println("No audit trail in " + EconomyAudit.DIR.toAbsolutePath());
+            return;
+        }
+
+        List<Path> files;
+        try (Stream<Path> s = Files.list(EconomyAudit.DIR)) {
+            files = s.filter(p -> p.getFileName().toString().endsWith(".log")).sorted().toList();
+        }
+
+        String value = args[1];
+        Predicate<String[]> filter = switch (args[0]) {
+            case "piece" -> {
+                Set<String> pieces = piece(files, value);
+                yield f -> (f.length > FINGERPRINT && pieces.contains(f[FINGERPRINT]))
+                        || pieces.contains(pieceBefore(f));
+            }
+            case "item" -> f -> f.length > ITEM && f[ASSET].equals("ITEM") && f[ITEM].equals(value);
+            case "player" -> f -> f.length > PLAYER && f[PLAYER].equals(value);
+            default -> throw new IllegalArgumentException("Unknown query: " + args[0]);
+        };
+
+        SimpleDateFormat time = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        int[] matches = new int[1];
+        forEachLine(files, (line, f) -> {
+            boolean gap = f.length > 1 && f[1].equals("GAP");
+            if (!gap && !filter.test(f)) return;
+
+            if (!gap) matches[0]++;
+            System.out.println(time.format(new Date(Long.parseLong(f[0]))) + "  " + line.substring(f[0].length() + 1));
+        });
+        System.out.println(matches[0] + " events in " + files.size() + " files");
+    }
+
+    // Every fingerprint the piece had, following upgrades back and forth from the one given
+    private static Set<String> piece(List<Path> files, String fingerprint) throws IOException {
+        Map<String, Set<String>> links = new HashMap<>();
+        forEachLine(files, (line, f) -> {
+            String before = pieceBefore(f);
+            if (before == null || f.length <= FINGERPRINT || before.equals(f[FINGERPRINT])) return;
+            links.computeIfAbsent(before, k -> new HashSet<>()).add(f[FINGERPRINT]);
+            links.computeIfAbsent(f[FINGERPRINT], k -> new HashSet<>()).add(before);
+        });
+
+        Set<String> pieces = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>(List.of(fingerprint));
+        while (!pending.isEmpty()) {
+            String next = pending.poll();
+            if (pieces.add(next)) {
+                pending.addAll(links.getOrDefault(next, Set.of()));
+            }
+        }
+        if (pieces.size() > 1) {
+            System.out.println("Piece went by " + pieces.size() + " fingerprints: " + pieces);
+        }
+        return pieces;
+    }
+
+    // Fingerprint before an upgrade, from the detail column; null on other lines
+    private static String pieceBefore(String[] f) {
+        if (f.length <= DETAIL) return null;
+        int at = f[DETAIL].indexOf(EconomyAudit.PIECE_BEFORE);
+        if (at < 0) return null;
+        String rest = f[DETAIL].substring(at + EconomyAudit.PIECE_BEFORE.length());
+        int end = rest.indexOf(' ');
+        return end < 0 ? rest : rest.substring(0, end);
+    }
+
+    private static void forEachLine(List<Path> files, BiConsumer<String, String[]> action) throws IOException {
+        for (Path file : files) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    action.accept(line, line.split("\t"));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package dev;
+
+import database.ContentBundle;
+import database.SQL;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Build-time export of the static content bundle: {@code ContentExport [output]}, default
+ * {@code data/content.bin}. Reads the database configured in data/config/database.yaml.
+ */
+@Slf4j
+public class ContentExport {
+    public static void main(String[] args) throws Exception {
+        Path path = args.length > 0 ? Paths.get(args[0]) : ContentBundle.PATH;
+        try {
+            ContentBundle.export(path);
+        } finally {
+            SQL.gI().close();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package dev;
+
+import game.equipment.EquipmentSlot;
+import game.inventory.InventorySlot;
+import game.inventory.ItemCodec;
+import lombok.extern.slf4j.Slf4j;
+import manager.ItemManager;
+import model.ColumnCodec;
+import model.ModelMapper;
+import model.item.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Compares the legacy JSON slot columns with {@link ItemCodec}: encode/decode time and row size
+ * for a full bag (126 slots) and a full equipment set (24 slots). No database needed.
+ * <p>
+ * Run: java -cp target/classes:&lt;deps&gt; dev.ItemCodecBenchmark [iterations]
+ */
+@Slf4j
+public class ItemCodecBenchmark {
+
+    private static final int WARMUP = 20_000;
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 50_000;
+
+        ModelMapper.registerPolymorphicType(BaseItem.class, "EQUIPMENT", EquipmentItem.class);
+        ModelMapper.registerPolymorphicType(BaseItem.class, "POTION", PotionItem.class);
+        ModelMapper.registerPolymorphicType(BaseItem.class, "MATERIAL", MaterialItem.class);
+        ModelMapper.setDiscriminatorField(BaseItem.class, "category");
+        registerTemplates();
+
+        InventorySlot[] bag = sampleBag();
+        EquipmentSlot[] wearing = sampleWearing();
+
+        run("inventory", bag, InventorySlot[].class, ItemCodec.INVENTORY, iterations);
+        run("equipment", wearing, EquipmentSlot[].class, ItemCodec.EQUIPMENT, iterations);
+    }
+
+    private static <T> void run(String label, T value, Class<T> type, ColumnCodec<T> codec, int iterations) {
+        String json = ModelMapper.toJson(value);
+        String binary = codec.encode(value);
+
+        long jsonEncode = measure(iterations, () -> ModelMapper.toJson(value));
+        long jsonDecode = measure(iterations, () -> ModelMapper.fromJson(json, type));
+        long binaryEncode = measure(iterations, () -> codec.encode(value));
+        long binaryDecode = measure(iterations, () -> codec.decode(binary));
+
+        log.info("[{}] row size    json={} B  binary={} B  ({}%)", label,
+                bytes(json), bytes(binary), bytes(binary) * 100 / bytes(json));
+        log.info("[{}] encode      json={} ns  binary={} ns", label, jsonEncode, binaryEncode);
+        log.info("[{}] decode      json={} ns  binary={} ns", label, jsonDecode, binaryDecode);
+    }
+
+    // Average ns per call after a warm-up pass
+    private static long measure(int iterations, Supplier<Object> task) {
+        Object sink = null;
+        for (int i = 0; i < WARMUP; i++) {
+            sink = task.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = task.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (sink == null) log.warn("empty result");
+        return elapsed / iterations;
+    }
+
+    private static int bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    // ==================== SAMPLE DATA ====================
+
+    static void registerTemplates() {
+        ItemManager items = ItemManager.getInstance();
+        List<EquipmentItem> equipment = new ArrayList<>();
+        for (int id = 0; id < 40; id++) {
+            equipment.add(equipment(id));
+        }
+        items.loadEquipment(equipment);
+
+        List<PotionItem> potions = new ArrayList<>();
+        List<MaterialItem> materials = new ArrayList<>();
+        for (int id = 0; id < 10; id++) {
+            PotionItem potion = new PotionItem();
+            potion.setId(id);
+            potion.setName("Potion " + id);
+            potion.setDescription("Restores health over a short time");
+            potion.setPrice(100 * id);
+            potions.add(potion);
+
+            MaterialItem material = new MaterialItem();
+            material.setId(id);
+            material.setName("Material " + id);
+            material.setDescription("Used for crafting and upgrades");
+            material.setPrice(50 * id);
+            materials.add(material);
+        }
+        items.loadPotions(potions);
+        items.loadMaterials(materials);
+    }
+
+    private static EquipmentItem equipment(int id) {
+        EquipmentItem item = new EquipmentItem();
+        item.setId(id);
+        item.setName("Equipment " + id);
+        item.setIcon(1000 + id);
+        item.setType(id % 16);
+        item.setPart(id % 4);
+        item.setLevel(10 + id);
+        item.setColor(id % 5);
+        item.setRole(id % 4);
+        item.setPlus((byte) (id % 16));
+
+        List<Option> options = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            options.add(new Option(i * 7 + id % 3, 100 + i * 25));
+        }
+        item.setOption(options);
+        return item;
+    }
+
+    static InventorySlot[] sampleBag() {
+        ItemManager items = ItemManager.getInstance();
+        InventorySlot[] slots = new InventorySlot[126];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new InventorySlot();
+            switch (i % 3) {
+                case 0 -> slots[i].set(items.getEquipment(i % 40), 1);
+                case 1 -> slots[i].set(items.getPotion(i % 10), 1 + i * 13);
+                default -> slots[i].set(items.getMaterial(i % 10), 1 + i * 7);
+            }
+        }
+        return slots;
+    }
+
+    static EquipmentSlot[] sampleWearing() {
+        ItemManager items = ItemManager.getInstance();
+        EquipmentSlot[] slots = new EquipmentSlot[24];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new EquipmentSlot(i);
+            if (i < 16) slots[i].set(items.getEquipment(i));
+        }
+        return slots;
+    }
+}
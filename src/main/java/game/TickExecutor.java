@@ -0,0 +1,75 @@
+package game;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Hands work back to the GameServer-Tick thread.
+ * <p>
+ * Tasks queued from any thread (typically database continuations) run in order at the start
+ * of the next tick, so world state is only ever touched by the tick thread.
+ */
+@Slf4j
+public final class TickExecutor implements Executor {
+
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private volatile Thread tickThread;
+
+    private TickExecutor() {
+    }
+
+    private static class Holder {
+        private static final TickExecutor INSTANCE = new TickExecutor();
+    }
+
+    public static TickExecutor getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Registers the thread that runs the game loop. Called once by the loop's thread factory.
+     */
+    public void bind(Thread thread) {
+        this.tickThread = thread;
+    }
+
+    /**
+     * Called once the loop has stopped; work that needs the tick then runs on its caller.
+     */
+    public void unbind() {
+        this.tickThread = null;
+    }
+
+    public boolean isBound() {
+        return tickThread != null;
+    }
+
+    public boolean isTickThread() {
+        return Thread.currentThread() == tickThread;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        tasks.offer(Objects.requireNonNull(task));
+    }
+
+    /**
+     * Runs the tasks queued so far. Tasks queued while draining wait for the next tick.
+     */
+    public void drain() {
+        for (int budget = tasks.size(); budget > 0; budget--) {
+            Runnable task = tasks.poll();
+            if (task == null) return;
+
+            try {
+                task.run();
+            } catch (Exception e) {
+                log.error("Tick task failed", e);
+            }
+        }
+    }
+}
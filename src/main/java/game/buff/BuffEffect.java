@@ -46,8 +46,12 @@ public class BuffEffect {
      * Check if buff has expired
      */
     public boolean isExpired() {
+        return isExpired(System.currentTimeMillis());
+    }
+
+    public boolean isExpired(long now) {
         if (duration <= 0) return false; // Permanent buff
-        return System.currentTimeMillis() - startTime >= duration;
+        return now - startTime >= duration;
     }
 
     /**
@@ -4,76 +4,152 @@ import game.entity.base.LivingEntity;
 import game.stat.StatType;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.Map;
 
 
 /**
  * Manages all buffs for a living entity
+ * <p>
+ * Buffs live in compact parallel arrays keyed by buff id, allocated on the first buff
+ * and compacted in place on expiry, so the per-tick update does not allocate.
  */
 @Slf4j
 public class BuffManager {
+    private static final int INITIAL_CAPACITY = 4;
+
     private final LivingEntity owner;
-    private final ConcurrentHashMap<Integer, BuffEffect> activeBuffs;
+
+    // buffIds[i] → buffs[i], first `size` slots used
+    private int[] buffIds;
+    private BuffEffect[] buffs;
+    private int size;
 
     public BuffManager(LivingEntity owner) {
         this.owner = owner;
-        this.activeBuffs = new ConcurrentHashMap<>();
+    }
+
+    private int indexOf(int buffId) {
+        for (int i = 0; i < size; i++) {
+            if (buffIds[i] == buffId) return i;
+        }
+        return -1;
+    }
+
+    private void add(BuffEffect buff) {
+        if (buffs == null) {
+            buffIds = new int[INITIAL_CAPACITY];
+            buffs = new BuffEffect[INITIAL_CAPACITY];
+        } else if (size == buffs.length) {
+            buffIds = Arrays.copyOf(buffIds, size * 2);
+            buffs = Arrays.copyOf(buffs, size * 2);
+        }
+
+        buffIds[size] = buff.getId();
+        buffs[size] = buff;
+        size++;
     }
 
 
     public void applyBuff(BuffEffect buff) {
-        BuffEffect existing = activeBuffs.get(buff.getId());
+        synchronized (this) {
+            int index = indexOf(buff.getId());
+            if (index >= 0) {
+                // Refresh duration if same buff
+                buffs[index].refresh();
+                log.debug("Refreshed buff {} on {}", buff.getId(), owner.getId());
+                return;
+            }
 
-        if (existing != null) {
-            // Refresh duration if same buff
-            existing.refresh();
-            log.debug("Refreshed buff {} on {}", buff.getId(), owner.getId());
-        } else {
             // Add new buff
-            activeBuffs.put(buff.getId(), buff);
-            owner.recalculateStats(); // Recalc with new buff
-            log.debug("Applied buff {} to {}", buff.getId(), owner.getId());
+            add(buff);
         }
+        owner.recalculateBuffStats(); // Recalc with new buff
+        log.debug("Applied buff {} to {}", buff.getId(), owner.getId());
     }
 
     public void removeBuff(int buffId) {
-        BuffEffect removed = activeBuffs.remove(buffId);
-        if (removed != null) {
-            owner.recalculateStats(); // Recalc without buff
-            log.debug("Removed buff {} from {}", removed.getId(), owner.getId());
+        BuffEffect removed;
+        synchronized (this) {
+            int index = indexOf(buffId);
+            if (index < 0) return;
+
+            removed = buffs[index];
+            int last = size - 1;
+            if (index < last) {
+                System.arraycopy(buffIds, index + 1, buffIds, index, last - index);
+                System.arraycopy(buffs, index + 1, buffs, index, last - index);
+            }
+            buffs[last] = null;
+            size = last;
         }
+        owner.recalculateBuffStats(); // Recalc without buff
+        log.debug("Removed buff {} from {}", removed.getId(), owner.getId());
     }
 
 
     public void clearAllBuffs() {
-        activeBuffs.clear();
-        owner.recalculateStats();
+        synchronized (this) {
+            if (buffs != null) {
+                Arrays.fill(buffs, 0, size, null);
+            }
+            size = 0;
+        }
+        owner.recalculateBuffStats();
         log.debug("Cleared all buffs from {}", owner.getId());
     }
 
     public void update() {
-        List<Integer> expired = new ArrayList<>();
-
-        for (BuffEffect buff : activeBuffs.values()) {
-            if (buff.isExpired()) {
-                expired.add(buff.getId());
+        boolean changed = false;
+        synchronized (this) {
+            if (size == 0) return;
+
+            long now = System.currentTimeMillis();
+            int write = 0;
+            for (int read = 0; read < size; read++) {
+                BuffEffect buff = buffs[read];
+                if (buff.isExpired(now)) {
+                    changed = true;
+                    continue;
+                }
+                if (read != write) {
+                    buffIds[write] = buffIds[read];
+                    buffs[write] = buff;
+                }
+                write++;
             }
+            Arrays.fill(buffs, write, size, null);
+            size = write;
         }
 
-        expired.forEach(this::removeBuff);
+        if (changed) {
+            owner.recalculateBuffStats();
+        }
     }
 
 
-    public boolean hasBuff(int buffId) {
-        return activeBuffs.containsKey(buffId);
+    public synchronized boolean hasBuff(int buffId) {
+        return indexOf(buffId) >= 0;
     }
 
-    public int getStatBonus(StatType statType) {
-        return activeBuffs.values().stream()
-                .mapToInt(buff -> buff.getStatModifiers().getOrDefault(statType, 0))
-                .sum();
+    /**
+     * Adds every active buff modifier into a stat vector indexed by {@link StatType#getIndex()}.
+     */
+    public synchronized void addStatsTo(int[] layer) {
+        for (int i = 0; i < size; i++) {
+            for (Map.Entry<StatType, Integer> mod : buffs[i].getStatModifiers().entrySet()) {
+                layer[mod.getKey().getIndex()] += mod.getValue();
+            }
+        }
+    }
+
+    public synchronized int getStatBonus(StatType statType) {
+        int total = 0;
+        for (int i = 0; i < size; i++) {
+            Integer value = buffs[i].getStatModifiers().get(statType);
+            if (value != null) total += value;
+        }
+        return total;
     }
 
-}
\ No newline at end of file
+}
@@ -5,36 +5,88 @@ import game.entity.base.LivingEntity;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages all active effects on a LivingEntity.
  * <p>
  * Key design:
  * - Keyed by effectId → only one instance per effect type (refresh on re-apply)
- * - Separate tracking for DEBUFF/BUFF/MEDAL for fast queries
- * - update() drives all lifecycle callbacks
- * - getActiveModifiers() feeds into Stats.recalculateStats()
+ * - Compact parallel arrays (ids + effects), allocated on first apply and compacted in place
+ * - One EffectContext per owner, reused for every callback
+ * - update(), removeWhere() and clearAll() drive lifecycle callbacks while compacting;
+ *   callbacks may apply new effects during the pass (they are appended and kept) but
+ *   must not remove them
+ * - addModifiersTo() feeds into Stats.recalculateStats()
  */
 @Slf4j
 public class EffectManager {
 
-    // effectId → active effect
-    private final Map<Integer, Effect> effects = new ConcurrentHashMap<>();
+    private static final int INITIAL_CAPACITY = 4;
+    // Id of a slot that was dropped or vacated, so indexOf() never matches it
+    private static final int NONE = -1;
+
     private final LivingEntity owner;
 
+    // effectIds[i] → effects[i], first `size` slots used
+    private int[] effectIds;
+    private Effect[] effects;
+    private int size;
+
+    private EffectContext context;
+
     public EffectManager(LivingEntity owner) {
         this.owner = owner;
     }
 
+    private EffectContext context() {
+        if (context == null) {
+            context = new EffectContext(owner);
+        }
+        return context;
+    }
+
+    private int indexOf(int effectId) {
+        for (int i = 0; i < size; i++) {
+            if (effectIds[i] == effectId) return i;
+        }
+        return -1;
+    }
+
+    private void add(Effect effect) {
+        if (effects == null) {
+            effectIds = new int[INITIAL_CAPACITY];
+            effects = new Effect[INITIAL_CAPACITY];
+        } else if (size == effects.length) {
+            effectIds = Arrays.copyOf(effectIds, size * 2);
+            effects = Arrays.copyOf(effects, size * 2);
+        }
+
+        effectIds[size] = effect.getEffectId();
+        effects[size] = effect;
+        size++;
+    }
+
+    private Effect removeAt(int index) {
+        Effect removed = effects[index];
+        int last = size - 1;
+        if (index < last) {
+            System.arraycopy(effectIds, index + 1, effectIds, index, last - index);
+            System.arraycopy(effects, index + 1, effects, index, last - index);
+        }
+        effects[last] = null;
+        size = last;
+        return removed;
+    }
+
 
     /**
      * Applies an effect. If an effect with the same effectId already exists,
      * it refreshes (resets duration) instead of stacking.
      */
-    public void apply(Effect newEffect) {
-        EffectContext ctx = new EffectContext(owner);
-        Effect existing = effects.get(newEffect.getEffectId());
+    public synchronized void apply(Effect newEffect) {
+        EffectContext ctx = context();
+        int index = indexOf(newEffect.getEffectId());
+        Effect existing = index >= 0 ? effects[index] : null;
 
         if (existing != null && existing.isActive()) {
             log.debug("[EffectManager] Refreshing effect {} on {}", newEffect.getEffectId(), owner.getId());
@@ -42,7 +94,12 @@ public class EffectManager {
             return;
         }
 
-        effects.put(newEffect.getEffectId(), newEffect);
+        if (index >= 0) {
+            // An expired entry, possibly mid-compaction (re-applied from its onExpire); writing
+            // into its slot would let the pass drop the new effect, so retire it and append
+            effectIds[index] = NONE;
+        }
+        add(newEffect);
         newEffect.onApply(ctx);
         log.debug("[EffectManager] Applied effect {} ({}) on {}", newEffect.getEffectId(), newEffect.getType(), owner.getId());
     }
@@ -52,11 +109,14 @@ public class EffectManager {
     /**
      * Forcibly remove an effect by its id (e.g. cleanse, purge).
      */
-    public void remove(int effectId) {
-        Effect effect = effects.remove(effectId);
-        if (effect != null && effect.isActive()) {
+    public synchronized void remove(int effectId) {
+        int index = indexOf(effectId);
+        if (index < 0) return;
+
+        Effect effect = removeAt(index);
+        if (effect.isActive()) {
             effect.setActive(false);
-            effect.onExpire(new EffectContext(owner));
+            effect.onExpire(context());
             log.debug("[EffectManager] Removed effect {} from {}", effectId, owner.getId());
         }
     }
@@ -65,94 +125,162 @@ public class EffectManager {
      * Remove all DEBUFF effects (e.g. cleanse skill).
      */
     public void cleanseDebuffs() {
-        effects.values().stream()
-                .filter(e -> e.isActive() && e.getType() == EffectType.DEBUFF)
-                .forEach(e -> remove(e.getEffectId()));
+        removeWhere(EffectType.DEBUFF);
     }
 
     /**
      * Remove all BUFF effects (e.g. dispel skill).
      */
     public void dispelBuffs() {
-        effects.values().stream()
-                .filter(e -> e.isActive() && e.getType() == EffectType.BUFF)
-                .forEach(e -> remove(e.getEffectId()));
+        removeWhere(EffectType.BUFF);
+    }
+
+    private synchronized void removeWhere(EffectType type) {
+        EffectContext ctx = context();
+        int end = size;
+        int write = 0;
+        for (int read = 0; read < end; read++) {
+            Effect e = effects[read];
+            if (e.isActive() && e.getType() == type) {
+                drop(read);
+                e.setActive(false);
+                e.onExpire(ctx);
+                log.debug("[EffectManager] Removed effect {} from {}", e.getEffectId(), owner.getId());
+                continue;
+            }
+            keep(read, write++);
+        }
+        keepAppended(end, write);
     }
 
     /**
      * Remove all non-permanent effects (death / zone change).
      */
-    public void clearAll() {
-        EffectContext ctx = new EffectContext(owner);
-        effects.values().forEach(e -> {
+    public synchronized void clearAll() {
+        EffectContext ctx = context();
+        int end = size;
+        int write = 0;
+        for (int read = 0; read < end; read++) {
+            Effect e = effects[read];
             if (!e.isPermanent()) {
+                drop(read);
                 e.setActive(false);
                 e.onExpire(ctx);
+                continue;
             }
-        });
-        effects.entrySet().removeIf(entry -> !entry.getValue().isPermanent());
+            keep(read, write++);
+        }
+        keepAppended(end, write);
+    }
+
+    // Clears a dropped entry before its callbacks run, so a re-apply from them appends
+    // instead of landing in a slot the pass is about to reuse or cut off.
+    private void drop(int read) {
+        effectIds[read] = NONE;
+        effects[read] = null;
+    }
+
+    // Moves a surviving entry down; the vacated slot is cleared so callbacks that
+    // query this manager mid-pass never see an entry twice.
+    private void keep(int read, int write) {
+        if (read != write) {
+            effectIds[write] = effectIds[read];
+            effects[write] = effects[read];
+            effectIds[read] = NONE;
+            effects[read] = null;
+        }
+    }
+
+    // Keeps the effects applied by callbacks during a pass, then cuts the array to size
+    private void keepAppended(int end, int write) {
+        for (int read = end; read < size; read++) {
+            keep(read, write++);
+        }
+        truncate(write);
+    }
+
+    private void truncate(int newSize) {
+        for (int i = newSize; i < size; i++) {
+            effectIds[i] = NONE;
+            effects[i] = null;
+        }
+        size = newSize;
     }
 
     // ==================== UPDATE ====================
 
     /**
      * Called every game tick from LivingEntity.onUpdate().
-     * Advances timers, fires periodic ticks, removes expired effects.
+     * Advances timers, fires periodic ticks, removes expired effects in place.
      */
-    public void update(int deltaMs) {
-        if (effects.isEmpty()) return;
-
-        EffectContext ctx = new EffectContext(owner);
-        List<Integer> toRemove = new ArrayList<>();
+    public synchronized void update(int deltaMs) {
+        if (size == 0) return;
 
-        for (Map.Entry<Integer, Effect> entry : effects.entrySet()) {
-            Effect effect = entry.getValue();
-            if (!effect.isActive()) {
-                toRemove.add(entry.getKey());
+        EffectContext ctx = context();
+        int end = size;
+        int write = 0;
+        for (int read = 0; read < end; read++) {
+            Effect effect = effects[read];
+            if (!effect.isActive() || effect.update(ctx, deltaMs)) {
+                drop(read);
                 continue;
             }
-
-            boolean expired = effect.update(ctx, deltaMs);
-            if (expired) toRemove.add(entry.getKey());
+            keep(read, write++);
         }
-
-        toRemove.forEach(effects::remove);
+        keepAppended(end, write);
     }
 
     // ==================== QUERIES ====================
 
     /**
-     * Returns all active StatModifiers from BUFF/DEBUFF/MEDAL effects.
+     * Adds all active StatModifiers from BUFF/DEBUFF/MEDAL effects into a stat vector
+     * indexed by {@link game.stat.StatType#getIndex()}.
      */
-    public List<StatModifier> getActiveModifiers() {
-        List<StatModifier> result = new ArrayList<>();
-        for (Effect e : effects.values()) {
-            if (e.isActive() && e instanceof StatModifierProvider provider) {
-                result.addAll(provider.getModifiers());
+    public synchronized void addModifiersTo(int[] layer) {
+        for (int i = 0; i < size; i++) {
+            Effect e = effects[i];
+            if (e != null && e.isActive() && e instanceof StatModifierProvider provider) {
+                for (StatModifier mod : provider.getModifiers()) {
+                    layer[mod.getType().getIndex()] += mod.getValue();
+                }
             }
         }
-        return result;
     }
 
-    public boolean isStunned() {
-        return effects.values().stream()
-                .anyMatch(e -> e.isActive() && e instanceof StunEffect);
+    public synchronized boolean isStunned() {
+        for (int i = 0; i < size; i++) {
+            Effect e = effects[i];
+            if (e != null && e.isActive() && e instanceof StunEffect) return true;
+        }
+        return false;
     }
 
-    public boolean hasEffect(int effectId) {
-        Effect e = effects.get(effectId);
-        return e != null && e.isActive();
+    public synchronized boolean hasEffect(int effectId) {
+        int index = indexOf(effectId);
+        return index >= 0 && effects[index] != null && effects[index].isActive();
     }
 
-    public boolean hasEffectType(EffectType type) {
-        return effects.values().stream().anyMatch(e -> e.isActive() && e.getType() == type);
+    public synchronized boolean hasEffectType(EffectType type) {
+        for (int i = 0; i < size; i++) {
+            Effect e = effects[i];
+            if (e != null && e.isActive() && e.getType() == type) return true;
+        }
+        return false;
     }
 
-    public Collection<Effect> getAll() {
-        return Collections.unmodifiableCollection(effects.values());
+    public synchronized Collection<Effect> getAll() {
+        List<Effect> result = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            if (effects[i] != null) result.add(effects[i]);
+        }
+        return Collections.unmodifiableList(result);
     }
 
-    public int getEffectCount() {
-        return (int) effects.values().stream().filter(Effect::isActive).count();
+    public synchronized int getEffectCount() {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (effects[i] != null && effects[i].isActive()) count++;
+        }
+        return count;
     }
-}
\ No newline at end of file
+}
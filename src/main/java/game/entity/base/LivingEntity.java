@@ -9,15 +9,14 @@ import game.entity.player.PlayerEntity;
 import game.inventory.InventoryManager;
 import game.level.ExpCalculator;
 import game.skill.DamageContext;
-import game.skill.DamageEffect;
 import game.skill.SkillEntity;
+import game.skill.SkillProfile;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import game.stat.Stats;
 import game.entity.DamageType;
 import lombok.extern.slf4j.Slf4j;
 import game.effects.Effect;
-import model.skill.LvSkill;
 import game.stat.StatCalculator;
 import service.NetworkService;
 import utils.NumberUtils;
@@ -38,7 +37,8 @@ public abstract class LivingEntity extends GameObject {
     protected Stats stats;
     protected InventoryManager inventoryManager;
 
-    protected EffectManager effectManager;
+    // Created on first effect; most monsters never carry one
+    protected volatile EffectManager effectManager;
     protected BuffManager buffManager;
 
     // Health & Resources
@@ -71,14 +71,12 @@ public abstract class LivingEntity extends GameObject {
         super();
         this.stats = new Stats();
         this.expCalculator = new ExpCalculator();
-        effectManager = new EffectManager(this);
     }
 
     protected LivingEntity(GameObjectType type) {
         super(type);
         this.stats = new Stats();
         this.expCalculator = new ExpCalculator();
-        effectManager = new EffectManager(this);
     }
 
     // ==================== ABSTRACT METHODS ====================
@@ -91,6 +89,13 @@ public abstract class LivingEntity extends GameObject {
 
     public abstract void recalculateStats();
 
+    /**
+     * Called when only buffs or effects changed. Defaults to a full recalculation.
+     */
+    public void recalculateBuffStats() {
+        recalculateStats();
+    }
+
     // ==================== COMBAT METHODS ====================
 
 
@@ -114,13 +119,13 @@ public abstract class LivingEntity extends GameObject {
         }
 
         // Check mana cost
-        LvSkill levelData = skill.getCurrentLevelData();
-        if (levelData != null && levelData.mpCost > 0) {
-            if (mp < levelData.mpCost) {
+        SkillProfile profile = skill.getProfile();
+        if (profile != null && profile.getMpCost() > 0) {
+            if (mp < profile.getMpCost()) {
                 return;
             }
 
-            consumeMp(levelData.mpCost);
+            consumeMp(profile.getMpCost());
         }
         byte skillType = skill.getType();
         switch (skillType) {
@@ -191,14 +196,14 @@ public abstract class LivingEntity extends GameObject {
         }
 
         // Check mana cost (only once for AoE)
-        LvSkill levelData = skill.getCurrentLevelData();
-        if (levelData != null && levelData.mpCost > 0) {
-            if (mp < levelData.mpCost) {
-                log.warn("Not enough mana. Required: {}, Current: {}", levelData.mpCost, mp);
+        SkillProfile profile = skill.getProfile();
+        if (profile != null && profile.getMpCost() > 0) {
+            if (mp < profile.getMpCost()) {
+                log.warn("Not enough mana. Required: {}, Current: {}", profile.getMpCost(), mp);
                 return;
             }
 
-            consumeMp(levelData.mpCost);
+            consumeMp(profile.getMpCost());
         }
         dealDamageTo(target, skill);
 
@@ -239,7 +244,7 @@ public abstract class LivingEntity extends GameObject {
         if (stats.getReflectDamagePercent() > 0 && ctx.getAttacker() != null) {
             int reflected = stats.calculateReflectedDamage(ctx.getFinalDamage());
             ctx.getAttacker().takeReflectDamage(reflected);
-            ctx.addEffect(new DamageEffect(5, reflected));
+            ctx.addEffect(5, reflected);
         }
 
         // Pass context with both raw and final damage to hook
@@ -271,44 +276,48 @@ public abstract class LivingEntity extends GameObject {
 
         }
 
-        // Create damage context with raw damage
-        DamageContext ctx = new DamageContext(this, target, skill, totalDmg);
-        ctx.setFinalDamage(totalDmg);   // Will be updated by target's takeDamage()
+        // Borrow this thread's damage context; only valid until release()
+        DamageContext ctx = DamageContext.acquire(this, target, skill, totalDmg);
+        try {
+            ctx.setFinalDamage(totalDmg);   // Will be updated by target's takeDamage()
 
-        // Normal Damage Effect
-        ctx.addEffect(new DamageEffect(0, ctx.getDamage()));
+            // Normal Damage Effect
+            ctx.addEffect(0, ctx.getDamage());
 
-        if (StatCalculator.isPenetrationHit((stats))) {
-            ctx.setPenetration(true);
-            ctx.addEffect(new DamageEffect(1, totalDmg));
-        }
+            if (StatCalculator.isPenetrationHit((stats))) {
+                ctx.setPenetration(true);
+                ctx.addEffect(1, totalDmg);
+            }
 
-        if (StatCalculator.isCriticalHit(stats)) {
-            totalDmg += totalDmg * 2;
-            ctx.setDamage(totalDmg);
-            // Critical Damage Effect
-            ctx.addEffect(new DamageEffect(4, totalDmg));
-        }
+            if (StatCalculator.isCriticalHit(stats)) {
+                totalDmg += totalDmg * 2;
+                ctx.setDamage(totalDmg);
+                // Critical Damage Effect
+                ctx.addEffect(4, totalDmg);
+            }
 
-        // Lifesteal based on final damage dealt
-        if (stats.getHpLifesteal() > 0) {
-            int healed = stats.calculateLifesteal(ctx.getDamage());
-            restoreHp(healed);
-            ctx.addEffect(new DamageEffect(2, healed));
-        }
+            // Lifesteal based on final damage dealt
+            if (stats.getHpLifesteal() > 0) {
+                int healed = stats.calculateLifesteal(ctx.getDamage());
+                restoreHp(healed);
+                ctx.addEffect(2, healed);
+            }
 
-        // Manasteal based on final damage dealt
-        if (stats.getManaLifesteal() > 0) {
-            int restored = stats.calculateManasteal(ctx.getDamage());
-            restoreMp(restored);
-            ctx.addEffect(new DamageEffect(3, restored));
-        }
+            // Manasteal based on final damage dealt
+            if (stats.getManaLifesteal() > 0) {
+                int restored = stats.calculateManasteal(ctx.getDamage());
+                restoreMp(restored);
+                ctx.addEffect(3, restored);
+            }
 
-        lastAttackTime = System.currentTimeMillis();
-        // Apply damage to target (target will calculate final damage)
-        target.takeDamage(ctx);
+            lastAttackTime = System.currentTimeMillis();
+            // Apply damage to target (target will calculate final damage)
+            target.takeDamage(ctx);
 
-        onDamageDealt(ctx);
+            onDamageDealt(ctx);
+        } finally {
+            ctx.release();
+        }
     }
 
     protected void takeReflectDamage(int damage) {
@@ -491,7 +500,21 @@ public abstract class LivingEntity extends GameObject {
     }
 
     public void applyEffect(Effect newEffect) {
-        effectManager.apply(newEffect);
+        getEffectManager().apply(newEffect);
+    }
+
+    public EffectManager getEffectManager() {
+        EffectManager manager = effectManager;
+        if (manager == null) {
+            synchronized (this) {
+                manager = effectManager;
+                if (manager == null) {
+                    manager = new EffectManager(this);
+                    effectManager = manager;
+                }
+            }
+        }
+        return manager;
     }
 
     // ==================== UPDATE ====================
@@ -499,7 +522,10 @@ public abstract class LivingEntity extends GameObject {
     @Override
     public void onUpdate(long deltaTime) {
         lastUpdateTime = System.currentTimeMillis();
-        effectManager.update((int) deltaTime);
+        EffectManager manager = effectManager;
+        if (manager != null) {
+            manager.update((int) deltaTime);
+        }
         applyRegen(deltaTime);
 
     }
@@ -141,6 +141,7 @@ public class MonsterEntity extends LivingEntity {
                         guildMine.getGuards().clear();
                         guildMine.getGuards().add(attacker.getId());
                         guildMine.setGuildId(attacker.getGuild().getId());
+                        guildMine.getTracker().mark();
 
                         WorldManager.getInstance().worldBroadcast(player -> NetworkService.gI().sendChatWorld(player, String.format("Guild %s has destroyed crystal mine at %s", attacker.getGuild().getShortName(), getMap().getName())));
 
@@ -337,7 +338,7 @@ public class MonsterEntity extends LivingEntity {
                     member.addExperience(sharedExp);
                 }
             }
-            zone.broadcast(p -> NetworkService.gI().sendFireMonster(p, context));
+            zone.broadcast((p, ctx) -> NetworkService.gI().sendFireMonster(p, ctx), context);
 
         }
     }
@@ -373,7 +374,7 @@ public class MonsterEntity extends LivingEntity {
     @Override
     protected void onEvade(DamageContext context) {
         if (context.getAttacker().getType() == PLAYER) {
-            zone.broadcast(player -> NetworkService.gI().sendFireMonster(player, context));
+            zone.broadcast((player, ctx) -> NetworkService.gI().sendFireMonster(player, ctx), context);
         }
     }
 
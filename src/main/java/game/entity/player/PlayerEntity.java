@@ -1,5 +1,6 @@
 package game.entity.player;
 
+import database.DirtyTracker;
 import game.buff.BuffManager;
 import game.entity.ai.Bot;
 import game.equipment.EquipType;
@@ -24,6 +25,7 @@ import lombok.extern.slf4j.Slf4j;
 import manager.ItemManager;
 import manager.WorldManager;
 import model.item.*;
+import model.player.CharacterData;
 import model.menu.ConfirmDialog;
 import model.menu.InputDialog;
 import model.menu.Menu;
@@ -31,12 +33,13 @@ import model.npc.Go;
 import model.shop.Shop;
 import network.Message;
 import network.Session;
+import service.CharacterLoader;
+import service.LeaderboardService;
 import service.NetworkService;
 import game.skill.SkillEntity;
 import game.entity.base.GameObjectType;
 import game.entity.base.LivingEntity;
 import game.entity.Position;
-import service.PlayerService;
 import utils.Timer;
 
 import java.util.*;
@@ -97,6 +100,9 @@ public class PlayerEntity extends LivingEntity {
     private Party party;
     private PartSettings partSettings;
 
+    // Player row version; inventories, pets and friends carry their own
+    private final DirtyTracker tracker = new DirtyTracker();
+
 
     public PlayerEntity() {
         super(GameObjectType.PLAYER);
@@ -132,16 +138,29 @@ public class PlayerEntity extends LivingEntity {
     }
 
     public void initial() {
-        inventoryManager = new InventoryManager(this);
+        CharacterData data = CharacterLoader.gI().load(id);
+        if (data == null) {
+            data = new CharacterData(null, null, null, null, null);
+        }
+        initial(data);
+    }
 
-        if ((playerPet = PlayerService.gI().findPlayerPetById(id)) == null) {
+    /**
+     * Builds the runtime state from rows loaded by {@link CharacterLoader}.
+     */
+    public void initial(CharacterData data) {
+        inventoryManager = new InventoryManager(this, data.equipment(), data.inventory());
+
+        if ((playerPet = data.pet()) == null) {
             playerPet = new PlayerPet();
             playerPet.setPlayerId(id);
+            playerPet.getTracker().mark();
         }
 
-        if ((friendList = PlayerService.gI().findFriendList(id)) == null) {
+        if ((friendList = data.friends()) == null) {
             friendList = new FriendList();
             friendList.setId(id);
+            friendList.getTracker().mark();
         }
 
         skillData = HashMap.newHashMap(skills.length);
@@ -182,9 +201,9 @@ public class PlayerEntity extends LivingEntity {
         }
 
         buffManager.update();
-        friendRequests.values().removeIf(FriendRequest::isExpired);
-        partyRequests.values().removeIf(PartyRequest::isExpired);
-        guildRequests.values().removeIf(GuildRequest::isExpired);
+        if (!friendRequests.isEmpty()) friendRequests.values().removeIf(FriendRequest::isExpired);
+        if (!partyRequests.isEmpty()) partyRequests.values().removeIf(PartyRequest::isExpired);
+        if (!guildRequests.isEmpty()) guildRequests.values().removeIf(GuildRequest::isExpired);
     }
 
 
@@ -218,20 +237,20 @@ public class PlayerEntity extends LivingEntity {
     @Override
     protected void onDamageTaken(DamageContext context) {
         if (context.getAttacker().getType() == GameObjectType.MONSTER) {
-            zone.broadcast(notify ->
-                    NetworkService.gI().sendMonsterFire(notify, context.getAttacker(), this, context.getFinalDamage()));
+            zone.broadcast((notify, ctx) ->
+                    NetworkService.gI().sendMonsterFire(notify, ctx.getAttacker(), ctx.getDefender(), ctx.getFinalDamage()), context);
 
         } else {
-            zone.broadcast(notify ->
-                    NetworkService.gI().sendFireObject(notify, context));
+            zone.broadcast((notify, ctx) ->
+                    NetworkService.gI().sendFireObject(notify, ctx), context);
         }
     }
 
     @Override
     protected void onEvade(DamageContext context) {
         if (context.getAttacker().getType() == GameObjectType.MONSTER) {
-            zone.broadcast(notify ->
-                    NetworkService.gI().sendMonsterFire(notify, context.getAttacker(), this, 0));
+            zone.broadcast((notify, ctx) ->
+                    NetworkService.gI().sendMonsterFire(notify, ctx.getAttacker(), ctx.getDefender(), 0), context);
         }
     }
 
@@ -282,10 +301,19 @@ public class PlayerEntity extends LivingEntity {
         updateMaxMp();
     }
 
+    @Override
+    public void recalculateBuffStats() {
+        stats.refreshBuffLayer(this);
+        updateMaxHp();
+        updateMaxMp();
+    }
+
     // Player-specific methods
     @Override
     public void addExperience(long exp) {
         super.addExperience(exp);
+        tracker.mark();
+        LeaderboardService.gI().onExperienceChanged(this);
         int expToSend = (int) Math.min(exp, Integer.MAX_VALUE);
         zone.broadcast(player -> NetworkService.gI().sendUpdateExp(player, this, expToSend));
 
@@ -295,6 +323,8 @@ public class PlayerEntity extends LivingEntity {
     protected void onLevelUp() {
         potentialPoint += 4;
         skillPoint += 1;
+        tracker.mark();
+        LeaderboardService.gI().onLevelChanged(this);
         zone.broadcast(player -> NetworkService.gI().sendLevelUp(player, this));
         if (!modeBot) {
             NetworkService.gI().sendMainCharInfo(this);
@@ -316,6 +346,7 @@ public class PlayerEntity extends LivingEntity {
         }
 
         potentialPoint -= value;
+        tracker.mark();
         recalculateStats();
     }
 
@@ -348,6 +379,7 @@ public class PlayerEntity extends LivingEntity {
         }
 
         skillPoint -= value;
+        tracker.mark();
         // Optional: recalc stats if passive
         if (skill.getType() == 2) {
             recalculateStats();
@@ -363,31 +395,59 @@ public class PlayerEntity extends LivingEntity {
             }
         }
         skillPoint = level;
+        tracker.mark();
         recalculateStats();
     }
 
     public void setLevelTo(int newLevel) {
         this.level = newLevel;
+        tracker.mark();
         experience = 0;
         resetSkill();
         resetPotentialPoints();
         hp = getMaxHp();
         mp = getMaxMp();
+        LeaderboardService.gI().onLevelChanged(this);
         zone.broadcast(player -> NetworkService.gI().sendLevelUp(player, this));
         NetworkService.gI().sendMainCharInfo(this);
     }
 
+    @Override
+    public void setLevel(int level) {
+        this.level = level;
+        tracker.mark();
+    }
+
+    @Override
+    public void setExperience(long experience) {
+        this.experience = experience;
+        tracker.mark();
+    }
+
+    public void setGold(long gold) {
+        this.gold = gold;
+        tracker.mark();
+    }
+
+    public void setGems(int gems) {
+        this.gems = gems;
+        tracker.mark();
+    }
+
     public void addGold(long amount) {
         this.gold += amount;
+        tracker.mark();
     }
 
     public void addGem(int amount) {
         this.gems += amount;
+        tracker.mark();
     }
 
     public boolean spendGold(long amount) {
         if (gold >= amount) {
             gold -= amount;
+            tracker.mark();
             return true;
         }
         return false;
@@ -396,6 +456,7 @@ public class PlayerEntity extends LivingEntity {
     public boolean spendGem(int amount) {
         if (gems >= amount) {
             gems -= amount;
+            tracker.mark();
             return true;
         }
         return false;
@@ -419,6 +480,7 @@ public class PlayerEntity extends LivingEntity {
         INT = 4;
 
         potentialPoint = totalFromLevel;
+        tracker.mark();
 
         recalculateStats();
     }
@@ -1,6 +1,7 @@
 package game.equipment;
 
 
+import database.DirtyTracker;
 import lombok.Getter;
 import lombok.Setter;
 import model.item.EquipmentItem;
@@ -17,6 +18,9 @@ public class PlayerEquipment {
     private int playerId;
     private EquipmentSlot[] items;
 
+    // Bumped by every equip/unequip, read by DataSaver
+    private final transient DirtyTracker tracker = new DirtyTracker();
+
     public PlayerEquipment() {
         this.items = new EquipmentSlot[EQUIPMENT_SLOTS];
         initSlots();
@@ -45,6 +49,7 @@ public class PlayerEquipment {
 
         EquipmentSlot slot = items[slotIdx];
         slot.set(item);
+        tracker.mark();
         return true;
     }
 
@@ -79,6 +84,7 @@ public class PlayerEquipment {
 
         EquipmentItem item = slot.getItem();
         slot.clear();
+        tracker.mark();
         return item;
     }
 
@@ -89,6 +95,7 @@ public class PlayerEquipment {
 
     public void unequipAll() {
         Arrays.stream(items).forEach(EquipmentSlot::clear);
+        tracker.mark();
     }
 
     public List<EquipmentItem> unequipAllAndReturn() {
@@ -99,6 +106,7 @@ public class PlayerEquipment {
                 slot.clear();
             }
         }
+        tracker.mark();
         return items;
     }
 
@@ -116,6 +124,7 @@ public class PlayerEquipment {
             slot.clear();
 
         }
+        tracker.mark();
         return items;
     }
 
@@ -1,5 +1,6 @@
 package game.friend;
 
+import database.DirtyTracker;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 
@@ -13,12 +14,17 @@ public class FriendList {
     private int id;
     private List<Integer> friends = new ArrayList<>();
 
+    private final transient DirtyTracker tracker = new DirtyTracker();
+
     public void add(int paramId) {
         friends.add(paramId);
+        tracker.mark();
     }
 
     public boolean remove(int paramId) {
-        return friends.removeIf(id -> id == paramId);
+        boolean removed = friends.removeIf(id -> id == paramId);
+        if (removed) tracker.mark();
+        return removed;
     }
 
     public boolean isFriend(int paramId) {
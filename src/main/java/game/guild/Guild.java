@@ -1,6 +1,8 @@
 package game.guild;
 
+import database.DirtyTracker;
 import database.SQL;
+import database.UnitOfWork;
 import game.entity.player.PlayerEntity;
 import game.inventory.GuildInventory;
 import lombok.Data;
@@ -37,6 +39,9 @@ public class Guild {
     private long createdAt;
     private transient GuildInventory inventory;
 
+    // Guild row version; the inventory carries its own
+    private final transient DirtyTracker tracker = new DirtyTracker();
+
     public Guild(String name, String shortName, PlayerEntity leader) {
         this.name = name;
         this.shortName = shortName;
@@ -45,6 +50,13 @@ public class Guild {
         this.createdAt = System.currentTimeMillis();
     }
 
+    /**
+     * Flags the guild row for the next save. Call after changing members, ranks or settings.
+     */
+    public void markDirty() {
+        tracker.mark();
+    }
+
     public boolean isFull() {
         return members.size() >= maxMembers;
     }
@@ -77,6 +89,7 @@ public class Guild {
     public void addExperience(int exp) {
         this.experience += exp;
         checkLevelUp();
+        tracker.mark();
     }
 
     public int getLevelPercent() {
@@ -185,15 +198,18 @@ public class Guild {
 
     public void addGold(long gold) {
         this.gold += gold;
+        tracker.mark();
     }
 
     public void addGem(int gem) {
         this.gem += gem;
+        tracker.mark();
     }
 
     public boolean spendGold(long amount) {
         if (gold >= amount) {
             gold -= amount;
+            tracker.mark();
             return true;
         }
         return false;
@@ -202,6 +218,7 @@ public class Guild {
     public boolean spendGem(int amount) {
         if (gem >= amount) {
             gem -= amount;
+            tracker.mark();
             return true;
         }
         return false;
@@ -220,6 +237,7 @@ public class Guild {
     public void createInventory() {
         inventory = new GuildInventory();
         inventory.setGuildId(id);
+        inventory.getTracker().mark();
         try {
 
             SQL.save(inventory);
@@ -229,16 +247,26 @@ public class Guild {
         }
     }
 
-    public void saveInventory() {
-        try {
-
-            SQL.update(inventory)
-                    .where("guildId", id)
-                    .execute();
+    /**
+     * Writes the guild row (members included) and its inventory, whichever changed, in one transaction.
+     */
+    public void save() {
+        UnitOfWork uow = new UnitOfWork();
+        if (tracker.isDirty()) {
+            uow.write(tracker, () -> SQL.save(this));
+        }
+        if (inventory != null && inventory.getTracker().isDirty()) {
+            uow.write(inventory.getTracker(), () -> SQL.update(inventory).where("guildId", id).execute());
+        }
 
-            log.debug("Inventory used {}", inventory.used());
+        try {
+            uow.commit();
+            if (!uow.isEmpty()) {
+                log.debug("Saved guild {} ({} writes), inventory used {}", id, uow.size(),
+                        inventory != null ? inventory.used() : 0);
+            }
         } catch (SQLException e) {
-            log.error("Failed save guild inventory for guild id {}", id, e);
+            log.error("Error saving guild {}", id, e);
         }
     }
 
@@ -114,6 +114,7 @@ public class GuildManager {
         );
 
         guild.getMembers().add(newMember);
+        guild.markDirty();
         playerGuildMap.put(player.getId(), guildId);
 
         log.debug("Player {} joined guild {}", player.getName(), guild.getName());
@@ -141,6 +142,7 @@ public class GuildManager {
         }
 
         guild.getMembers().remove(target);
+        guild.markDirty();
         playerGuildMap.remove(targetPlayerId);
 
         log.debug("Player {} kicked from guild {}", target.getPlayerName(), guild.getName());
@@ -159,6 +161,7 @@ public class GuildManager {
 
         GuildMember member = guild.getMember(player.getId());
         guild.getMembers().remove(member);
+        guild.markDirty();
         playerGuildMap.remove(player.getId());
 
         log.debug("Player {} left guild {}", player.getName(), guild.getName());
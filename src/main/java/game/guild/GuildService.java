@@ -1,6 +1,8 @@
 package game.guild;
 
 
+import database.DirtyTracker;
+import database.EconomyAudit;
 import database.SQL;
 import game.entity.player.PlayerEntity;
 import handler.Command;
@@ -56,6 +58,7 @@ public class GuildService {
         }
 
         target.setRank(newRank);
+        guild.markDirty();
         log.debug("Player {} promoted to {} in guild {}",
                 target.getPlayerName(), newRank, guild.getName());
 
@@ -86,6 +89,7 @@ public class GuildService {
         }
 
         target.setRank(newRank);
+        guild.markDirty();
         log.info("Player {} demoted to {} in guild {}",
                 target.getPlayerName(), newRank, guild.getName());
 
@@ -112,6 +116,7 @@ public class GuildService {
         target.setRank(GuildRank.LEADER);
 
         guild.setLeader(targetPlayerId);
+        guild.markDirty();
 
         log.debug("Guild {} leadership transferred from {} to {}",
                 guild.getName(), leader.getName(), target.getPlayerName());
@@ -130,7 +135,8 @@ public class GuildService {
         }
 
         player.spendGold(amount);
-        guild.setGold(guild.getGold() + amount);
+        guild.addGold(amount);
+        EconomyAudit.gI().gold(player, -amount, EconomyAudit.Reason.GUILD_DEPOSIT, guild.getId());
 
         GuildMember member = guild.getMember(player.getId());
         member.addContribution((int) (amount / 100));
@@ -156,8 +162,9 @@ public class GuildService {
             return GuildResult.INSUFFICIENT_FUNDS;
         }
 
-        guild.setGold(guild.getGold() - amount);
+        guild.spendGold(amount);
         player.addGold(amount);
+        EconomyAudit.gI().gold(player, amount, EconomyAudit.Reason.GUILD_WITHDRAW, guild.getId());
 
         log.info("Player {} withdrew {} gold from guild {}",
                 player.getName(), amount, guild.getName());
@@ -177,6 +184,7 @@ public class GuildService {
         }
 
         guild.setRules(newRules);
+        guild.markDirty();
         log.info("Guild {} rules updated by {}", guild.getName(), player.getName());
 
         return GuildResult.SUCCESS;
@@ -194,6 +202,7 @@ public class GuildService {
         }
 
         guild.setSlogan(newSlogan);
+        guild.markDirty();
         log.info("Guild {} slogan updated by {}", guild.getName(), player.getName());
 
         return GuildResult.SUCCESS;
@@ -337,21 +346,17 @@ public class GuildService {
     }
 
     public void save() {
-        GuildManager.getInstance().getGuilds().forEach(
-                (integer, guild) -> {
-                    guild.saveInventory();
-                    try {
-                        SQL.save(guild);
-                    } catch (SQLException e) {
-                        log.error("Error saving guild", e);
-                    }
-                }
-        );
+        GuildManager.getInstance().getGuilds().forEach((integer, guild) -> guild.save());
 
         GuildManager.getInstance().getGuildCrystalMap().forEach(
                 (mapId, mine) -> {
+                    DirtyTracker tracker = mine.getTracker();
+                    if (!tracker.isDirty()) return;
+
+                    long version = tracker.version();
                     try {
                         SQL.save(mine);
+                        tracker.saved(version);
                     } catch (SQLException ignore) {
                     }
                 }
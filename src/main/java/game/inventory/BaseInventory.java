@@ -1,6 +1,7 @@
 package game.inventory;
 
 
+import database.DirtyTracker;
 import lombok.Getter;
 import lombok.Setter;
 import model.item.BaseItem;
@@ -16,6 +17,9 @@ public abstract class BaseInventory {
     protected int capacity;
     protected InventorySlot[] items;
 
+    // Bumped by every add/remove, read by DataSaver
+    private final transient DirtyTracker tracker = new DirtyTracker();
+
     public BaseInventory() {
         this(126);
     }
@@ -51,6 +55,7 @@ public abstract class BaseInventory {
     public boolean add(BaseItem item, int amt) {
         if (item == null || amt <= 0) return false;
 
+        tracker.mark();
         ItemCategory category = item.getCategory();
         return category.isStackable()
                 ? addStackable(item, amt, category.getMaxStack())
@@ -113,10 +118,12 @@ public abstract class BaseInventory {
 
         int removed = s.getAmount();
         s.clear();
+        tracker.mark();
         return removed;
     }
 
     public int removeById(int itemId, int amt) {
+        tracker.mark();
         int remaining = amt;
 
         for (int i = 0; i < capacity && remaining > 0; i++) {
@@ -137,6 +144,7 @@ public abstract class BaseInventory {
     }
 
     public int removeByIdAndCategory(int itemId, int amt, ItemCategory category) {
+        tracker.mark();
         int remaining = amt;
 
         for (int i = 0; i < capacity && remaining > 0; i++) {
@@ -162,6 +170,7 @@ public abstract class BaseInventory {
 
     public void clear() {
         Arrays.stream(items).forEach(InventorySlot::clear);
+        tracker.mark();
     }
 
     // ==================== QUERY ====================
@@ -1,5 +1,10 @@
 package game.inventory;
 
+import database.DatabaseExecutor;
+import database.EconomyAudit;
+import database.Lane;
+import database.UnitOfWork;
+import database.repositories.InventoryRepository;
 import game.entity.player.PlayerEntity;
 import game.equipment.EquipType;
 import game.equipment.PlayerEquipment;
@@ -15,11 +20,16 @@ import service.InventoryService;
 import service.NetworkService;
 
 import java.io.IOException;
+import java.sql.SQLException;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Slf4j
 public class InventoryManager {
+    private static final InventoryRepository repository = new InventoryRepository();
+
     private final PlayerEntity player;
 
     @Getter
@@ -28,55 +38,133 @@ public class InventoryManager {
     @Getter
     private PlayerInventory inventory;
 
+    /**
+     * The player's own storage, or null until something needs it (see {@link #ensureStorage()}).
+     * Save paths read this getter, so a storage that was never loaded is never written back.
+     */
     @Getter
-    private PlayerInventory storage;
+    private volatile PlayerInventory storage;
 
-    @Getter
+    // Guild storage while one is open; null means the player's own storage
     private BaseInventory activeStorage;
 
+    // In-flight storage read, shared by prefetch and first use; guarded by `this`
+    private CompletableFuture<PlayerInventory> storageLoad;
+
 
     public InventoryManager(PlayerEntity player) {
         this.player = player;
-        load();
+        load(InventoryService.gI().findEquipmentById(player.getId()),
+                InventoryService.gI().findInventoryById(player.getId()));
+    }
+
+    /**
+     * Builds from rows that were already loaded (see {@link service.CharacterLoader}); null rows
+     * are created fresh. Storage is not part of login and loads on first use.
+     */
+    public InventoryManager(PlayerEntity player, PlayerEquipment equipment, PlayerInventory bag) {
+        this.player = player;
+        load(equipment, bag);
     }
 
-    private void load() {
+    private void load(PlayerEquipment equipment, PlayerInventory bag) {
         // Load equipment
-        PlayerEquipment equipment = InventoryService.gI().findEquipmentById(player.getId());
         if (equipment == null) {
             wearing = new PlayerEquipment();
             wearing.setPlayerId(player.getId());
+            wearing.getTracker().mark();
             log.info("Load equipment failed, creating new");
         } else {
             wearing = equipment;
         }
 
         // Load inventory
-        PlayerInventory bag = InventoryService.gI().findInventoryById(player.getId());
         if (bag == null) {
             inventory = new PlayerInventory(126);
             inventory.setPlayerId(player.getId());
+            inventory.getTracker().mark();
             log.info("Load inventory failed");
         } else {
             inventory = bag;
         }
+    }
 
-        // Load storage
-        PlayerInventory box = InventoryService.gI().findStorageById(player.getId());
-        if (box == null) {
-            storage = new PlayerInventory(126);
-            storage.setPlayerId(player.getId());
-            log.info("Load storage failed");
-        } else {
-            storage = box;
+    // ==================== STORAGE ====================
+
+    /**
+     * Starts reading the storage row in the background, e.g. when the player comes near the
+     * storage NPC, so opening it later does not wait on the database. Safe to call repeatedly.
+     */
+    public synchronized CompletableFuture<PlayerInventory> prefetchStorage() {
+        PlayerInventory loaded = storage;
+        if (loaded != null) return CompletableFuture.completedFuture(loaded);
+
+        if (storageLoad == null) {
+            int playerId = player.getId();
+            storageLoad = DatabaseExecutor.gI().supply(Lane.INTERACTIVE, () -> repository.findStorageById(playerId));
+        }
+        return storageLoad;
+    }
+
+    /**
+     * The player's storage, loading it on first use; a player without a storage row gets a new
+     * one. Blocks the calling session until the row is read.
+     *
+     * @return the storage, or null when it could not be read (retried on the next call)
+     */
+    public PlayerInventory ensureStorage() {
+        PlayerInventory loaded = storage;
+        if (loaded != null) return loaded;
+
+        PlayerInventory row;
+        try {
+            // Database workers read inline rather than wait on a task that may need their thread
+            row = DatabaseExecutor.isWorkerThread()
+                    ? repository.findStorageById(player.getId())
+                    : prefetchStorage().join();
+        } catch (SQLException | CompletionException e) {
+            log.error("ensureStorage() Failed: {}", e.getMessage());
+            synchronized (this) {
+                storageLoad = null;
+            }
+            // Never fall back to an empty storage here: it would be saved over the real one
+            return null;
         }
 
-        activeStorage = storage;
+        synchronized (this) {
+            if (storage == null) {
+                if (row == null) {
+                    row = new PlayerInventory(126);
+                    row.setPlayerId(player.getId());
+                    row.getTracker().mark();
+                    log.info("No storage for player {}, creating new", player.getId());
+                }
+                storage = row;
+            }
+            storageLoad = null;
+            return storage;
+        }
     }
 
+    /**
+     * The open storage: a guild storage, or the player's own one (loaded on demand).
+     */
+    public BaseInventory getActiveStorage() {
+        BaseInventory active = activeStorage;
+        return active != null ? active : ensureStorage();
+    }
 
-    public void openPlayerStorage() {
-        activeStorage = storage;
+    /**
+     * Switches back to the player's own storage.
+     *
+     * @return false when the storage could not be loaded; the player has been told
+     */
+    public boolean openPlayerStorage() {
+        activeStorage = null;
+        if (ensureStorage() != null) return true;
+
+        NetworkService.gI().sendNoticeBox(player.getSession(), "Storage tidak dapat dibuka, coba lagi nanti");
+        return false;
     }
 
     public void openGuildStorage(GuildInventory guildInv) {
@@ -181,7 +269,8 @@ public class InventoryManager {
     }
 
     public void addToStorage(BaseItem item, int quantity) {
-        activeStorage.add(item, quantity);
+        BaseInventory box = getActiveStorage();
+        if (box != null) box.add(item, quantity);
     }
 
     public void remove(int slotIndex) {
@@ -193,11 +282,13 @@ public class InventoryManager {
     }
 
     public void removeStorageSlot(int slotIndex) {
-        activeStorage.remove(slotIndex);
+        BaseInventory box = getActiveStorage();
+        if (box != null) box.remove(slotIndex);
     }
 
     public void removeStorageById(int itemId, int quantity) {
-        activeStorage.removeById(itemId, quantity);
+        BaseInventory box = getActiveStorage();
+        if (box != null) box.removeById(itemId, quantity);
     }
 
     public int countInBag(int itemId) {
@@ -205,7 +296,8 @@ public class InventoryManager {
     }
 
     public int countInStorage(int itemId) {
-        return activeStorage.count(itemId);
+        BaseInventory box = getActiveStorage();
+        return box != null ? box.count(itemId) : 0;
     }
 
     public int totalCount(int itemId) {
@@ -217,7 +309,7 @@ public class InventoryManager {
     }
 
     public boolean hasStorageSpace() {
-        return activeStorage.available() > 0;
+        return getStorageSpace() > 0;
     }
 
     public int getBagSpace() {
@@ -225,7 +317,8 @@ public class InventoryManager {
     }
 
     public int getStorageSpace() {
-        return activeStorage.available();
+        BaseInventory box = getActiveStorage();
+        return box != null ? box.available() : 0;
     }
 
     public InventorySlot getSlot(int index) {
@@ -238,6 +331,9 @@ public class InventoryManager {
     public boolean moveToBag(int id, int quantity, ItemCategory category) {
         if (!hasBagSpace()) return false;
 
+        BaseInventory activeStorage = getActiveStorage();
+        if (activeStorage == null) return false;
+
         if (category == ItemCategory.EQUIPMENT) {
             InventorySlot slot = activeStorage.slot(id);
             if (slot == null || slot.isEmpty()) return false;
@@ -281,6 +377,8 @@ public class InventoryManager {
     public boolean moveToBox(int id, int quantity, ItemCategory category) {
         if (!hasStorageSpace()) return false;
 
+        BaseInventory activeStorage = getActiveStorage();
+
         if (category == ItemCategory.EQUIPMENT) {
             InventorySlot slot = inventory.slot(id);
             if (slot == null || slot.isEmpty()) return false;
@@ -323,7 +421,11 @@ public class InventoryManager {
 
     // ==================== NETWORK MESSAGES ====================
 
+    // Client sync points double as dirty marks: handlers that edit slots or items in place
+    // (upgrade, stack decrease) always finish by pushing the container to the client.
+
     public void broadcastWearing() {
+        wearing.getTracker().mark();
         player.getZone().broadcast(notify -> NetworkService.gI().sendWearing(notify, player));
         player.getZone().broadcast(notify -> NetworkService.gI().sendCharInfo(notify, player));
     }
@@ -341,6 +443,7 @@ public class InventoryManager {
     }
 
     private void sendInventoryUpdate(int type) {
+        inventory.getTracker().mark();
         switch (type) {
             case 3 -> sendEquipmentInventory();
             case 4 -> sendPotionInventory();
@@ -440,14 +543,18 @@ public class InventoryManager {
     }
 
     public void sendStorageUpdate(int type) {
+        BaseInventory activeStorage = getActiveStorage();
+        if (activeStorage == null) return;
+
+        activeStorage.getTracker().mark();
         switch (type) {
-            case 3 -> sendEquipmentStorage();
-            case 4 -> sendPotionStorage();
-            case 7 -> sendMaterialStorage();
+            case 3 -> sendEquipmentStorage(activeStorage);
+            case 4 -> sendMaterialTypeStorage(activeStorage, 4);
+            case 7 -> sendMaterialTypeStorage(activeStorage, 7);
         }
     }
 
-    private void sendEquipmentStorage() {
+    private void sendEquipmentStorage(BaseInventory activeStorage) {
         try {
             Message m = new Message(65);
             m.out().writeByte(126);
@@ -507,15 +614,7 @@ public class InventoryManager {
         }
     }
 
-    private void sendPotionStorage() {
-        sendMaterialTypeStorage(4);
-    }
-
-    private void sendMaterialStorage() {
-        sendMaterialTypeStorage(7);
-    }
-
-    private void sendMaterialTypeStorage(int type) {
+    private void sendMaterialTypeStorage(BaseInventory activeStorage, int type) {
         try {
             Message m = new Message(65);
             m.out().writeByte(126);
@@ -546,6 +645,12 @@ public class InventoryManager {
 
         if (quantity <= 0) return;
 
+        BaseInventory activeStorage = getActiveStorage();
+        if (activeStorage == null) {
+            NetworkService.gI().sendNoticeBox(player.getSession(), "Storage tidak dapat dibuka, coba lagi nanti");
+            return;
+        }
+
         if (type == -1) {
             sendStorageUpdate(3);
             sendStorageUpdate(4);
@@ -586,6 +691,7 @@ public class InventoryManager {
                         if (member == null) return;
 
                         guild.donateItem(member, item, quantity);
+                        EconomyAudit.gI().item(player, item, -quantity, EconomyAudit.Reason.GUILD_STORAGE_DONATE, guild.getId());
                     }
 
                     sendInventoryUpdate(category.getValue());
@@ -627,22 +733,66 @@ public class InventoryManager {
                         player.sendMessageDialog(String.format("Dibutuhkan %s point kontribusi untuk menerima item ini", cost));
                         return;
                     }
+                    guild.markDirty();
                 }
 
             }
 
+            InventorySlot source = category == ItemCategory.EQUIPMENT
+                    ? activeStorage.slot(id)
+                    : activeStorage.findSlot(id, category).orElse(null);
+            BaseItem taken = source != null ? source.getItem() : null;
             if (moveToBag(id, quantity, category)) {
+                if (activeStorage instanceof GuildInventory) {
+                    Guild guild = GuildManager.getInstance().getPlayerGuild(player.getId());
+                    EconomyAudit.gI().item(player, taken, category == ItemCategory.EQUIPMENT ? 1 : quantity,
+                            EconomyAudit.Reason.GUILD_STORAGE_TAKE, guild != null ? guild.getId() : 0);
+                }
                 sendInventoryUpdate(category.getValue());
                 sendStorageUpdate(category.getValue());
             }
         }
     }
 
+    /**
+     * Writes equipment, bag and (when loaded) storage unconditionally, in one transaction.
+     */
     public void save() {
-        InventoryService service = InventoryService.gI();
-        service.updateEquipment(wearing);
-        service.updateInventory(inventory);
-        service.updateStorage(storage);
+        flush(true);
+    }
+
+    /**
+     * Writes the containers whose version moved since their last save (or all of them when
+     * forced) in one transaction.
+     *
+     * @return number of containers written
+     */
+    public int flush(boolean force) {
+        UnitOfWork uow = new UnitOfWork();
+        collect(uow, force);
+        try {
+            uow.commit();
+            return uow.size();
+        } catch (SQLException e) {
+            log.error("flush() Failed: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Adds the container writes to a player's unit of work.
+     */
+    public void collect(UnitOfWork uow, boolean force) {
+        if (force || wearing.getTracker().isDirty()) {
+            uow.write(wearing.getTracker(), () -> repository.updateEquipment(wearing));
+        }
+        if (force || inventory.getTracker().isDirty()) {
+            uow.write(inventory.getTracker(), () -> repository.updateInventory(inventory));
+        }
+        PlayerInventory box = storage;
+        if (box != null && (force || box.getTracker().isDirty())) {
+            uow.write(box.getTracker(), () -> repository.updateStorage(box));
+        }
     }
 
     public void handleEquipment(Message m2) throws IOException {
@@ -674,7 +824,10 @@ public class InventoryManager {
     }
 
     public void clearStorage() {
-        storage.clear();
+        PlayerInventory box = ensureStorage();
+        if (box == null) return;
+
+        box.clear();
         sendStorageUpdate(3);
         sendStorageUpdate(4);
         sendStorageUpdate(7);
@@ -0,0 +1,413 @@
+package game.inventory;
+
+import game.equipment.EquipmentSlot;
+import lombok.extern.slf4j.Slf4j;
+import manager.ItemManager;
+import model.ColumnCodec;
+import model.ModelMapper;
+import model.item.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Compact binary format for the inventory, storage and equipment columns.
+ * <p>
+ * Layout (version 1). Integers are LEB128 varints, signed values zigzag-encoded:
+ * <pre>
+ *   version, capacity, occupied
+ *   per occupied slot: slot, category, id, amount, [equipment fields]
+ *   equipment: icon, type, part, level, color, role, flags, grade, plus,
+ *              timeUse, expireDate, [options], [gem], [name]
+ * </pre>
+ * Empty slots cost nothing. Equipment keeps every per-instance field and only stores its name
+ * when it differs from the template; potions and materials resolve to their shared template,
+ * exactly like items handed out at runtime.
+ * <p>
+ * The bytes are written as a Base64 JSON string literal, so the column stays valid for TEXT and
+ * JSON column types. Legacy rows are JSON arrays and still load through Gson; they are written
+ * back in this format on the next save.
+ */
+@Slf4j
+public final class ItemCodec {
+
+    public static final int VERSION = 1;
+
+    private static final int FLAG_LOCK = 1;
+    private static final int FLAG_OPTIONS = 1 << 1;
+    private static final int FLAG_GEM = 1 << 2;
+    private static final int FLAG_NAME = 1 << 3;
+
+    public static final ColumnCodec<InventorySlot[]> INVENTORY = new ColumnCodec<>() {
+        @Override
+        public boolean canDecode(String raw) {
+            return isBinary(raw);
+        }
+
+        @Override
+        public String encode(InventorySlot[] value) {
+            return wrap(encodeInventory(value));
+        }
+
+        @Override
+        public InventorySlot[] decode(String raw) {
+            return decodeInventory(unwrap(raw));
+        }
+    };
+
+    public static final ColumnCodec<EquipmentSlot[]> EQUIPMENT = new ColumnCodec<>() {
+        @Override
+        public boolean canDecode(String raw) {
+            return isBinary(raw);
+        }
+
+        @Override
+        public String encode(EquipmentSlot[] value) {
+            return wrap(encodeEquipment(value));
+        }
+
+        @Override
+        public EquipmentSlot[] decode(String raw) {
+            return decodeEquipment(unwrap(raw));
+        }
+    };
+
+    private ItemCodec() {
+    }
+
+    /**
+     * Routes the slot array columns through this codec. Call once at startup, after the
+     * polymorphic item types are registered (legacy JSON rows still need them).
+     */
+    public static void register() {
+        ModelMapper.registerColumnCodec(InventorySlot[].class, INVENTORY);
+        ModelMapper.registerColumnCodec(EquipmentSlot[].class, EQUIPMENT);
+    }
+
+    // ==================== INVENTORY ====================
+
+    public static byte[] encodeInventory(InventorySlot[] slots) {
+        Writer out = new Writer(64);
+        out.varint(VERSION);
+        out.varint(slots.length);
+        out.varint(countOccupied(slots));
+
+        for (int i = 0; i < slots.length; i++) {
+            InventorySlot slot = slots[i];
+            if (slot == null || slot.isEmpty()) continue;
+
+            BaseItem item = slot.getItem();
+            out.varint(i);
+            out.varint(item.getCategory().getValue());
+            out.varint(item.getId());
+            out.varint(slot.getAmount());
+            if (item instanceof EquipmentItem equipment) {
+                writeEquipment(out, equipment);
+            }
+        }
+        return out.toByteArray();
+    }
+
+    public static InventorySlot[] decodeInventory(byte[] data) {
+        Reader in = new Reader(data);
+        checkVersion(in.varint());
+
+        int capacity = in.varint();
+        InventorySlot[] slots = new InventorySlot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new InventorySlot();
+        }
+
+        int occupied = in.varint();
+        for (int n = 0; n < occupied; n++) {
+            int index = checkIndex(in.varint(), capacity);
+            ItemCategory category = ItemCategory.fromValue(in.varint());
+            int id = in.varint();
+            int amount = in.varint();
+
+            BaseItem item;
+            if (category == ItemCategory.EQUIPMENT) {
+                item = readEquipment(in, id);
+            } else if (category == ItemCategory.POTION) {
+                item = potion(id);
+            } else if (category == ItemCategory.MATERIAL) {
+                item = material(id);
+            } else {
+                throw new IllegalStateException("Unknown item category in slot " + index);
+            }
+            slots[index].set(item, amount);
+        }
+        return slots;
+    }
+
+    private static int countOccupied(InventorySlot[] slots) {
+        int count = 0;
+        for (InventorySlot slot : slots) {
+            if (slot != null && !slot.isEmpty()) count++;
+        }
+        return count;
+    }
+
+    // ==================== EQUIPMENT ====================
+
+    public static byte[] encodeEquipment(EquipmentSlot[] slots) {
+        int occupied = 0;
+        for (EquipmentSlot slot : slots) {
+            if (slot != null && !slot.isEmpty()) occupied++;
+        }
+
+        Writer out = new Writer(64);
+        out.varint(VERSION);
+        out.varint(slots.length);
+        out.varint(occupied);
+
+        for (int i = 0; i < slots.length; i++) {
+            EquipmentSlot slot = slots[i];
+            if (slot == null || slot.isEmpty()) continue;
+
+            out.varint(i);
+            out.varint(slot.getItem().getId());
+            writeEquipment(out, slot.getItem());
+        }
+        return out.toByteArray();
+    }
+
+    public static EquipmentSlot[] decodeEquipment(byte[] data) {
+        Reader in = new Reader(data);
+        checkVersion(in.varint());
+
+        int capacity = in.varint();
+        EquipmentSlot[] slots = new EquipmentSlot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new EquipmentSlot(i);
+        }
+
+        int occupied = in.varint();
+        for (int n = 0; n < occupied; n++) {
+            int index = checkIndex(in.varint(), capacity);
+            int id = in.varint();
+            slots[index].set(readEquipment(in, id));
+        }
+        return slots;
+    }
+
+    // ==================== ITEMS ====================
+
+    private static void writeEquipment(Writer out, EquipmentItem item) {
+        EquipmentItem template = ItemManager.getInstance().getEquipmentTemplate(item.getId());
+        boolean customName = item.getName() != null
+                && (template == null || !item.getName().equals(template.getName()));
+
+        int flags = 0;
+        if (item.isLock()) flags |= FLAG_LOCK;
+        if (item.getOption() != null) flags |= FLAG_OPTIONS;
+        if (item.getGem() != null) flags |= FLAG_GEM;
+        if (customName) flags |= FLAG_NAME;
+
+        out.varint(item.getIcon());
+        out.varint(item.getType());
+        out.varint(item.getPart());
+        out.varint(item.getLevel());
+        out.varint(item.getColor());
+        out.varint(item.getRole());
+        out.varint(flags);
+        out.write(item.getGrade());
+        out.write(item.getPlus());
+        out.zigzag(item.getTimeUse());
+        out.zigzag(item.getExpireDate());
+
+        if (item.getOption() != null) {
+            out.varint(item.getOption().size());
+            for (Option option : item.getOption()) {
+                out.varint(option.getId());
+                out.zigzag(option.getValue());
+            }
+        }
+        if (item.getGem() != null) {
+            out.varint(item.getGem().length);
+            out.write(item.getGem());
+        }
+        if (customName) {
+            out.string(item.getName());
+        }
+    }
+
+    private static EquipmentItem readEquipment(Reader in, int id) {
+        EquipmentItem item = new EquipmentItem();
+        item.setId(id);
+        item.setIcon(in.varint());
+        item.setType(in.varint());
+        item.setPart(in.varint());
+        item.setLevel(in.varint());
+        item.setColor(in.varint());
+        item.setRole(in.varint());
+        int flags = in.varint();
+        item.setGrade(in.read());
+        item.setPlus(in.read());
+        item.setTimeUse(in.zigzag());
+        item.setExpireDate(in.zigzag());
+        item.setLock((flags & FLAG_LOCK) != 0);
+
+        if ((flags & FLAG_OPTIONS) != 0) {
+            int count = in.varint();
+            List<Option> options = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                options.add(new Option(in.varint(), in.zigzag()));
+            }
+            item.setOption(options);
+        }
+        item.setGem((flags & FLAG_GEM) != 0 ? in.bytes(in.varint()) : null);
+
+        if ((flags & FLAG_NAME) != 0) {
+            item.setName(in.string());
+        } else {
+            EquipmentItem template = ItemManager.getInstance().getEquipmentTemplate(id);
+            item.setName(template != null ? template.getName() : null);
+        }
+        return item;
+    }
+
+    // Unknown ids keep a bare item so the slot survives until the template is back
+    private static PotionItem potion(int id) {
+        PotionItem item = ItemManager.getInstance().getPotion(id);
+        if (item == null) {
+            log.warn("Unknown potion {} in saved inventory", id);
+            item = new PotionItem();
+            item.setId(id);
+        }
+        return item;
+    }
+
+    private static MaterialItem material(int id) {
+        MaterialItem item = ItemManager.getInstance().getMaterial(id);
+        if (item == null) {
+            log.warn("Unknown material {} in saved inventory", id);
+            item = new MaterialItem();
+            item.setId(id);
+        }
+        return item;
+    }
+
+    // ==================== FORMAT ====================
+
+    private static boolean isBinary(String raw) {
+        return raw.length() >= 2 && raw.charAt(0) == '"';
+    }
+
+    private static String wrap(byte[] data) {
+        return '"' + Base64.getEncoder().encodeToString(data) + '"';
+    }
+
+    private static byte[] unwrap(String raw) {
+        return Base64.getDecoder().decode(raw.substring(1, raw.length() - 1));
+    }
+
+    private static void checkVersion(int version) {
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported item format version " + version);
+        }
+    }
+
+    private static int checkIndex(int index, int capacity) {
+        if (index < 0 || index >= capacity) {
+            throw new IllegalStateException("Slot " + index + " out of range " + capacity);
+        }
+        return index;
+    }
+
+    private static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        Writer(int initialSize) {
+            this.buf = new byte[initialSize];
+        }
+
+        private void ensure(int extra) {
+            if (pos + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+            }
+        }
+
+        void write(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void write(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        void varint(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        void zigzag(int value) {
+            varint((value << 1) ^ (value >> 31));
+        }
+
+        void string(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            write(bytes);
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf) {
+            this.buf = buf;
+        }
+
+        byte read() {
+            if (pos >= buf.length) {
+                throw new IllegalStateException("Truncated item data");
+            }
+            return buf[pos++];
+        }
+
+        byte[] bytes(int length) {
+            if (length < 0 || pos + length > buf.length) {
+                throw new IllegalStateException("Truncated item data");
+            }
+            byte[] result = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return result;
+        }
+
+        int varint() {
+            int result = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                byte b = read();
+                result |= (b & 0x7F) << shift;
+                if (b >= 0) return result;
+            }
+            throw new IllegalStateException("Malformed varint");
+        }
+
+        int zigzag() {
+            int raw = varint();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        String string() {
+            return new String(bytes(varint()), StandardCharsets.UTF_8);
+        }
+    }
+}
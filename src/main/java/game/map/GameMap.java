@@ -17,6 +17,7 @@ import model.player.Player;
 import service.PlayerService;
 
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -42,10 +43,14 @@ public class GameMap {
     private PathFinding pathFinding;
 
     public GameMap(int id, MapData mapData) {
+        this(id, mapData, null);
+    }
+
+    public GameMap(int id, MapData mapData, BitSet walkable) {
         this.id = id;
         this.mapData = mapData;
         zones.put(0, createZone(0));
-        pathFinding = new PathFinding(mapData.getTileData());
+        pathFinding = new PathFinding(mapData.getTileData(), walkable);
     }
 
     public Zone assignZone(PlayerEntity player) {
@@ -184,6 +189,16 @@ public class GameMap {
                 .orElse(null);
     }
 
+    public boolean hasNpc(int npcId) {
+        List<Point> npcs = mapData.getNpc();
+        if (npcs == null) return false;
+
+        for (Point npc : npcs) {
+            if (npc.getId() == npcId) return true;
+        }
+        return false;
+    }
+
     private boolean inRange(int x1, int y1, int x2, int y2) {
         return Math.abs(x1 - x2) < WARP_RANGE && Math.abs(y1 - y2) < WARP_RANGE;
     }
@@ -24,30 +24,51 @@ public class PathFinding {
     private AStar aStar;
 
     public PathFinding(TileData tileData) {
+        this(tileData, null);
+    }
+
+    /**
+     * @param walkable prebuilt mask from {@link #walkableMask(TileData)} (e.g. from the content
+     *                 bundle), or null to derive it from the tiles
+     */
+    public PathFinding(TileData tileData, BitSet walkable) {
         this.tileId = tileData.getImageId();
         this.mapWidth = tileData.getWidth();
         this.mapHeight = tileData.getHeight();
         this.tiles = tileData.getData();
-        setup();
+        setup(walkable != null ? walkable : walkableMask(tileData));
     }
 
-    private void setup() {
+    private void setup(BitSet walkable) {
         grid = new Grid(mapWidth, mapHeight);
         for (int y = 0; y < mapHeight; y++) {
             for (int x = 0; x < mapWidth; x++) {
-                grid.setWalkable(x, y, isWalkable(x, y));
+                grid.setWalkable(x, y, walkable.get(getIndex(x, y)));
             }
         }
         aStar = new AStar();
     }
 
-    private int getIndex(int x, int y) {
-        return y * mapWidth + x;
+    /**
+     * Walkable cells of a map, indexed {@code y * width + x}.
+     */
+    public static BitSet walkableMask(TileData tileData) {
+        int width = tileData.getWidth();
+        int height = tileData.getHeight();
+        byte[] tiles = tileData.getData();
+        int blockTile = getBlockTile(tileData.getImageId());
+
+        BitSet mask = new BitSet(width * height);
+        for (int i = 0; i < width * height; i++) {
+            if (!(tiles[i] >= blockTile || tiles[i] == 0)) {
+                mask.set(i);
+            }
+        }
+        return mask;
     }
 
-    private boolean isWalkable(int x, int y) {
-        if (x < 0 || x >= mapWidth || y < 0 || y >= mapHeight) return false;
-        return !(tiles[getIndex(x, y)] >= getBlockTile() || tiles[getIndex(x, y)] == 0);
+    private int getIndex(int x, int y) {
+        return y * mapWidth + x;
     }
 
     public boolean isReachable(Position start, Position target) {
@@ -58,7 +79,7 @@ public class PathFinding {
         return aStar.search(start.getTileX(), start.getTileY(), target.getTileX(), target.getTileY(), grid, true);
     }
 
-    private int getBlockTile() {
+    private static int getBlockTile(int tileId) {
         if (tileId < 0 || tileId > BLOCK_LIST.length) return -1;
         return BLOCK_LIST[tileId];
     }
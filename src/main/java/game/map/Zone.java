@@ -16,6 +16,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -386,6 +387,27 @@ public class Zone {
         }
     }
 
+    /**
+     * Same as {@link #broadcast(Consumer)} but passes {@code arg} through, so hot paths can use a
+     * non-capturing lambda and iterate the live player map without allocating a snapshot.
+     * {@code arg} is only used during the call.
+     */
+    public <T> void broadcast(BiConsumer<PlayerEntity, T> action, T arg) {
+        if (action == null) return;
+
+        for (PlayerEntity p : players.values()) {
+            if (!p.isOnline()) continue;
+            if (p.isModeBot()) continue;
+            if (p.getZone() != this) continue; // Player left zone during broadcast
+
+            try {
+                action.accept(p, arg);
+            } catch (Exception e) {
+                log.error("Error broadcasting to player {}: {}", p.getId(), e.getMessage(), e);
+            }
+        }
+    }
+
     public void broadcastExcept(PlayerEntity except, Consumer<PlayerEntity> action) {
         if (action == null) return;
 
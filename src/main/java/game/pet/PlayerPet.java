@@ -1,5 +1,6 @@
 package game.pet;
 
+import database.DirtyTracker;
 import lombok.Data;
 
 import java.util.ArrayList;
@@ -10,8 +11,16 @@ public class PlayerPet {
     private int playerId;
     private List<Pet> pets = new ArrayList<>();
 
+    // Bumped on any pet change (hatch, feed, follow), read by DataSaver
+    private final transient DirtyTracker tracker = new DirtyTracker();
+
     public void addPet(Pet pet) {
         pets.add(pet);
+        tracker.mark();
+    }
+
+    public void markDirty() {
+        tracker.mark();
     }
 
     public Pet getPet(int id) {
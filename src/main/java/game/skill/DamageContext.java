@@ -2,22 +2,29 @@ package game.skill;
 
 import game.entity.DamageType;
 import game.entity.base.LivingEntity;
-import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Context object for damage calculations and combat events
  * Contains all information about a damage instance from start to finish
+ * <p>
+ * Instances used by the combat pipeline are pooled per thread (see {@link #acquire}) and are
+ * only valid until {@link #release()}. Anything that has to outlive the hit must take a
+ * {@link #copy()} first.
  */
 
 @Getter
 @Setter
 public class DamageContext {
+    /** Max damage effects per hit (normal, pen, crit, lifesteal, manasteal, reflect + spare) */
+    public static final int MAX_EFFECTS = 8;
+
+    private static final ThreadLocal<Pool> POOL = ThreadLocal.withInitial(Pool::new);
+
     /** Entity dealing the damage */
     private LivingEntity attacker;
 
@@ -41,21 +48,30 @@ public class DamageContext {
     private int defenderHpBeforeHit;
 
     /** Whether the attack was a critical hit, penetration, evade, etc.. put each separate damage here
-     * DamageEffect(idEffect, damageEffect)
+     * (idEffect, damageEffect) pairs stored side by side
      * */
-    private List<DamageEffect> effect = new ArrayList<>();
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final int[] effectIds = new int[MAX_EFFECTS];
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private final int[] effectDamages = new int[MAX_EFFECTS];
+    @Setter(AccessLevel.NONE)
+    private int effectCount;
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private boolean pooled;
 
 
+    private DamageContext() {
+    }
+
     /**
      * Create damage context with initial values
      */
     public DamageContext(LivingEntity attacker, LivingEntity defender, int damage, DamageType type) {
-
-        this.attacker = attacker;
-        this.defender = defender;
-        this.damage = damage;
-        this.finalDamage = damage; // Initialize final damage same as raw
-        this.damageType = type;
+        init(attacker, defender, null, damage, type);
     }
 
     /**
@@ -66,8 +82,67 @@ public class DamageContext {
         this.skill = skill;
     }
 
-    public void addEffect(DamageEffect effect) {
-        this.effect.add(effect);
+    /**
+     * Borrow this thread's next free context. Must be paired with {@link #release()},
+     * nested hits (e.g. a kill triggering another hit) get their own instance.
+     */
+    public static DamageContext acquire(LivingEntity attacker, LivingEntity defender, SkillEntity skill, int damage) {
+        DamageContext ctx = POOL.get().next();
+        ctx.init(attacker, defender, skill, damage, skill != null ? skill.getDamageType() : DamageType.PHYSICAL);
+        return ctx;
+    }
+
+    /**
+     * Return a context obtained from {@link #acquire} to the pool. References are dropped so
+     * pooled instances never keep entities alive.
+     */
+    public void release() {
+        if (!pooled) return;
+        init(null, null, null, 0, null);
+        POOL.get().release();
+    }
+
+    private void init(LivingEntity attacker, LivingEntity defender, SkillEntity skill, int damage, DamageType type) {
+        this.attacker = attacker;
+        this.defender = defender;
+        this.skill = skill;
+        this.damage = damage;
+        this.finalDamage = damage; // Initialize final damage same as raw
+        this.damageType = type;
+        this.penetration = false;
+        this.defenderHpBeforeHit = 0;
+        this.effectCount = 0;
+    }
+
+    public void addEffect(int id, int damage) {
+        if (effectCount >= MAX_EFFECTS) return;
+
+        effectIds[effectCount] = id;
+        effectDamages[effectCount] = damage;
+        effectCount++;
+    }
+
+    public int getEffectId(int index) {
+        return effectIds[index];
+    }
+
+    public int getEffectDamage(int index) {
+        return effectDamages[index];
+    }
+
+    /**
+     * Detached heap copy, safe to keep after the pooled instance is released.
+     */
+    public DamageContext copy() {
+        DamageContext copy = new DamageContext();
+        copy.init(attacker, defender, skill, damage, damageType);
+        copy.finalDamage = finalDamage;
+        copy.penetration = penetration;
+        copy.defenderHpBeforeHit = defenderHpBeforeHit;
+        System.arraycopy(effectIds, 0, copy.effectIds, 0, effectCount);
+        System.arraycopy(effectDamages, 0, copy.effectDamages, 0, effectCount);
+        copy.effectCount = effectCount;
+        return copy;
     }
 
     /**
@@ -78,5 +153,31 @@ public class DamageContext {
         return ((damage - finalDamage) * 100) / damage;
     }
 
+    /**
+     * Per-thread stack of reusable contexts.
+     */
+    private static final class Pool {
+        private DamageContext[] stack = new DamageContext[4];
+        private int depth;
+
+        DamageContext next() {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+            }
+
+            DamageContext ctx = stack[depth];
+            if (ctx == null) {
+                ctx = new DamageContext();
+                ctx.pooled = true;
+                stack[depth] = ctx;
+            }
+            depth++;
+            return ctx;
+        }
+
+        void release() {
+            if (depth > 0) depth--;
+        }
+    }
 
-}
\ No newline at end of file
+}
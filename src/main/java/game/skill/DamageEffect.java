@@ -1,11 +0,0 @@
-package game.skill;
-
-import lombok.AllArgsConstructor;
-import lombok.Data;
-
-@Data
-@AllArgsConstructor
-public class DamageEffect {
-    private int id;
-    private int damage;
-}
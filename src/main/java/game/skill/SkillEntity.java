@@ -2,12 +2,11 @@ package game.skill;
 
 import game.buff.BuffEffect;
 import game.entity.DamageType;
-import game.stat.StatType;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import manager.SkillManager;
-import model.item.Option;
 import model.skill.LvSkill;
 import model.skill.Skill;
 
@@ -23,7 +22,14 @@ public class SkillEntity {
     private byte currentLevel;
     private long lastUsedTime;
     private final int role;
-    private Skill skillData;
+
+    // Compiled data for the current level, re-resolved on level change or content reload
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private SkillProfile profile;
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private byte profileLevel;
 
 
     public SkillEntity(byte skillId, byte currentLevel, byte role) {
@@ -33,16 +39,25 @@ public class SkillEntity {
         this.role = role;
     }
 
+    public SkillProfile getProfile() {
+        SkillProfile p = profile;
+        SkillManager manager = SkillManager.getInstance();
+        if (p == null || profileLevel != currentLevel || p.getGeneration() != manager.getGeneration()) {
+            p = manager.getProfile(role, skillId, currentLevel);
+            profile = p;
+            profileLevel = currentLevel;
+        }
+        return p;
+    }
+
     public LvSkill getCurrentLevelData() {
-        Skill skill = getSkillData();
-        return skill != null ? skill.getLevel((byte) (currentLevel - 1)) : null;
+        SkillProfile p = getProfile();
+        return p != null ? p.getLevelData() : null;
     }
 
     public Skill getSkillData() {
-        if (skillData == null) {
-            skillData = SkillManager.getInstance().getSkill(role, skillId);
-        }
-        return skillData;
+        SkillProfile p = getProfile();
+        return p != null ? p.getSkill() : null;
     }
 
     /**
@@ -93,22 +108,25 @@ public class SkillEntity {
     }
 
     public boolean isOnCooldown() {
-        LvSkill levelData = getCurrentLevelData();
-        if (levelData == null) {
+        SkillProfile p = getProfile();
+        if (p == null || p.getLevelData() == null) {
             log.warn("Cannot check cooldown: skill level data not found for skillId={}, level={}", skillId, currentLevel);
             return true; // Prevent usage if data is missing
         }
 
+        return isOnCooldown(p, System.currentTimeMillis());
+    }
+
+    private boolean isOnCooldown(SkillProfile p, long currentTime) {
         // If never used, skill is ready
         if (lastUsedTime == 0) {
             return false;
         }
 
-        long currentTime = System.currentTimeMillis();
         long elapsedTime = currentTime - lastUsedTime;
 
         // Reduce cooldown by 1 second (1000ms) to sync with client
-        long adjustedCooldown = Math.max(0, levelData.cooldown - 1000);
+        long adjustedCooldown = Math.max(0, p.getCooldown() - 1000);
 
         // Check if elapsed time is less than adjusted cooldown duration
         return elapsedTime < adjustedCooldown;
@@ -122,20 +140,20 @@ public class SkillEntity {
      */
 
     public long getRemainingCooldown() {
-        if (!isOnCooldown()) {
+        SkillProfile p = getProfile();
+        if (p == null || p.getLevelData() == null) {
             return 0;
         }
 
-        LvSkill levelData = getCurrentLevelData();
-        if (levelData == null) {
+        long currentTime = System.currentTimeMillis();
+        if (!isOnCooldown(p, currentTime)) {
             return 0;
         }
 
-        long currentTime = System.currentTimeMillis();
         long elapsedTime = currentTime - lastUsedTime;
 
         // Reduce cooldown by 1 second (1000ms) to sync with client
-        long adjustedCooldown = Math.max(0, levelData.cooldown - 1000);
+        long adjustedCooldown = Math.max(0, p.getCooldown() - 1000);
         long remainingTime = adjustedCooldown - elapsedTime;
 
         // Return remaining time (guaranteed > 0 because isOnCooldown is true)
@@ -165,17 +183,17 @@ public class SkillEntity {
     }
 
     public byte getType() {
-        Skill skill = getSkillData();
-        if (skill == null) return -1;
+        SkillProfile p = getProfile();
+        if (p == null) return -1;
 
-        return skill.type;
+        return p.getType();
     }
 
     public short getTargetCount() {
-        LvSkill lvSkill = getCurrentLevelData();
-        if (lvSkill == null) return 0;
+        SkillProfile p = getProfile();
+        if (p == null || p.getLevelData() == null) return 0;
 
-        return lvSkill.targetCount;
+        return (short) p.getTargetCount();
     }
 
     public boolean isPhysicalSkill(byte skillId) {
@@ -191,41 +209,39 @@ public class SkillEntity {
     }
 
     public BuffEffect createBuff() {
-        LvSkill lvData = getCurrentLevelData();
-        Skill skill = getSkillData();
+        SkillProfile p = getProfile();
 
-        if (lvData == null || skill == null) {
+        if (p == null || p.getLevelData() == null) {
             return null;
         }
 
         // Only create buff if skill has buff duration
-        if (lvData.buffDuration <= 0) {
+        if (p.getBuffDuration() <= 0) {
             return null;
         }
 
+        Skill skill = p.getSkill();
         BuffEffect buff = new BuffEffect(
                 skillId,
                 skill.iconId,
                 skill.buffType,
-                lvData.buffDuration
+                p.getBuffDuration()
         );
 
         // Add stat modifiers from skill options
-        if (lvData.options != null) {
-            for (Option option : lvData.options) {
-                if (option == null) continue;
-
-                StatType statType = StatType.fromValue(option.getId());
-                if (statType != null) {
-                    buff.addStatModifier(statType, option.getValue());
-                }
-            }
+        for (int i = 0; i < p.getStatCount(); i++) {
+            buff.addStatModifier(p.getStatType(i), p.getStatValue(i));
         }
 
         return buff;
     }
 
     public DamageType getDamageType() {
+        SkillProfile p = getProfile();
+        if (p != null) {
+            return p.getDamageType();
+        }
+
         if (isPhysicalSkill(skillId)) {
             return DamageType.PHYSICAL;
         } else {
@@ -0,0 +1,173 @@
+package game.skill;
+
+import game.entity.DamageType;
+import game.stat.StatType;
+import lombok.AccessLevel;
+import lombok.Getter;
+import model.item.Option;
+import model.skill.LvSkill;
+import model.skill.Skill;
+
+import java.util.Arrays;
+
+/**
+ * Immutable, precompiled view of one (role, skillId, level) entry.
+ * Built once by SkillManager when skills are loaded, so the combat path
+ * never scans options or resolves level data per hit.
+ */
+@Getter
+public final class SkillProfile {
+
+    private final int generation;
+
+    private final int role;
+    private final byte skillId;
+    private final byte level;
+
+    private final Skill skill;
+    private final LvSkill levelData;
+
+    private final byte type;
+    private final DamageType damageType;
+
+    private final int cooldown;
+    private final int mpCost;
+    private final int targetCount;
+    private final int castRange;
+    private final int buffDuration;
+
+    // Skill damage bonuses, indexed by DamageType.ordinal()
+    @Getter(AccessLevel.NONE)
+    private final int[] flatDamage;
+    @Getter(AccessLevel.NONE)
+    private final int[] percentDamage;
+
+    // Sums over all damage types (what calculateSkillDamage applies)
+    private final int totalFlatDamage;
+    private final int totalPercentDamage;
+
+    // Resolved options, used for passives and buffs
+    @Getter(AccessLevel.NONE)
+    private final StatType[] statTypes;
+    @Getter(AccessLevel.NONE)
+    private final int[] statValues;
+
+    private SkillProfile(int generation, int role, byte skillId, byte level, Skill skill, LvSkill levelData) {
+        this.generation = generation;
+        this.role = role;
+        this.skillId = skillId;
+        this.level = level;
+        this.skill = skill;
+        this.levelData = levelData;
+        this.type = skill.type;
+        this.damageType = resolveDamageType(role, skillId);
+
+        this.cooldown = levelData != null ? levelData.cooldown : 0;
+        this.mpCost = levelData != null ? levelData.mpCost : 0;
+        this.targetCount = levelData != null ? levelData.targetCount : 0;
+        this.castRange = levelData != null ? levelData.castRange : 0;
+        this.buffDuration = levelData != null ? levelData.buffDuration : 0;
+
+        int[] flat = new int[DamageType.values().length];
+        int[] percent = new int[DamageType.values().length];
+        StatType[] types = new StatType[0];
+        int[] values = new int[0];
+        int totalFlat = 0;
+        int totalPercent = 0;
+
+        if (levelData != null && levelData.options != null) {
+            types = new StatType[levelData.options.length];
+            values = new int[levelData.options.length];
+            int count = 0;
+
+            for (Option op : levelData.options) {
+                if (op == null) continue;
+
+                StatType statType = StatType.fromValue(op.getId());
+                if (statType == null) continue;
+
+                types[count] = statType;
+                values[count] = op.getValue();
+                count++;
+
+                DamageType element = elementOf(statType);
+                if (element == null) continue;
+
+                if (statType.isPercent()) {
+                    percent[element.ordinal()] += op.getValue();
+                    totalPercent += op.getValue();
+                } else {
+                    flat[element.ordinal()] += op.getValue();
+                    totalFlat += op.getValue();
+                }
+            }
+
+            types = Arrays.copyOf(types, count);
+            values = Arrays.copyOf(values, count);
+        }
+
+        this.flatDamage = flat;
+        this.percentDamage = percent;
+        this.totalFlatDamage = totalFlat;
+        this.totalPercentDamage = totalPercent;
+        this.statTypes = types;
+        this.statValues = values;
+    }
+
+    /**
+     * Compiles the profile for a skill at the given learned level, using the same
+     * level resolution as the client-facing skill data.
+     */
+    public static SkillProfile compile(int generation, int role, Skill skill, byte level) {
+        LvSkill levelData = skill.getLevel((byte) (level - 1));
+        return new SkillProfile(generation, role, skill.sid, level, skill, levelData);
+    }
+
+    public int getFlatDamage(DamageType type) {
+        return flatDamage[type.ordinal()];
+    }
+
+    public int getPercentDamage(DamageType type) {
+        return percentDamage[type.ordinal()];
+    }
+
+    public int getStatCount() {
+        return statTypes.length;
+    }
+
+    public StatType getStatType(int index) {
+        return statTypes[index];
+    }
+
+    public int getStatValue(int index) {
+        return statValues[index];
+    }
+
+    private static DamageType elementOf(StatType type) {
+        return switch (type) {
+            case PHYSICAL_DAMAGE, PHYSICAL_DAMAGE_PERCENT -> DamageType.PHYSICAL;
+            case FIRE_DAMAGE, FIRE_DAMAGE_PERCENT -> DamageType.FIRE;
+            case ICE_DAMAGE, ICE_DAMAGE_PERCENT -> DamageType.ICE;
+            case POISON_DAMAGE, POISON_DAMAGE_PERCENT -> DamageType.POISON;
+            case LIGHTING_DAMAGE, LIGHTING_DAMAGE_PERCENT -> DamageType.LIGHTING;
+            case LIGHT_DAMAGE, LIGHT_DAMAGE_PERCENT -> DamageType.LIGHT;
+            case DARK_DAMAGE, DARK_DAMAGE_PERCENT -> DamageType.DARK;
+            default -> null;
+        };
+    }
+
+    private static DamageType resolveDamageType(int role, byte skillId) {
+        if (SkillEntity.PHYSICAL_SKILLS.contains(skillId)) {
+            return DamageType.PHYSICAL;
+        }
+
+        return switch (role) {
+            case 0 -> DamageType.FIRE;
+            case 1 -> DamageType.POISON;
+            case 2 -> DamageType.ICE;
+            case 3 -> DamageType.LIGHTING;
+            // no player can hold another role; keep the content loadable
+            default -> DamageType.PHYSICAL;
+        };
+    }
+}
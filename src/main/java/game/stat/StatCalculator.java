@@ -2,6 +2,7 @@ package game.stat;
 
 import game.entity.DamageType;
 import game.skill.SkillEntity;
+import game.skill.SkillProfile;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import manager.ItemManager;
@@ -17,33 +18,11 @@ public class StatCalculator {
     private static final int PERCENT_SCALE = 10000;
 
     public static int calculateSkillDamage(int baseDamage, SkillEntity skill) {
-        int flatDmg = 0;
-        int percentBonus = 0;
-
-        for (Option op : skill.getCurrentLevelData().options) {
-            if (op == null) continue;
-
-            StatType type = StatType.fromValue(op.getId());
-            if (type == null) continue;
-
-            switch (type) {
-                case PHYSICAL_DAMAGE,
-                     FIRE_DAMAGE,
-                     ICE_DAMAGE,
-                     POISON_DAMAGE,
-                     LIGHTING_DAMAGE,
-                     LIGHT_DAMAGE,
-                     DARK_DAMAGE -> flatDmg += op.getValue();
-                case PHYSICAL_DAMAGE_PERCENT,
-                     ICE_DAMAGE_PERCENT,
-                     LIGHTING_DAMAGE_PERCENT,
-                     FIRE_DAMAGE_PERCENT,
-                     POISON_DAMAGE_PERCENT,
-                     LIGHT_DAMAGE_PERCENT,
-                     DARK_DAMAGE_PERCENT -> percentBonus += op.getValue();
-            }
-        }
+        SkillProfile profile = skill.getProfile();
+        if (profile == null) return Math.max(0, baseDamage);
 
+        int flatDmg = profile.getTotalFlatDamage();
+        int percentBonus = profile.getTotalPercentDamage();
 
         float percentRate = percentBonus / (float) PERCENT_SCALE;
         int skillDamage = Math.round(baseDamage * (1 + percentRate)) + flatDmg;
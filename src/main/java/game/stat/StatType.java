@@ -56,19 +56,53 @@ public enum StatType {
     ATTACK_SKILL(37, false),
     BUFF_SKILL(38, false);
 
+    /** Number of stat types, i.e. the length of a dense stat vector. */
+    public static final int COUNT = values().length;
+
+    // option id → type, sized to the largest option id
+    private static final StatType[] LOOKUP;
+
+    static {
+        int max = 0;
+        for (StatType type : values()) {
+            max = Math.max(max, type.value);
+        }
+
+        LOOKUP = new StatType[max + 1];
+        for (StatType type : values()) {
+            LOOKUP[type.value] = type;
+        }
+
+        // flat stats whose total is scaled by a percent stat
+        PHYSICAL_DAMAGE.scaledBy = PHYSICAL_DAMAGE_PERCENT;
+        ICE_DAMAGE.scaledBy = ICE_DAMAGE_PERCENT;
+        FIRE_DAMAGE.scaledBy = FIRE_DAMAGE_PERCENT;
+        LIGHTING_DAMAGE.scaledBy = LIGHTING_DAMAGE_PERCENT;
+        POISON_DAMAGE.scaledBy = POISON_DAMAGE_PERCENT;
+        LIGHT_DAMAGE.scaledBy = LIGHT_DAMAGE_PERCENT;
+        DARK_DAMAGE.scaledBy = DARK_DAMAGE_PERCENT;
+        DEFENSE.scaledBy = DEFENSE_PERCENT;
+    }
+
     private final int value;
     private final boolean percent;
+    private StatType scaledBy;
 
     StatType(int value, boolean percent) {
         this.value = value;
         this.percent = percent;
     }
 
+    /**
+     * Dense index of this type inside a stat vector (see {@link Stats}).
+     */
+    public int getIndex() {
+        return ordinal();
+    }
+
     public static StatType fromValue(int typeId) {
-        for (StatType type : values()) {
-            if (type.value == typeId) return type;
-        }
-        return null;
+        if (typeId < 0 || typeId >= LOOKUP.length) return null;
+        return LOOKUP[typeId];
     }
 
 }
@@ -1,13 +1,10 @@
 package game.stat;
 
-import game.buff.BuffManager;
-import game.effects.StatModifier;
 import game.entity.DamageType;
 import game.pet.Pet;
 import game.skill.DamageContext;
 import game.skill.SkillEntity;
-import lombok.Getter;
-import lombok.Setter;
+import game.skill.SkillProfile;
 import lombok.extern.slf4j.Slf4j;
 import manager.ConfigManager;
 import model.config.Attribute;
@@ -16,104 +13,29 @@ import model.item.EquipmentItem;
 import model.item.Option;
 import game.entity.player.PlayerEntity;
 import model.item.PetOption;
-import model.skill.LvSkill;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 
 @Slf4j
-@Getter
-@Setter
 public class Stats {
     private static final int PERCENT_SCALE = 10000;
 
-    // Base Attributes
-    private int bonusSTR;
-    private int bonusDEX;
-    private int bonusVIT;
-    private int bonusINT;
-
-    // Basic Damage (Flat)
-    private int basicDmg;
-
-    // Elemental Damage (Flat)
-    private int physicalDmg;
-    private int fireDmg;
-    private int iceDmg;
-    private int poisonDmg;
-    private int lightingDmg;
-    private int lightDmg;
-    private int darkDmg;
-
-    // Elemental Damage (%)
-    private int physicalDmgPercent;
-    private int fireDmgPercent;
-    private int iceDmgPercent;
-    private int poisonDmgPercent;
-    private int lightingDmgPercent;
-    private int lightDmgPercent;
-    private int darkDmgPercent;
-
-    // Defense
-    private int defense;
-    private int defensePercent;
-
-    // Elemental Resistance %
-    private int physicalResPercent;
-    private int fireResPercent;
-    private int iceResPercent;
-    private int poisonResPercent;
-    private int lightingResPercent;
-    private int lightResPercent;
-    private int darkResPercent;
-
-    // HP/MP
-    private int hp;           // Flat HP bonus from VIT
-    private int hpPercent;    // HP% bonus from equipment
-    private int mp;           // Flat MP bonus from VIT + INT
-    private int mpPercent;    // MP% bonus from equipment
-    private int hpRegen;
-    private int manaRegen;
-    private int hpLifesteal;
-    private int manaLifesteal;
-
-    // Combat Stats
-    private int criticalRatePercent;
-    private int criticalDamage;
-    private int evadePercent;
-    private int reflectDamagePercent;
-    private int penetrationPercent;
-
-
-    // Skills
-    private int attackSkill;
-    private int buffSkill;
+    // Dense stat vector indexed by StatType.getIndex()
+    private final int[] values = new int[StatType.COUNT];
+
+    // Modifier layers, each summed into the vector as a whole
+    private final int[] equipmentLayer = new int[StatType.COUNT];
+    private final int[] buffLayer = new int[StatType.COUNT];
+    private final int[] petLayer = new int[StatType.COUNT];
 
     public Stats() {
         reset();
     }
 
     public void reset() {
-        bonusSTR = bonusDEX = bonusVIT = bonusINT = 0;
-        basicDmg = 0;
-
-        physicalDmg = fireDmg = iceDmg = poisonDmg = 0;
-        lightingDmg = lightDmg = darkDmg = 0;
-
-        physicalDmgPercent = fireDmgPercent = iceDmgPercent = poisonDmgPercent = 0;
-        lightingDmgPercent = lightDmgPercent = darkDmgPercent = 0;
-
-        defense = defensePercent = 0;
-
-        physicalResPercent = fireResPercent = iceResPercent = poisonResPercent = 0;
-        lightingResPercent = lightResPercent = darkResPercent = 0;
-
-        hp = mp = 0;  // FIXED: Added hp and mp reset
-        hpPercent = mpPercent = hpRegen = manaRegen = 0;
-        hpLifesteal = manaLifesteal = 0;
-
-        criticalRatePercent = criticalDamage = evadePercent = reflectDamagePercent = penetrationPercent = 0;
-        attackSkill = buffSkill = 0;
+        Arrays.fill(values, 0);
     }
 
     public void calculate(PlayerEntity player) {
@@ -126,21 +48,36 @@ public class Stats {
         applySkillStats(player.getSkillData());
 
         // Equipment Bonus
+        Arrays.fill(equipmentLayer, 0);
         List<EquipmentItem> equips = player.getInventoryManager().getWearing().allEquipped();
         for (EquipmentItem item : equips) {
             if (item == null) continue;
-            applyItemStats(item);
+            applyItemStats(item, equipmentLayer);
         }
+        add(equipmentLayer);
 
         // Buff
-        applyBuffStats(player);
+        Arrays.fill(buffLayer, 0);
+        applyBuffStats(player, buffLayer);
+        add(buffLayer);
 
         // Pet
-
+        Arrays.fill(petLayer, 0);
         Pet pet;
         if ((pet = player.getPet()) != null) {
-            applyPetAttributes(pet);
+            applyPetAttributes(pet, petLayer);
         }
+        add(petLayer);
+    }
+
+    /**
+     * Swaps only the buff layer, leaving base, skill, equipment and pet contributions untouched.
+     */
+    public void refreshBuffLayer(PlayerEntity player) {
+        subtract(buffLayer);
+        Arrays.fill(buffLayer, 0);
+        applyBuffStats(player, buffLayer);
+        add(buffLayer);
     }
 
     public void applyBaseAttr(PlayerEntity player) {
@@ -200,243 +137,156 @@ public class Stats {
 
 
         // STR → Critical Rate & All Damage%
-        criticalRatePercent += Math.round(STR * 10f); // 0.2% = 20
+        addStat(StatType.CRITICAL_RATE, Math.round(STR * 10f)); // 0.2% = 20
 
 
         // DEX → Evade%, Defense%, Defense
-        evadePercent += DEX * 20; // 0.2% = 20
-        defensePercent += DEX * 10; // 0.1% = 10
-        defense += DEX * 20;
+        addStat(StatType.EVADE, DEX * 20); // 0.2% = 20
+        addStat(StatType.DEFENSE_PERCENT, DEX * 10); // 0.1% = 10
+        addStat(StatType.DEFENSE, DEX * 20);
 
 
         // VIT → HP, MP, Reflect Damage%
-        hp += VIT * 310;
-        reflectDamagePercent += VIT * 20; // 0.02%
+        addStat(StatType.HP, VIT * 310);
+        addStat(StatType.REFLECT_DAMAGE, VIT * 20); // 0.02%
 
-        mp += INT * 11;
-        penetrationPercent += INT * 10; // 0.1%
+        addStat(StatType.MP, INT * 11);
+        addStat(StatType.PEN, INT * 10); // 0.1%
 
         // Role-specific bonus (ADDITIONAL to base INT bonus)
         switch (role) {
             case 0 -> {  // WARRIOR (FIRE)
-                fireDmg += STR * 4;
-                fireDmgPercent += STR * 18;
-                physicalDmg += STR * 4;
-                physicalDmgPercent += STR * 18;
-                basicDmg += STR * 4;
+                addStat(StatType.FIRE_DAMAGE, STR * 4);
+                addStat(StatType.FIRE_DAMAGE_PERCENT, STR * 18);
+                addStat(StatType.PHYSICAL_DAMAGE, STR * 4);
+                addStat(StatType.PHYSICAL_DAMAGE_PERCENT, STR * 18);
+                addStat(StatType.BASIC_DAMAGE, STR * 4);
             }
             case 1 -> {  // ASSASSIN (POISON)
-                poisonDmg += STR * 4;
-                poisonDmgPercent += STR * 18;
-                physicalDmg += STR * 4;
-                physicalDmgPercent += STR * 18;
-                basicDmg += STR * 4;
+                addStat(StatType.POISON_DAMAGE, STR * 4);
+                addStat(StatType.POISON_DAMAGE_PERCENT, STR * 18);
+                addStat(StatType.PHYSICAL_DAMAGE, STR * 4);
+                addStat(StatType.PHYSICAL_DAMAGE_PERCENT, STR * 18);
+                addStat(StatType.BASIC_DAMAGE, STR * 4);
             }
             case 2 -> {  // MAGE ICE
-                iceDmg += INT * 4;
-                iceDmgPercent += INT * 18;
-                physicalDmg += INT * 4;
-                physicalDmgPercent += INT * 18;
+                addStat(StatType.ICE_DAMAGE, INT * 4);
+                addStat(StatType.ICE_DAMAGE_PERCENT, INT * 18);
+                addStat(StatType.PHYSICAL_DAMAGE, INT * 4);
+                addStat(StatType.PHYSICAL_DAMAGE_PERCENT, INT * 18);
 
-                iceDmg += STR * 4;
-                iceDmgPercent += STR * 18;
-                physicalDmg += STR * 4;
-                physicalDmgPercent += STR * 18;
+                addStat(StatType.ICE_DAMAGE, STR * 4);
+                addStat(StatType.ICE_DAMAGE_PERCENT, STR * 18);
+                addStat(StatType.PHYSICAL_DAMAGE, STR * 4);
+                addStat(StatType.PHYSICAL_DAMAGE_PERCENT, STR * 18);
 
-                basicDmg += INT * 4;
+                addStat(StatType.BASIC_DAMAGE, INT * 4);
             }
             case 3 -> {  // GUNNER (LIGHTING)
-                lightingDmg += INT * 4;
-                lightingDmgPercent += INT * 18;
-                physicalDmg += INT * 4;
-                physicalDmgPercent += INT * 18;
+                addStat(StatType.LIGHTING_DAMAGE, INT * 4);
+                addStat(StatType.LIGHTING_DAMAGE_PERCENT, INT * 18);
+                addStat(StatType.PHYSICAL_DAMAGE, INT * 4);
+                addStat(StatType.PHYSICAL_DAMAGE_PERCENT, INT * 18);
 
-                iceDmg += STR * 4;
-                iceDmgPercent += STR * 18;
-                physicalDmg += STR * 4;
-                physicalDmgPercent += STR * 18;
+                addStat(StatType.ICE_DAMAGE, STR * 4);
+                addStat(StatType.ICE_DAMAGE_PERCENT, STR * 18);
+                addStat(StatType.PHYSICAL_DAMAGE, STR * 4);
+                addStat(StatType.PHYSICAL_DAMAGE_PERCENT, STR * 18);
 
-                basicDmg += INT * 4;
+                addStat(StatType.BASIC_DAMAGE, INT * 4);
 
             }
         }
     }
 
     private void applySkillStats(Map<Byte, SkillEntity> skillData) {
-        List<SkillEntity> learnedPassiveSkills = skillData.values()
-                .stream()
-                .filter(skill -> skill.getCurrentLevel() > 0 && skill.getType() == 2)
-                .toList();
+        for (SkillEntity skillEntity : skillData.values()) {
+            if (skillEntity.getCurrentLevel() <= 0) continue;
 
-        for (SkillEntity skillEntity : learnedPassiveSkills) {
-            LvSkill lvSkill = skillEntity.getCurrentLevelData();
-            for (Option op : lvSkill.options) {
-                if (op == null) continue;
+            SkillProfile profile = skillEntity.getProfile();
+            if (profile == null || profile.getType() != 2) continue;
 
-                StatType statType = StatType.fromValue(op.getId());
-                if (statType == null) continue;
-
-                addStat(statType, op.getValue());
+            for (int i = 0; i < profile.getStatCount(); i++) {
+                addStat(profile.getStatType(i), profile.getStatValue(i));
             }
         }
     }
 
-    private void applyItemStats(EquipmentItem item) {
+    private void applyItemStats(EquipmentItem item, int[] layer) {
         for (Option op : item.getOption()) {
             StatType type = StatType.fromValue(op.getId());
             if (type == null) continue;
 
             int value = StatCalculator.getBonusPlus(op, item.getPlus());
-            addStat(type, value);
+            layer[type.getIndex()] += value;
         }
     }
 
-    private void applyBuffStats(PlayerEntity player) {
+    private void applyBuffStats(PlayerEntity player, int[] layer) {
         if (player == null) return;
 
-        for (StatType statType : StatType.values()) {
-            int bonus = player.getBuffManager().getStatBonus(statType);
-            if (bonus != 0) {
-                addStat(statType, bonus);
-            }
-        }
+        player.getBuffManager().addStatsTo(layer);
 
-        List<StatModifier> buffEffects = player.getEffectManager().getActiveModifiers();
-        if (!buffEffects.isEmpty()) {
-            for (StatModifier mod : buffEffects) {
-                addStat(mod.getType(), mod.getValue());
-            }
-        }
+        player.getEffectManager().addModifiersTo(layer);
     }
 
-    private void applyPetAttributes(Pet pet) {
+    private void applyPetAttributes(Pet pet, int[] layer) {
         if (pet == null) return;
 
-        addStat(StatType.STR, (pet.getStrength() / 78));
-        addStat(StatType.DEX, (pet.getDexterity() / 78));
-        addStat(StatType.VIT, (pet.getVitality() / 78));
-        addStat(StatType.INT, (pet.getIntelligence() / 78));
+        layer[StatType.STR.getIndex()] += pet.getStrength() / 78;
+        layer[StatType.DEX.getIndex()] += pet.getDexterity() / 78;
+        layer[StatType.VIT.getIndex()] += pet.getVitality() / 78;
+        layer[StatType.INT.getIndex()] += pet.getIntelligence() / 78;
 
         for (PetOption op : pet.getOptions()) {
             StatType statType = StatType.fromValue(op.getId());
             if (statType == null) continue;
 
-            addStat(statType, op.getValue());
+            layer[statType.getIndex()] += op.getValue();
         }
 
     }
 
+    // ==================== VECTOR ====================
+
     public void addStat(StatType type, int value) {
-        switch (type) {
-            case STR -> bonusSTR += value;
-            case DEX -> bonusDEX += value;
-            case VIT -> bonusVIT += value;
-            case INT -> bonusINT += value;
-
-            case BASIC_DAMAGE -> basicDmg += value;
-
-            case PHYSICAL_DAMAGE -> physicalDmg += value;
-            case FIRE_DAMAGE -> fireDmg += value;
-            case ICE_DAMAGE -> iceDmg += value;
-            case POISON_DAMAGE -> poisonDmg += value;
-            case LIGHTING_DAMAGE -> lightingDmg += value;
-            case LIGHT_DAMAGE -> lightDmg += value;
-            case DARK_DAMAGE -> darkDmg += value;
-
-            case PHYSICAL_DAMAGE_PERCENT -> physicalDmgPercent += value;
-            case FIRE_DAMAGE_PERCENT -> fireDmgPercent += value;
-            case ICE_DAMAGE_PERCENT -> iceDmgPercent += value;
-            case POISON_DAMAGE_PERCENT -> poisonDmgPercent += value;
-            case LIGHTING_DAMAGE_PERCENT -> lightingDmgPercent += value;
-            case LIGHT_DAMAGE_PERCENT -> lightDmgPercent += value;
-            case DARK_DAMAGE_PERCENT -> darkDmgPercent += value;
-
-            case DEFENSE -> defense += value;
-            case DEFENSE_PERCENT -> defensePercent += value;
-
-            case PHYSICAL_RES -> physicalResPercent += value;
-            case FIRE_RES -> fireResPercent += value;
-            case ICE_RES -> iceResPercent += value;
-            case POISON_RES -> poisonResPercent += value;
-            case LIGHTING_RES -> lightingResPercent += value;
-            case LIGHT_RES -> lightResPercent += value;
-            case DARK_RES -> darkResPercent += value;
-
-            case HP -> hp += value;
-            case MP -> mp += value;
-            case HP_PERCENT -> hpPercent += value;
-            case MP_PERCENT -> mpPercent += value;
-            case HP_REGEN -> hpRegen += value;
-            case MANA_REGEN -> manaRegen += value;
-            case LIFE_STEAL -> hpLifesteal += value;
-            case MANA_STEAL -> manaLifesteal += value;
-
-            case CRITICAL_RATE -> criticalRatePercent += value;
-            case CRITICAL_DAMAGE -> criticalDamage += value;
-            case EVADE -> evadePercent += value;
-            case REFLECT_DAMAGE -> reflectDamagePercent += value;
-            case PEN -> penetrationPercent += value;
-
-            case ATTACK_SKILL -> attackSkill += value;
-            case BUFF_SKILL -> buffSkill += value;
+        values[type.getIndex()] += value;
+    }
+
+    public void set(StatType type, int value) {
+        values[type.getIndex()] = value;
+    }
+
+    /**
+     * Adds a whole modifier layer (indexed by {@link StatType#getIndex()}) to this vector.
+     */
+    public void add(int[] layer) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] += layer[i];
         }
     }
 
-    public int get(StatType type) {
-        return switch (type) {
-            case STR -> bonusSTR;
-            case DEX -> bonusDEX;
-            case VIT -> bonusVIT;
-            case INT -> bonusINT;
-
-            case BASIC_DAMAGE -> basicDmg;
-
-            case PHYSICAL_DAMAGE,
-                 FIRE_DAMAGE,
-                 ICE_DAMAGE,
-                 POISON_DAMAGE,
-                 LIGHTING_DAMAGE,
-                 LIGHT_DAMAGE,
-                 DARK_DAMAGE,
-                 DEFENSE -> getTotal(type);
-
-            case PHYSICAL_DAMAGE_PERCENT -> physicalDmgPercent;
-            case FIRE_DAMAGE_PERCENT -> fireDmgPercent;
-            case ICE_DAMAGE_PERCENT -> iceDmgPercent;
-            case POISON_DAMAGE_PERCENT -> poisonDmgPercent;
-            case LIGHTING_DAMAGE_PERCENT -> lightingDmgPercent;
-            case LIGHT_DAMAGE_PERCENT -> lightDmgPercent;
-            case DARK_DAMAGE_PERCENT -> darkDmgPercent;
-
-            case DEFENSE_PERCENT -> defensePercent;
-
-            case PHYSICAL_RES -> physicalResPercent;
-            case FIRE_RES -> fireResPercent;
-            case ICE_RES -> iceResPercent;
-            case POISON_RES -> poisonResPercent;
-            case LIGHTING_RES -> lightingResPercent;
-            case LIGHT_RES -> lightResPercent;
-            case DARK_RES -> darkResPercent;
-
-            case HP -> hp;
-            case MP -> mp;
-            case HP_PERCENT -> hpPercent;
-            case MP_PERCENT -> mpPercent;
-            case HP_REGEN -> hpRegen;
-            case MANA_REGEN -> manaRegen;
-            case LIFE_STEAL -> hpLifesteal;
-            case MANA_STEAL -> manaLifesteal;
-
-            case CRITICAL_RATE -> criticalRatePercent;
-            case CRITICAL_DAMAGE -> criticalDamage;
-            case EVADE -> evadePercent;
-            case REFLECT_DAMAGE -> reflectDamagePercent;
-            case PEN -> penetrationPercent;
-
-            case ATTACK_SKILL -> attackSkill;
-            case BUFF_SKILL -> buffSkill;
+    /**
+     * Removes a modifier layer previously added with {@link #add(int[])}.
+     */
+    public void subtract(int[] layer) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] -= layer[i];
+        }
+    }
 
-        };
+    /**
+     * Raw value without percent scaling.
+     */
+    public int getRaw(StatType type) {
+        return values[type.getIndex()];
+    }
+
+    /**
+     * Flat damage and defense stats report their percent-scaled total, everything else the raw value.
+     */
+    public int get(StatType type) {
+        return type.getScaledBy() != null ? getTotal(type) : values[type.getIndex()];
     }
 
     public int get(int statId) {
@@ -445,27 +295,73 @@ public class Stats {
     }
 
     public int getTotal(StatType type) {
-        return switch (type) {
-            case PHYSICAL_DAMAGE -> Math.max(0, physicalDmg + (physicalDmg * physicalDmgPercent / PERCENT_SCALE));
-            case ICE_DAMAGE -> Math.max(0, iceDmg + (iceDmg * iceDmgPercent / PERCENT_SCALE));
-            case FIRE_DAMAGE -> Math.max(0, fireDmg + (fireDmg * fireDmgPercent / PERCENT_SCALE));
-            case LIGHTING_DAMAGE -> Math.max(0, lightingDmg + (lightingDmg * lightingDmgPercent / PERCENT_SCALE));
-            case POISON_DAMAGE -> Math.max(0, poisonDmg + (poisonDmg * poisonDmgPercent / PERCENT_SCALE));
-            case LIGHT_DAMAGE -> Math.max(0, lightDmg + (lightDmg * lightDmgPercent / PERCENT_SCALE));
-            case DARK_DAMAGE -> Math.max(0, darkDmg + (darkDmg * darkDmgPercent / PERCENT_SCALE));
-            case DEFENSE -> Math.max(0, defense + (defense * defensePercent / PERCENT_SCALE));
-            case PHYSICAL_RES -> physicalResPercent;
-            case FIRE_RES -> fireResPercent;
-            case ICE_RES -> iceResPercent;
-            case POISON_RES -> poisonResPercent;
-            case LIGHTING_RES -> lightingResPercent;
-            case LIGHT_RES -> lightResPercent;
-            case DARK_RES -> darkResPercent;
-            default -> 0;
-        };
+        int flat = values[type.getIndex()];
+        StatType scale = type.getScaledBy();
+        if (scale == null) return flat;
 
+        return Math.max(0, flat + (flat * values[scale.getIndex()] / PERCENT_SCALE));
     }
 
+    // ==================== VIEWS ====================
+
+    public int getBonusSTR() { return values[StatType.STR.getIndex()]; }
+    public int getBonusDEX() { return values[StatType.DEX.getIndex()]; }
+    public int getBonusVIT() { return values[StatType.VIT.getIndex()]; }
+    public int getBonusINT() { return values[StatType.INT.getIndex()]; }
+
+    public int getBasicDmg() { return values[StatType.BASIC_DAMAGE.getIndex()]; }
+
+    public int getPhysicalDmg() { return values[StatType.PHYSICAL_DAMAGE.getIndex()]; }
+    public int getFireDmg() { return values[StatType.FIRE_DAMAGE.getIndex()]; }
+    public int getIceDmg() { return values[StatType.ICE_DAMAGE.getIndex()]; }
+    public int getPoisonDmg() { return values[StatType.POISON_DAMAGE.getIndex()]; }
+    public int getLightingDmg() { return values[StatType.LIGHTING_DAMAGE.getIndex()]; }
+    public int getLightDmg() { return values[StatType.LIGHT_DAMAGE.getIndex()]; }
+    public int getDarkDmg() { return values[StatType.DARK_DAMAGE.getIndex()]; }
+
+    public int getPhysicalDmgPercent() { return values[StatType.PHYSICAL_DAMAGE_PERCENT.getIndex()]; }
+    public int getFireDmgPercent() { return values[StatType.FIRE_DAMAGE_PERCENT.getIndex()]; }
+    public int getIceDmgPercent() { return values[StatType.ICE_DAMAGE_PERCENT.getIndex()]; }
+    public int getPoisonDmgPercent() { return values[StatType.POISON_DAMAGE_PERCENT.getIndex()]; }
+    public int getLightingDmgPercent() { return values[StatType.LIGHTING_DAMAGE_PERCENT.getIndex()]; }
+    public int getLightDmgPercent() { return values[StatType.LIGHT_DAMAGE_PERCENT.getIndex()]; }
+    public int getDarkDmgPercent() { return values[StatType.DARK_DAMAGE_PERCENT.getIndex()]; }
+
+    public int getDefense() { return values[StatType.DEFENSE.getIndex()]; }
+    public int getDefensePercent() { return values[StatType.DEFENSE_PERCENT.getIndex()]; }
+
+    public int getPhysicalResPercent() { return values[StatType.PHYSICAL_RES.getIndex()]; }
+    public int getFireResPercent() { return values[StatType.FIRE_RES.getIndex()]; }
+    public int getIceResPercent() { return values[StatType.ICE_RES.getIndex()]; }
+    public int getPoisonResPercent() { return values[StatType.POISON_RES.getIndex()]; }
+    public int getLightingResPercent() { return values[StatType.LIGHTING_RES.getIndex()]; }
+    public int getLightResPercent() { return values[StatType.LIGHT_RES.getIndex()]; }
+    public int getDarkResPercent() { return values[StatType.DARK_RES.getIndex()]; }
+
+    public int getHp() { return values[StatType.HP.getIndex()]; }
+    public int getHpPercent() { return values[StatType.HP_PERCENT.getIndex()]; }
+    public int getMp() { return values[StatType.MP.getIndex()]; }
+    public int getMpPercent() { return values[StatType.MP_PERCENT.getIndex()]; }
+    public int getHpRegen() { return values[StatType.HP_REGEN.getIndex()]; }
+    public int getManaRegen() { return values[StatType.MANA_REGEN.getIndex()]; }
+    public int getHpLifesteal() { return values[StatType.LIFE_STEAL.getIndex()]; }
+    public int getManaLifesteal() { return values[StatType.MANA_STEAL.getIndex()]; }
+
+    public int getCriticalRatePercent() { return values[StatType.CRITICAL_RATE.getIndex()]; }
+    public int getCriticalDamage() { return values[StatType.CRITICAL_DAMAGE.getIndex()]; }
+    public int getEvadePercent() { return values[StatType.EVADE.getIndex()]; }
+    public int getReflectDamagePercent() { return values[StatType.REFLECT_DAMAGE.getIndex()]; }
+    public int getPenetrationPercent() { return values[StatType.PEN.getIndex()]; }
+
+    public int getAttackSkill() { return values[StatType.ATTACK_SKILL.getIndex()]; }
+    public int getBuffSkill() { return values[StatType.BUFF_SKILL.getIndex()]; }
+
+    public void setBasicDmg(int value) { set(StatType.BASIC_DAMAGE, value); }
+    public void setDefense(int value) { set(StatType.DEFENSE, value); }
+    public void setEvadePercent(int value) { set(StatType.EVADE, value); }
+    public void setReflectDamagePercent(int value) { set(StatType.REFLECT_DAMAGE, value); }
+    public void setPenetrationPercent(int value) { set(StatType.PEN, value); }
+
     public int calculateMitigatedDamage(DamageContext context) {
         int baseDamage = context.getDamage();
         DamageType type = context.getDamageType();
@@ -484,7 +380,7 @@ public class Stats {
         //log.info("Step 1 - Base Damage: {}, Resistance({}): {}%", baseDamage, type, resistance / 100.0);
 
         // 2️⃣ Apply penetration
-        resistance = Math.max(0, resistance - penetrationPercent);
+        resistance = Math.max(0, resistance - getPenetrationPercent());
         // log.info("Step 2 - Resistance after Penetration({}%): {}", penetrationPercent, resistance / 100.0);
 
         // 3️⃣ Diminishing returns on resistance
@@ -506,6 +402,7 @@ public class Stats {
         // log.info("Step 4 - FlatDef: {}, MaxFlatBlock: {}, Damage after Flat: {}", effectiveDef, maxFlatBlock, dmgAfterDef);
 
 
+        int defensePercent = getDefensePercent();
         int effectiveDefPct = (int) ((long) defensePercent * PERCENT_SCALE / (defensePercent + PERCENT_SCALE));
         long dmgAfterDefPct = dmgAfterDef * (PERCENT_SCALE - effectiveDefPct) / PERCENT_SCALE;
         //  log.info("Step 5 - Defense%: {}, EffectiveDef%: {}, Damage after Def%: {}", defensePercent, effectiveDefPct, dmgAfterDefPct);
@@ -516,16 +413,16 @@ public class Stats {
     }
 
     public int calculateReflectedDamage(int incomingDmg) {
-        return (int) ((long) incomingDmg * reflectDamagePercent / PERCENT_SCALE);
+        return (int) ((long) incomingDmg * getReflectDamagePercent() / PERCENT_SCALE);
     }
 
     public int calculateLifesteal(int damageDealt) {
-        long steal = (long) damageDealt * hpLifesteal / PERCENT_SCALE;
+        long steal = (long) damageDealt * getHpLifesteal() / PERCENT_SCALE;
         return (int) Math.max(1, steal);
     }
 
     public int calculateManasteal(int damageDealt) {
-        long steal = (long) damageDealt * manaLifesteal / PERCENT_SCALE;
+        long steal = (long) damageDealt * getManaLifesteal() / PERCENT_SCALE;
         return (int) Math.max(1, steal);
     }
 
@@ -1,5 +1,7 @@
 package handler;
 
+import database.DatabaseExecutor;
+import database.Lane;
 import game.guild.Guild;
 import game.guild.GuildManager;
 import game.equipment.PlayerEquipment;
@@ -179,8 +181,6 @@ public class DefaultHandler implements MessageHandler {
 
     private void handleLogin(Session s, Message m) throws IOException {
 
-        LanguageManager lang = LanguageManager.getInstance();
-
         String user = m.in().readUTF();
         String pass = m.in().readUTF();
         m.in().readUTF(); // version
@@ -197,58 +197,59 @@ public class DefaultHandler implements MessageHandler {
         m.in().readByte(); // fake byte
         short indexCharPar = m.in().readShort();
 
+        // Credentials and the character list are read on the login lane; the rest runs back on this session
         if (user.equals("1") && pass.equals("1")) {
             String newUser = String.format("user_%d", System.nanoTime());
             String newPass = "123456";
-            boolean register = AccountService.gI().createAccount(newUser, newPass);
-            if (register) {
-                Account account = AccountService.gI().login(newUser, newPass);
-
-                if (account == null) {
-                    NetworkService.gI().sendNoticeBox(s, lang.get(WRONG_CREDENTIAL, LanguageType.ENGLISH));
-                    return;
-                }
-
-
-                account.setIpAddress(s.getIpAddress());
-                s.setAccount(account);
-
-                AccountService.gI().save(account);
-                NetworkService.gI().sendSaveLogin(s, newUser, newPass);
-
-                if (indexCharPar != PartDataLoader.getPartIndex(s.getZoomLv())) {
-                    NetworkService.gI().sendPartChar(s);
-                    NetworkService.gI().sendListCharacter(s);
-
-                } else {
-                    NetworkService.gI().sendListCharacter(s);
-                }
-
-
-            }
-
+            DatabaseExecutor.gI().supply(Lane.LOGIN, () -> AccountService.gI().createAccount(newUser, newPass)
+                            ? AccountService.gI().login(newUser, newPass)
+                            : null)
+                    .thenAcceptAsync(account -> completeLogin(s, account, newUser, newPass, indexCharPar), s)
+                    .exceptionally(e -> {
+                        log.error("handleLogin() Failed: {}", e.getMessage());
+                        return null;
+                    });
             return;
         }
 
-        Account account = AccountService.gI().login(user, pass);
+        AccountService.gI().loginAsync(user, pass)
+                .thenAcceptAsync(account -> completeLogin(s, account, user, pass, indexCharPar), s)
+                .exceptionally(e -> {
+                    log.error("handleLogin() Failed: {}", e.getMessage());
+                    return null;
+                });
+    }
 
+    private void completeLogin(Session s, Account account, String user, String pass, short indexCharPar) {
         if (account == null) {
-            NetworkService.gI().sendNoticeBox(s, lang.get(WRONG_CREDENTIAL, LanguageType.ENGLISH));
+            NetworkService.gI().sendNoticeBox(s, LanguageManager.getInstance().get(WRONG_CREDENTIAL, LanguageType.ENGLISH));
             return;
         }
 
         account.setIpAddress(s.getIpAddress());
-        s.setAccount(account);
+        bindAccount(s, account);
 
-        AccountService.gI().save(account);
+        AccountService.gI().saveAsync(account);
         NetworkService.gI().sendSaveLogin(s, user, pass);
 
         if (indexCharPar != PartDataLoader.getPartIndex(s.getZoomLv())) {
             NetworkService.gI().sendPartChar(s);
-            NetworkService.gI().sendListCharacter(s);
+        }
+        CharacterLoader.gI().loadAccountAsync(account.getId())
+                .thenAcceptAsync(characters -> NetworkService.gI().sendListCharacter(s, characters), s)
+                .exceptionally(e -> {
+                    log.error("completeLogin() Failed: {}", e.getMessage());
+                    return null;
+                });
+    }
 
-        } else {
-            NetworkService.gI().sendListCharacter(s);
+    // Indexes the login and kicks an older session still logged in to the same account
+    private void bindAccount(Session s, Account account) {
+        Session previous = s.getServer().getSessionManager().bindAccount(s, account);
+        if (previous != null) {
+            log.info("Duplicate login for account {}, closing session {}", account.getId(), previous.getSessionId());
+            NetworkService.gI().sendNoticeBox(previous, LanguageManager.getInstance().get(ALREADY_LOGIN, previous.getLanguage()));
+            previous.closeAfterFlush();
         }
     }
 
@@ -307,7 +308,40 @@ public class DefaultHandler implements MessageHandler {
     private void handleSelectCharacter(Session s, Message m) throws IOException {
         m.in().readByte();
         int characterId = m.in().readInt();
-        Player player = PlayerService.gI().getPlayer(characterId);
+
+        // Reconnect within the warm window: rebind the live entity, no database round trip
+        if (rebindParked(s, characterId)) {
+            return;
+        }
+
+        // Row, containers, pet and friends in one batched load (coalesced with concurrent logins),
+        // off the session thread; the entity is built back on this session
+        CharacterLoader.gI().loadAsync(characterId)
+                .whenCompleteAsync((data, e) -> {
+                    if (e != null) {
+                        log.error("handleSelectCharacter() Failed: {}", e.getMessage());
+                    }
+                    enterWorld(s, characterId, e == null ? data : null);
+                }, s);
+    }
+
+    private boolean rebindParked(Session s, int characterId) {
+        PlayerEntity parked = PlayerCache.getInstance().take(characterId, s.getAccount().getId());
+        if (parked == null) {
+            return false;
+        }
+        s.bindPlayer(parked);
+        sendInitialPackets(parked);
+        return true;
+    }
+
+    private void enterWorld(Session s, int characterId, CharacterData data) {
+        // A second select may have won meanwhile, or the character was parked while loading
+        if (s.getPlayer() != null || rebindParked(s, characterId)) {
+            return;
+        }
+
+        Player player = data != null ? data.player() : null;
 
         if (player == null) {
             NetworkService.gI().sendNoticeBox(s, String.format("Character %d not found", characterId));
@@ -319,8 +353,12 @@ public class DefaultHandler implements MessageHandler {
         if (entity != null) {
             if (!entity.isModeBot()) {
                 entity.sendMessageDialog(LanguageManager.getInstance().get(ALREADY_LOGIN, s.getLanguage()));
-                entity.getSession().close();
-                entity.unbindSession();
+                Session old = entity.getSession();
+                if (old != null) {
+                    // Detach first: closing would otherwise park the entity we are about to rebind
+                    old.unbindPlayer();
+                    old.closeAfterFlush();
+                }
             }
             WorldManager.getInstance().leaveMap(entity);
             s.bindPlayer(entity);
@@ -333,7 +371,7 @@ public class DefaultHandler implements MessageHandler {
 
         entity = PlayerMapper.toEntity(player);
         s.bindPlayer(entity);
-        entity.initial();
+        entity.initial(data);
 //        if (s.getAccount().getLanguage() == null) {
 //            Menu selectLangMenu = Menu.builder()
 //                    .npc(CAOCAO.getId())
@@ -377,7 +415,6 @@ public class DefaultHandler implements MessageHandler {
         }
         WorldManager.getInstance().enterMap(player);
         player.getInventoryManager().updateInventory();
-        player.getInventoryManager().updateStorage();
 
         net.sendSkillTemplate(player);
         net.sendLoginRms(player);
@@ -1,5 +1,6 @@
 package handler;
 
+import database.EconomyAudit;
 import game.entity.player.PlayerEntity;
 import game.guild.*;
 import lombok.extern.slf4j.Slf4j;
@@ -40,6 +41,7 @@ public class GuildHandler {
                     p.sendMessageDialog("Gold tidak cukup");
                     return;
                 }
+                EconomyAudit.gI().gold(p, -gold, EconomyAudit.Reason.GUILD_DONATE, guild.getId());
                 GuildMember member = guild.getMember(p.getId());
                 if (member == null) return;
 
@@ -52,6 +54,7 @@ public class GuildHandler {
                     p.sendMessageDialog("Permata tidak cukup");
                     return;
                 }
+                EconomyAudit.gI().gem(p, -gem, EconomyAudit.Reason.GUILD_DONATE, guild.getId());
                 GuildMember member = guild.getMember(p.getId());
                 if (member == null) return;
 
@@ -66,6 +69,7 @@ public class GuildHandler {
                     return;
                 }
                 guild.setSlogan(m.in().readUTF());
+                guild.markDirty();
                 p.sendMessageDialog("Slogan guild berhasil diubah");
             }
 
@@ -75,6 +79,7 @@ public class GuildHandler {
                     return;
                 }
                 guild.setRules(m.in().readUTF());
+                guild.markDirty();
                 p.sendMessageDialog("Peraturan guild berhasil diubah");
             }
             case 2 -> {
@@ -83,6 +88,7 @@ public class GuildHandler {
                     return;
                 }
                 guild.setNotification(m.in().readUTF());
+                guild.markDirty();
                 p.sendMessageDialog("Notifikasi guild berhasil diubah");
             }
             case 18 -> {
@@ -119,6 +125,7 @@ public class GuildHandler {
                 }
 
                 member.setPosition(pos);
+                guild.markDirty();
                 p.sendMessageDialog(String.format("%s %s %s", name, notif, member.getRank().name()));
 
                 GuildService.getInstance().broadcast(guild, player -> {
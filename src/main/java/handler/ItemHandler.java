@@ -1,5 +1,6 @@
 package handler;
 
+import database.EconomyAudit;
 import game.entity.player.PlayerEntity;
 import game.equipment.EquipType;
 import game.inventory.InventorySlot;
@@ -207,11 +208,15 @@ public class ItemHandler {
                     if (optionalSlot.isEmpty()) continue;
 
                     InventorySlot bagSlot = optionalSlot.get();
+                    EconomyAudit.gI().item(p, bagSlot.getItem(), -2, EconomyAudit.Reason.UPGRADE_MATERIAL, 0);
                     bagSlot.decrease(2);
                 }
 
                 UpgradeService service = UpgradeService.getInstance();
+                int plusBefore = item.getPlus();
+                String pieceBefore = EconomyAudit.fingerprint(item);
                 service.sendUpgradeMedalResult(p, service.tryUpgrade(item, 0, item.getPlus() == 6 || item.getPlus() == 10), item);
+                EconomyAudit.gI().upgrade(p, item, plusBefore, pieceBefore);
 
                 if (item.getPlus() < 15) {
                     ItemService.getInstance().sendUpgradeMaterialMedal(p);
@@ -285,6 +290,8 @@ public class ItemHandler {
                     return;
                 }
                 EquipmentItem item = (EquipmentItem) slot.getItem();
+                int plusBefore = item.getPlus();
+                String pieceBefore = EconomyAudit.fingerprint(item);
 
                 if (p.getSession().getAccount().getRole() > 0) {
                     item.setPlus((byte) (item.getPlus() + (UpgradeService.MAX_LEVEL - item.getPlus())));
@@ -297,6 +304,7 @@ public class ItemHandler {
                     }
                 }
 
+                EconomyAudit.gI().upgrade(p, item, plusBefore, pieceBefore);
                 p.setLastUpgradeTime(now);
                 p.getInventoryManager().updateInventory();
                 service.sendClear(p);
@@ -8,11 +8,11 @@ import game.guild.Guild;
 import game.guild.GuildManager;
 import game.map.DropItem;
 import game.skill.SkillEntity;
+import game.skill.SkillProfile;
 import manager.MenuManager;
 import manager.WorldManager;
 import model.map.Vgo;
 import model.npc.Go;
-import model.skill.LvSkill;
 import network.Message;
 import network.Session;
 import service.NetworkService;
@@ -175,8 +175,8 @@ public class MapHandler {
             return;
         }
 
-        LvSkill lvSkill = skill.getCurrentLevelData();
-        if (lvSkill == null) {
+        SkillProfile profile = skill.getProfile();
+        if (profile == null || profile.getLevelData() == null) {
             NetworkService.gI().sendNoticeBox(s, "Skill tidak ditemukan");
             return;
         }
@@ -196,8 +196,8 @@ public class MapHandler {
                 if (monster.isMyGuild(guild.getId())) return;
             }
 
-            int targetCount = lvSkill.targetCount; // Maximal Mob
-            int areaRange = lvSkill.castRange; // IN RADIUS
+            int targetCount = profile.getTargetCount(); // Maximal Mob
+            int areaRange = profile.getCastRange(); // IN RADIUS
 
             if (targetCount == 1) {
 
@@ -248,8 +248,8 @@ public class MapHandler {
             return;
         }
 
-        LvSkill lvSkill = skill.getCurrentLevelData();
-        if (lvSkill == null) {
+        SkillProfile profile = skill.getProfile();
+        if (profile == null || profile.getLevelData() == null) {
             NetworkService.gI().sendNoticeBox(s, "Skill tidak ditemukan");
             return;
         }
@@ -268,8 +268,8 @@ public class MapHandler {
                 return;
             }
 
-            int targetCount = lvSkill.targetCount; // Maximal Mob
-            int areaRange = lvSkill.castRange; // IN RADIUS
+            int targetCount = profile.getTargetCount(); // Maximal Mob
+            int areaRange = profile.getCastRange(); // IN RADIUS
 
             if (targetCount == 1) {
 
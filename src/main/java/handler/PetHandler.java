@@ -106,6 +106,7 @@ public class PetHandler {
 
         double multiply = category == 4 ? 0.03 : 0.050;
         pet.addExperience(Math.round(pet.getRequiredExp() * multiply));
+        p.getPlayerPet().markDirty();
         slot.decrease();
         p.getInventoryManager().updateInventory();
         p.recalculateStats();
@@ -151,6 +152,7 @@ public class PetHandler {
                 }
 
                 pet.setFollow(true);
+                p.getPlayerPet().markDirty();
                 NetworkService.gI().removePetContainer(p, bagSlot);
                 if (activePet != null) {
                     NetworkService.gI().sendAddItemPetContainer(p, 9, activePet);
@@ -1,18 +1,23 @@
 package manager;
 
 import model.item.Fashion;
-import lombok.Getter;
-import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
 import model.item.*;
-import model.config.SVConfig;
 import utils.NumberUtils;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.stream.Collectors;
-
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Item templates. Each category is an id-indexed array inside one immutable {@link Registry};
+ * a (re)load builds the new arrays off to the side and publishes them with a single volatile
+ * write, so lookups take no lock and never see a half-loaded table.
+ */
+@Slf4j
 public final class ItemManager {
 
     public static final int EQUIPMENT_OFFSET = 0;
@@ -21,22 +26,19 @@ public final class ItemManager {
     private static final int LEVEL_STEP = 10;
     private static final int MAX_LEVEL_INDEX = 13;
 
+    private record Registry(EquipmentItem[] equipment,
+                            List<EquipmentItem>[] equipmentByLevel,
+                            PotionItem[] potions,
+                            MaterialItem[] materials,
+                            ItemOption[] options,
+                            Fashion[] fashion) {
+    }
 
-    private final Map<Integer, BaseItem> itemMap = new ConcurrentHashMap<>();
-
-    private final Map<Integer, ItemOption> itemOptionMap = new ConcurrentHashMap<>();
-
-    private final Map<Integer, Fashion> itemFashion = new ConcurrentHashMap<>();
-
-    @SuppressWarnings("unchecked")
-    private final ArrayList<EquipmentItem>[] equipmentByLevel =
-            new ArrayList[MAX_LEVEL_INDEX + 1];
-
+    private volatile Registry registry = new Registry(
+            new EquipmentItem[0], byLevel(List.of()), new PotionItem[0],
+            new MaterialItem[0], new ItemOption[0], new Fashion[0]);
 
     private ItemManager() {
-        for (int i = 0; i <= MAX_LEVEL_INDEX; i++) {
-            equipmentByLevel[i] = new ArrayList<>();
-        }
     }
 
     private static class Holder {
@@ -47,47 +49,60 @@ public final class ItemManager {
         return Holder.INSTANCE;
     }
 
+    // ==================== LOOKUPS ====================
+
     public EquipmentItem getEquipment(int id) {
-        EquipmentItem item = (EquipmentItem) itemMap.get(EQUIPMENT_OFFSET + id);
+        EquipmentItem item = at(registry.equipment(), id);
         return item != null ? item.copy() : null;
     }
 
+    /**
+     * Shared template instance, for read-only lookups. Use {@link #getEquipment(int)} for an item to hand out.
+     */
+    public EquipmentItem getEquipmentTemplate(int id) {
+        return at(registry.equipment(), id);
+    }
+
     public PotionItem getPotion(int id) {
-        return (PotionItem) itemMap.get(POTION_OFFSET + id);
+        return at(registry.potions(), id);
     }
 
     public MaterialItem getMaterial(int id) {
-        return (MaterialItem) itemMap.get(MATERIAL_OFFSET + id);
+        return at(registry.materials(), id);
     }
 
-    public void addEquipment(EquipmentItem item) {
-        itemMap.put(EQUIPMENT_OFFSET + item.getId(), item);
-        if (item.getColor() != 5) {
-            equipmentByLevel[levelIndex(item.getLevel())].add(item);
-        }
+    public ItemOption getOption(int id) {
+        return at(registry.options(), id);
     }
 
-    public void addPotion(PotionItem item) {
-        itemMap.put(POTION_OFFSET + item.getId(), item);
+    public Fashion getFashion(int itemId) {
+        return at(registry.fashion(), itemId);
     }
 
-    public void addMaterial(MaterialItem item) {
-        itemMap.put(MATERIAL_OFFSET + item.getId(), item);
+    /**
+     * Templates of one kind, in id order.
+     */
+    public <T extends BaseItem> List<T> filterByClass(Class<T> clazz) {
+        Registry current = registry;
+        List<T> result = new ArrayList<>();
+        for (BaseItem[] table : new BaseItem[][]{current.equipment(), current.potions(), current.materials()}) {
+            for (BaseItem item : table) {
+                if (clazz.isInstance(item)) result.add(clazz.cast(item));
+            }
+        }
+        return result;
     }
 
-    public ItemOption getOption(int id) {
-        return itemOptionMap.get(id);
+    public List<ItemOption> getAllItemOption() {
+        return Arrays.stream(registry.options()).filter(Objects::nonNull).toList();
     }
 
-    public <T extends BaseItem> List<T> filterByClass(Class<T> clazz) {
-        return itemMap.values().stream()
-                .filter(clazz::isInstance)
-                .map(clazz::cast)
-                .collect(Collectors.toList());
+    public EquipmentItem randomEquipment(int level) {
+        return randomFrom(registry.equipmentByLevel()[levelIndex(level)]);
     }
 
-    public EquipmentItem randomEquipment(int level) {
-        return randomFrom(equipmentByLevel[levelIndex(level)]);
+    private static <T> T at(T[] table, int id) {
+        return id >= 0 && id < table.length ? table[id] : null;
     }
 
     private static int levelIndex(int level) {
@@ -101,33 +116,70 @@ public final class ItemManager {
         return list.get(NumberUtils.randomInt(0, list.size() - 1));
     }
 
-    public void addItemOption(ItemOption item) {
-        itemOptionMap.put(item.getId(), item);
-    }
+    // ==================== PUBLISH ====================
 
+    public synchronized void loadEquipment(List<EquipmentItem> items) {
+        Registry r = registry;
+        registry = new Registry(index(items, EquipmentItem::getId, EquipmentItem[]::new), byLevel(items),
+                r.potions(), r.materials(), r.options(), r.fashion());
+    }
 
-    public List<ItemOption> getAllItemOption() {
-        return itemOptionMap.values().stream().toList();
+    public synchronized void loadPotions(List<PotionItem> items) {
+        Registry r = registry;
+        registry = new Registry(r.equipment(), r.equipmentByLevel(), index(items, PotionItem::getId, PotionItem[]::new),
+                r.materials(), r.options(), r.fashion());
     }
 
-    public void addFashion(Fashion item) {
-        itemFashion.put(item.getItemId(), item);
+    public synchronized void loadMaterials(List<MaterialItem> items) {
+        Registry r = registry;
+        registry = new Registry(r.equipment(), r.equipmentByLevel(), r.potions(),
+                index(items, MaterialItem::getId, MaterialItem[]::new), r.options(), r.fashion());
     }
 
-    public Fashion getFashion(int itemId) {
-        return itemFashion.get(itemId);
+    public synchronized void loadOptions(List<ItemOption> options) {
+        Registry r = registry;
+        registry = new Registry(r.equipment(), r.equipmentByLevel(), r.potions(), r.materials(),
+                index(options, ItemOption::getId, ItemOption[]::new), r.fashion());
     }
 
-    public void clearAll() {
+    public synchronized void loadFashion(List<Fashion> fashion) {
+        Registry r = registry;
+        registry = new Registry(r.equipment(), r.equipmentByLevel(), r.potions(), r.materials(), r.options(),
+                index(fashion, Fashion::getItemId, Fashion[]::new));
+    }
 
-        itemMap.clear();
-        itemOptionMap.clear();
-        itemFashion.clear();
+    // Array sized to the highest id; rows with a negative id cannot be looked up and are skipped
+    private static <T> T[] index(List<T> rows, ToIntFunction<T> id, IntFunction<T[]> array) {
+        int max = -1;
+        for (T row : rows) {
+            max = Math.max(max, id.applyAsInt(row));
+        }
+        T[] table = array.apply(max + 1);
+        for (T row : rows) {
+            int key = id.applyAsInt(row);
+            if (key < 0) {
+                log.warn("Skipping {} with negative id {}", row.getClass().getSimpleName(), key);
+                continue;
+            }
+            table[key] = row;
+        }
+        return table;
+    }
 
-        // clear equipment by level
+    @SuppressWarnings("unchecked")
+    private static List<EquipmentItem>[] byLevel(List<EquipmentItem> items) {
+        List<EquipmentItem>[] buckets = new List[MAX_LEVEL_INDEX + 1];
         for (int i = 0; i <= MAX_LEVEL_INDEX; i++) {
-            equipmentByLevel[i].clear();
+            buckets[i] = new ArrayList<>();
         }
+        for (EquipmentItem item : items) {
+            if (item.getColor() != 5) {
+                buckets[levelIndex(item.getLevel())].add(item);
+            }
+        }
+        for (int i = 0; i <= MAX_LEVEL_INDEX; i++) {
+            buckets[i] = List.copyOf(buckets[i]);
+        }
+        return buckets;
     }
-
 }
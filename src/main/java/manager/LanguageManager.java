@@ -16,7 +16,12 @@ import java.util.Map;
 @Slf4j
 public final class LanguageManager {
 
-    private volatile Map<String, EnumMap<LanguageType, String>> data = new HashMap<>();
+    // Texts by name, plus the same texts indexed [Key.ordinal()][LanguageType.ordinal()] for
+    // the hot lookup; replaced as a whole, never mutated after publishing
+    private record Registry(Map<String, EnumMap<LanguageType, String>> byName, String[][] byKey) {
+    }
+
+    private volatile Registry registry = new Registry(Map.of(), new String[Key.values().length][]);
 
     private LanguageManager() {
     }
@@ -31,36 +36,52 @@ public final class LanguageManager {
 
     public synchronized void loadLanguages() {
         try {
-            final List<Language> rows = SQL.from(Language.class).get();
-            final Map<String, EnumMap<LanguageType, String>> fresh = new HashMap<>(rows.size());
+            load(SQL.from(Language.class).get());
+        } catch (SQLException e) {
+            log.error("LanguageManager failed to load language data.", e);
+        }
+    }
 
-            for (Language entry : rows) {
-                final EnumMap<LanguageType, String> texts = new EnumMap<>(LanguageType.class);
+    public synchronized void load(List<Language> rows) {
+        final Map<String, EnumMap<LanguageType, String>> fresh = new HashMap<>(rows.size());
 
-                for (LanguageType lang : LanguageType.values()) {
-                    final String text = entry.getText(lang);
-                    if (text != null && !text.isEmpty()) {
-                        texts.put(lang, text);
-                    }
-                }
+        for (Language entry : rows) {
+            final EnumMap<LanguageType, String> texts = new EnumMap<>(LanguageType.class);
 
-                fresh.put(entry.getName(), texts);
+            for (LanguageType lang : LanguageType.values()) {
+                final String text = entry.getText(lang);
+                if (text != null && !text.isEmpty()) {
+                    texts.put(lang, text);
+                }
             }
 
-            data = fresh;
-            log.info("LanguageManager loaded {} keys.", fresh.size());
+            fresh.put(entry.getName(), texts);
+        }
 
-        } catch (SQLException e) {
-            log.error("LanguageManager failed to load language data.", e);
+        publish(fresh);
+        log.info("LanguageManager loaded {} keys.", fresh.size());
+    }
+
+    private void publish(Map<String, EnumMap<LanguageType, String>> byName) {
+        String[][] byKey = new String[Key.values().length][];
+        for (Key key : Key.values()) {
+            EnumMap<LanguageType, String> texts = byName.get(key.name());
+            if (texts == null) continue;
+
+            String[] row = new String[LanguageType.values().length];
+            texts.forEach((lang, text) -> row[lang.ordinal()] = text);
+            byKey[key.ordinal()] = row;
         }
+        registry = new Registry(byName, byKey);
     }
 
 
     public String get(Key key, LanguageType lang) {
-        final EnumMap<LanguageType, String> texts = data.get(key.name());
+        final String[] texts = registry.byKey()[key.ordinal()];
         if (texts == null) return "[MISSING:" + key + "]";
-        return texts.getOrDefault(lang,
-                texts.getOrDefault(LanguageType.ENGLISH, "[NO_TEXT:" + key + "]"));
+        String text = texts[lang.ordinal()];
+        if (text == null) text = texts[LanguageType.ENGLISH.ordinal()];
+        return text != null ? text : "[NO_TEXT:" + key + "]";
     }
 
     public String get(Key key, LanguageType lang, Object... args) {
@@ -72,11 +93,17 @@ public final class LanguageManager {
     }
 
 
-    public void register(String key, LanguageType lang, String text) {
-        data.computeIfAbsent(key, k -> new EnumMap<>(LanguageType.class)).put(lang, text);
+    public synchronized void register(String key, LanguageType lang, String text) {
+        Map<String, EnumMap<LanguageType, String>> fresh = new HashMap<>(registry.byName());
+        EnumMap<LanguageType, String> texts = fresh.containsKey(key)
+                ? new EnumMap<>(fresh.get(key))
+                : new EnumMap<>(LanguageType.class);
+        texts.put(lang, text);
+        fresh.put(key, texts);
+        publish(fresh);
     }
 
     public boolean contains(String key) {
-        return data.containsKey(key);
+        return registry.byName().containsKey(key);
     }
 }
\ No newline at end of file
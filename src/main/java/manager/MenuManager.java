@@ -1,6 +1,10 @@
 package manager;
 
+import database.ContentBundle;
+import database.DatabaseExecutor;
 import database.DatabaseLoader;
+import database.EconomyAudit;
+import database.Lane;
 import game.effects.StatEffect;
 import game.effects.StatModifier;
 import game.entity.player.PlayerEntity;
@@ -37,6 +41,7 @@ import utils.StringUtils;
 import utils.ValidationUtils;
 
 import java.io.IOException;
+import java.sql.SQLException;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
@@ -452,6 +457,31 @@ public class MenuManager {
                 .menu("Reload Database", player -> DatabaseLoader.getInstance().reloadAll(() -> {
                     WorldManager.getInstance().worldBroadcast(pl -> WorldManager.getInstance().changeMap(pl, pl.getPosition()));
                 }))
+                .menu("Reload Content", player -> {
+                    InputDialog dialog = InputDialog
+                            .builder()
+                            .title("Reload " + DatabaseLoader.getInstance().getReloadCategories())
+                            .npcId(-100)
+                            .fields(List.of("Category"))
+                            .action((p, args) -> DatabaseLoader.getInstance().reload(args[0])
+                                    .whenCompleteAsync((ignored, e) -> NetworkService.gI().sendToast(p, e == null
+                                            ? args[0] + " reloaded"
+                                            : "Reload failed: " + e.getMessage()), p.getSession()))
+                            .build();
+
+                    player.openInput(dialog);
+                })
+                .menu("Export Content Bundle", player -> DatabaseExecutor.gI()
+                        .supply(Lane.REPORTING, () -> {
+                            try {
+                                return ContentBundle.export(ContentBundle.PATH);
+                            } catch (IOException e) {
+                                throw new SQLException("Bundle write failed: " + e.getMessage(), e);
+                            }
+                        })
+                        .whenCompleteAsync((size, e) -> NetworkService.gI().sendToast(player, e == null
+                                ? String.format("Content bundle exported (%d KB)", size / 1024)
+                                : "Export failed: " + e.getMessage()), player.getSession()))
 
                 .menu("Back", "Tutup", PlayerEntity::navigateToParent)
                 .build();
@@ -813,10 +843,12 @@ public class MenuManager {
         LanguageManager lang = LanguageManager.getInstance();
 
         MenuHelper helper = MenuHelper.forNpc(AMAN.getId());
+        player.getInventoryManager().prefetchStorage();
 
         helper.menu(lang.get(OPEN_STORAGE, player.getLanguage()), p -> {
-            p.getInventoryManager().openPlayerStorage();
-            ShopService.getInstance().sendShop(p, AMAN);
+            if (p.getInventoryManager().openPlayerStorage()) {
+                ShopService.getInstance().sendShop(p, AMAN);
+            }
         });
 
         if (player.getSession().getAccount().getUser().contains("user_")) {
@@ -980,6 +1012,7 @@ public class MenuManager {
                                     pl.sendMessageDialog("Gold tidak cukup");
                                     return;
                                 }
+                                EconomyAudit.gI().gold(pl, -gold, EconomyAudit.Reason.GUILD_DONATE, guild.getId());
                                 GuildMember member = guild.getMember(pl.getId());
                                 if (member == null) return;
 
@@ -1009,6 +1042,7 @@ public class MenuManager {
                                     pl.sendMessageDialog("Permata tidak cukup");
                                     return;
                                 }
+                                EconomyAudit.gI().gem(pl, -amt, EconomyAudit.Reason.GUILD_DONATE, guild.getId());
                                 GuildMember member = guild.getMember(pl.getId());
                                 if (member == null) return;
 
@@ -4,10 +4,16 @@ import model.monster.Monster;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Monster templates by id, published as one immutable array (see {@link ItemManager}).
+ */
 public class MonsterManager {
-    private final ConcurrentHashMap<Integer, Monster> monsters = new ConcurrentHashMap<>();
+
+    private record Registry(Monster[] byId, List<Monster> templates) {
+    }
+
+    private volatile Registry registry = new Registry(new Monster[0], List.of());
 
     private MonsterManager() {
     }
@@ -20,19 +26,32 @@ public class MonsterManager {
         return MonsterManager.Holder.INSTANCE;
     }
 
-    public void addMonster(Monster monster) {
-        monsters.put(monster.getMid(), monster);
+    /**
+     * Replaces every template in one swap; the last row wins for a duplicated id.
+     */
+    public synchronized void load(List<Monster> monsters) {
+        int max = -1;
+        for (Monster monster : monsters) {
+            max = Math.max(max, monster.getMid());
+        }
+        Monster[] byId = new Monster[max + 1];
+        for (Monster monster : monsters) {
+            if (monster.getMid() >= 0) byId[monster.getMid()] = monster;
+        }
+
+        List<Monster> templates = new ArrayList<>();
+        for (Monster monster : byId) {
+            if (monster != null) templates.add(monster);
+        }
+        registry = new Registry(byId, List.copyOf(templates));
     }
 
     public Monster getMonster(int id) {
-        return monsters.get(id);
+        Monster[] byId = registry.byId();
+        return id >= 0 && id < byId.length ? byId[id] : null;
     }
 
     public List<Monster> getTemplates() {
-        return new ArrayList<>(monsters.values());
-    }
-
-    public void clear() {
-        monsters.clear();
+        return new ArrayList<>(registry.templates());
     }
 }
@@ -3,11 +3,15 @@ package manager;
 import model.npc.NpcData;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * NPC templates by id, published as one immutable map (see {@link ItemManager}).
+ */
 public class NpcManager {
 
-    private final Map<Integer, NpcData> npcData = new HashMap<>();
+    private volatile Map<Integer, NpcData> npcData = Map.of();
 
     private NpcManager() {
     }
@@ -20,17 +24,18 @@ public class NpcManager {
         return NpcManager.Holder.INSTANCE;
     }
 
-    public void addNpc(NpcData npc) {
-        if (npc == null) return;
-
-        npcData.putIfAbsent(npc.getId(), npc);
+    /**
+     * Replaces every template in one swap; the first row wins for a duplicated id.
+     */
+    public synchronized void load(List<NpcData> rows) {
+        Map<Integer, NpcData> fresh = new HashMap<>();
+        for (NpcData npc : rows) {
+            if (npc != null) fresh.putIfAbsent(npc.getId(), npc);
+        }
+        npcData = Map.copyOf(fresh);
     }
 
     public NpcData getNpc(int id) {
         return npcData.get(id);
     }
-
-    public void clear() {
-        npcData.clear();
-    }
 }
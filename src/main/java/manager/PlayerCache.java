@@ -0,0 +1,195 @@
+package manager;
+
+import database.SaveScheduler;
+import game.entity.player.PlayerEntity;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Recently disconnected players, kept live for a short window.
+ * <p>
+ * A disconnect parks the {@link PlayerEntity} here (with whatever its dirty trackers still hold)
+ * instead of saving it; a reconnect within the window takes it back without any database I/O.
+ * Expiry, capacity eviction and shutdown perform the final save. Parked players are still
+ * flushed by autosave, so a crash loses no more than it would for an online player.
+ */
+@Slf4j
+public class PlayerCache {
+
+    private static final int CAPACITY = 2000;
+    private static final long TTL_MS = TimeUnit.MINUTES.toMillis(5);
+    private static final long SWEEP_SECONDS = 15;
+
+    private static final class Parked {
+        final PlayerEntity player;
+        final long parkedAt;
+        final AtomicBoolean evicting = new AtomicBoolean(false);
+
+        Parked(PlayerEntity player, long parkedAt) {
+            this.player = player;
+            this.parkedAt = parkedAt;
+        }
+    }
+
+    // characterId -> parked player
+    private final Map<Integer, Parked> parked = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "PlayerCache");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private PlayerCache() {
+        sweeper.scheduleWithFixedDelay(this::sweep, SWEEP_SECONDS, SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private static class Holder {
+        private static final PlayerCache INSTANCE = new PlayerCache();
+    }
+
+    public static PlayerCache getInstance() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Keeps a player that just lost its session. Must already have left the map; an entity still
+     * bound to a session or a zone is in play and is refused.
+     */
+    public void park(PlayerEntity player) {
+        if (isLive(player)) {
+            log.warn("Refusing to park player {}: still bound to a session or a map", player.getId());
+            return;
+        }
+        Parked previous = parked.put(player.getId(), new Parked(player, System.currentTimeMillis()));
+        if (previous != null && previous.player != player) {
+            evict(previous); // a different instance of the same character: do not lose its state
+        }
+
+        if (parked.size() > CAPACITY) {
+            evictOldest();
+        }
+        log.debug("Parked player {} ({} parked)", player.getId(), parked.size());
+    }
+
+    /**
+     * Takes a parked player back for a reconnecting session of the same account.
+     *
+     * @return the live entity, or null when it is not parked (or belongs to another account)
+     */
+    public PlayerEntity take(int characterId, int accountId) {
+        Parked entry = parked.get(characterId);
+        if (entry == null || entry.player.getUid() != accountId) {
+            return null;
+        }
+        if (isLive(entry.player)) {
+            parked.remove(characterId, entry); // back in play elsewhere, so not ours to hand out
+            return null;
+        }
+        // A final save may still be running; it only writes this same instance, so reuse is safe
+        if (!parked.remove(characterId, entry)) {
+            return null;
+        }
+        log.debug("Rebound parked player {}", characterId);
+        return entry.player;
+    }
+
+    /**
+     * Snapshot of the parked players, for autosave.
+     */
+    public List<PlayerEntity> getParkedPlayers() {
+        List<PlayerEntity> players = new ArrayList<>(parked.size());
+        for (Parked entry : parked.values()) {
+            players.add(entry.player);
+        }
+        return players;
+    }
+
+    /**
+     * Visits the parked players without copying, for the per-tick journal capture.
+     */
+    public void forEachParked(Consumer<PlayerEntity> action) {
+        for (Parked entry : parked.values()) {
+            action.accept(entry.player);
+        }
+    }
+
+    public int size() {
+        return parked.size();
+    }
+
+    private static boolean isLive(PlayerEntity player) {
+        return player.getSession() != null || player.getZone() != null;
+    }
+
+    // ==================== EVICTION ====================
+
+    private void sweep() {
+        try {
+            long now = System.currentTimeMillis();
+            for (Parked entry : parked.values()) {
+                if (now - entry.parkedAt >= TTL_MS) {
+                    evict(entry);
+                }
+            }
+        } catch (Exception e) {
+            log.error("PlayerCache sweep failed", e);
+        }
+    }
+
+    private void evictOldest() {
+        Parked oldest = null;
+        for (Parked entry : parked.values()) {
+            if (!entry.evicting.get() && (oldest == null || entry.parkedAt < oldest.parkedAt)) {
+                oldest = entry;
+            }
+        }
+        if (oldest != null) {
+            evict(oldest);
+        }
+    }
+
+    // Final save through the scheduler; the entry leaves the cache once it is written
+    private void evict(Parked entry) {
+        if (!entry.evicting.compareAndSet(false, true)) return;
+        if (isLive(entry.player)) {
+            parked.remove(entry.player.getId(), entry); // its session saves it now
+            return;
+        }
+
+        SaveScheduler.gI().request(entry.player, true)
+                .whenComplete((complete, e) -> {
+                    if (e != null || !complete) {
+                        log.error("Final save of parked player {} failed", entry.player.getId());
+                        entry.evicting.set(false); // retried by the next sweep
+                        return;
+                    }
+                    parked.remove(entry.player.getId(), entry);
+                });
+    }
+
+    /**
+     * Saves and drops every parked player, blocking. Used on shutdown.
+     */
+    public void evictAll() {
+        sweeper.shutdownNow();
+        List<CompletableFuture<Boolean>> saves = new ArrayList<>(parked.size());
+        for (Parked entry : parked.values()) {
+            saves.add(SaveScheduler.gI().request(entry.player, true));
+        }
+        SaveScheduler.gI().unthrottle();
+        try {
+            CompletableFuture.allOf(saves.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("evictAll() Failed: {}", e.getMessage());
+        }
+        log.info("Saved {} parked players", saves.size());
+        parked.clear();
+    }
+}
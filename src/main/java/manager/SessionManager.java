@@ -1,29 +1,52 @@
 package manager;
 
-import database.DataSaver;
+import database.SaveScheduler;
 import game.party.Party;
 import game.party.PartyManager;
 import lombok.extern.slf4j.Slf4j;
+import model.account.Account;
 import network.Message;
 import network.Session;
 import game.entity.player.PlayerEntity;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
+/**
+ * Registry of connected sessions, indexed so that accepting, closing and per-IP limit checks
+ * stay O(1) however many players are online:
+ * <ul>
+ *   <li>id &rarr; session, the id being assigned on register and kept on the session</li>
+ *   <li>IP &rarr; live connection count, so a limit check is a single lookup</li>
+ *   <li>account &rarr; session, for kicking the older session on a duplicate login</li>
+ * </ul>
+ * Broadcasts iterate a dense array snapshot of the sessions, rebuilt lazily after the set changes.
+ */
 @Slf4j
 public class SessionManager {
 
-    private final Map<String, Session> sessionsByIp = new ConcurrentHashMap<>();
+    private static final Session[] NO_SESSIONS = new Session[0];
+
     private final Map<Integer, Session> sessionsById = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> connectionsByIp = new ConcurrentHashMap<>();
+    private final Map<Integer, Session> sessionsByAccount = new ConcurrentHashMap<>();
     private final AtomicInteger sessionIdGenerator = new AtomicInteger(0);
 
+    // Dense copy of sessionsById.values() for iteration; stale after register/unregister
+    private volatile Session[] snapshot = NO_SESSIONS;
+    private final AtomicBoolean snapshotStale = new AtomicBoolean(false);
+
     private final ScheduledExecutorService cleanupScheduler;
     private final int maxSessionsPerIp;
     private final long sessionTimeoutMs;
@@ -45,6 +68,8 @@ public class SessionManager {
         cleanupScheduler.scheduleAtFixedRate(this::cleanupInactiveSessions, 60, 60, TimeUnit.SECONDS);
     }
 
+    // ==================== REGISTRATION ====================
+
     /**
      * Register a new session
      */
@@ -55,20 +80,15 @@ public class SessionManager {
         }
 
         String ip = session.getIpAddress();
-
-        // Check IP connection limit - FIX: use startsWith to count all sessions from this IP
-        long connectionsFromIp = sessionsByIp.keySet().stream()
-                .filter(key -> key.startsWith(ip + ":"))
-                .count();
-
-        if (connectionsFromIp >= maxSessionsPerIp) {
-            log.warn("Connection limit reached for IP: {} ({}/{})", ip, connectionsFromIp, maxSessionsPerIp);
+        if (!acquireIp(ip)) {
+            log.warn("Connection limit reached for IP: {} ({}/{})", ip, connectionCount(ip), maxSessionsPerIp);
             return false;
         }
 
         int sessionId = sessionIdGenerator.incrementAndGet();
+        session.setSessionId(sessionId);
         sessionsById.put(sessionId, session);
-        sessionsByIp.put(ip + ":" + sessionId, session);
+        snapshotStale.set(true);
 
         log.info("Session registered: ID={}, IP={}, Total sessions: {}",
                 sessionId, ip, sessionsById.size());
@@ -86,9 +106,14 @@ public class SessionManager {
 
         String ip = session.getIpAddress();
 
-        // Remove from both maps
-        sessionsById.values().removeIf(s -> s == session);
-        sessionsByIp.entrySet().removeIf(entry -> entry.getValue() == session);
+        // Only the call that actually removes the session gives its IP slot back
+        if (session.getSessionId() != 0 && sessionsById.remove(session.getSessionId(), session)) {
+            releaseIp(ip);
+            snapshotStale.set(true);
+        }
+        if (session.getAccount() != null) {
+            sessionsByAccount.remove(session.getAccount().getId(), session);
+        }
 
         PlayerEntity p = session.getPlayer();
         if (p == null) {
@@ -105,11 +130,76 @@ public class SessionManager {
 
         session.unbindPlayer();
 
-        DataSaver.savePlayerData(p);
+        if (p.isModeBot()) {
+            // Stays in the world as a bot; autosave keeps it current
+            SaveScheduler.gI().request(p, true);
+        } else {
+            // Kept warm for a quick reconnect; the cache does the final save on expiry
+            PlayerCache.getInstance().park(p);
+        }
 
         log.info("Session unregistered: IP={}, Remaining sessions: {}", ip, sessionsById.size());
     }
 
+    /**
+     * Sets the just authenticated account on the session and indexes it.
+     *
+     * @return the session previously logged in to the same account, which the caller should kick,
+     * or null
+     */
+    public Session bindAccount(Session session, Account account) {
+        Account old = session.getAccount();
+        if (old != null && old.getId() != account.getId()) {
+            sessionsByAccount.remove(old.getId(), session);
+        }
+        session.setAccount(account);
+
+        Session previous = sessionsByAccount.put(account.getId(), session);
+        return previous == session ? null : previous;
+    }
+
+    // Counts the connection against its IP unless that would exceed the limit, atomically per IP
+    private boolean acquireIp(String ip) {
+        boolean[] acquired = new boolean[1];
+        connectionsByIp.compute(ip, (key, count) -> {
+            if (count == null) count = new AtomicInteger();
+            if (count.get() < maxSessionsPerIp) {
+                count.incrementAndGet();
+                acquired[0] = true;
+            }
+            return count.get() == 0 ? null : count;
+        });
+        return acquired[0];
+    }
+
+    private void releaseIp(String ip) {
+        connectionsByIp.computeIfPresent(ip, (key, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    private int connectionCount(String ip) {
+        AtomicInteger count = connectionsByIp.get(ip);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Dense array of the registered sessions; callers must not modify it.
+     */
+    private Session[] sessions() {
+        if (snapshotStale.get()) {
+            rebuildSnapshot();
+        }
+        return snapshot;
+    }
+
+    // Serialized so an older rebuild can never overwrite a newer one
+    private synchronized void rebuildSnapshot() {
+        if (snapshotStale.getAndSet(false)) {
+            snapshot = sessionsById.values().toArray(NO_SESSIONS);
+        }
+    }
+
+    // ==================== LOOKUP ====================
+
     /**
      * Get session by ID
      */
@@ -117,13 +207,22 @@ public class SessionManager {
         return sessionsById.get(sessionId);
     }
 
+    /**
+     * Get the session logged in to an account
+     */
+    public Session getSessionByAccount(int accountId) {
+        return sessionsByAccount.get(accountId);
+    }
+
     /**
      * Get all sessions from a specific IP
      */
     public Collection<Session> getSessionsByIp(String ip) {
-        return sessionsByIp.entrySet().stream()
-                .filter(entry -> entry.getKey().startsWith(ip + ":"))
-                .map(Map.Entry::getValue)
+        if (connectionCount(ip) == 0) {
+            return List.of();
+        }
+        return Arrays.stream(sessions())
+                .filter(session -> session.getIpAddress().equals(ip))
                 .toList();
     }
 
@@ -131,7 +230,7 @@ public class SessionManager {
      * Get all active sessions
      */
     public Collection<Session> getAllSessions() {
-        return sessionsById.values();
+        return Collections.unmodifiableList(Arrays.asList(sessions()));
     }
 
     /**
@@ -145,53 +244,62 @@ public class SessionManager {
      * Check if an IP has reached connection limit
      */
     public boolean isIpLimitReached(String ip) {
-        long count = sessionsByIp.keySet().stream()
-                .filter(key -> key.startsWith(ip + ":"))
-                .count();
-        return count >= maxSessionsPerIp;
+        return connectionCount(ip) >= maxSessionsPerIp;
     }
 
+    // ==================== BROADCAST ====================
+
     /**
      * Broadcast message to all sessions
      */
     public void broadcast(Message message) {
-        sessionsById.values().forEach(session -> session.send(message));
-        log.debug("Broadcasted message to {} sessions", sessionsById.size());
+        Session[] sessions = sessions();
+        for (Session session : sessions) {
+            session.send(message);
+        }
+        log.debug("Broadcasted message to {} sessions", sessions.length);
     }
 
     /**
      * Broadcast message to all sessions except one
      */
     public void broadcastExcept(Message message, Session excludeSession) {
-        sessionsById.values().stream()
-                .filter(session -> session != excludeSession)
-                .forEach(session -> session.send(message));
+        for (Session session : sessions()) {
+            if (session != excludeSession) session.send(message);
+        }
     }
 
     /**
      * Broadcast message with custom filter
      */
     public void broadcastFiltered(Message message, java.util.function.Predicate<Session> filter) {
-        sessionsById.values().stream()
-                .filter(filter)
-                .forEach(session -> session.send(message));
+        for (Session session : sessions()) {
+            if (filter.test(session)) session.send(message);
+        }
     }
 
     /**
      * Execute action on all sessions
      */
     public void forEachSession(Consumer<Session> action) {
-        sessionsById.values().forEach(action);
+        for (Session session : sessions()) {
+            action.accept(session);
+        }
     }
 
+    // ==================== CLOSING ====================
+
     /**
      * Close all sessions
      */
     public void closeAll() {
         log.info("Closing all sessions: {}", sessionsById.size());
+        // Each close unregisters itself, which also unindexes its IP and account
         sessionsById.values().forEach(Session::close);
         sessionsById.clear();
-        sessionsByIp.clear();
+        connectionsByIp.clear();
+        sessionsByAccount.clear();
+        snapshotStale.set(true);
     }
 
     /**
@@ -215,28 +323,21 @@ public class SessionManager {
     }
 
     /**
-     * Periodic cleanup of inactive/dead sessions
+     * Periodic sweep for sessions that were closed but are somehow still indexed.
+     * Close normally unregisters, so this should find nothing.
      */
     private void cleanupInactiveSessions() {
         try {
-            int initialCount = sessionsById.size();
-
-            // Remove sessions that are closed or disconnected
-            sessionsById.entrySet().removeIf(entry -> {
-                Session session = entry.getValue();
-                String ip = session.getIpAddress();
-                return ip.equals("disconnected");
-            });
-
-            sessionsByIp.entrySet().removeIf(entry -> {
-                Session session = entry.getValue();
-                String ip = session.getIpAddress();
-                return ip.equals("disconnected");
-            });
-
-            int removedCount = initialCount - sessionsById.size();
+            int removedCount = 0;
+            for (Session session : sessions()) {
+                if (session.isClosed() && sessionsById.containsKey(session.getSessionId())) {
+                    unregister(session);
+                    removedCount++;
+                }
+            }
+
             if (removedCount > 0) {
-                log.debug("Cleaned up {} inactive sessions. Active sessions: {}",
+                log.warn("Cleaned up {} closed sessions left registered. Active sessions: {}",
                         removedCount, sessionsById.size());
             }
         } catch (Exception e) {
@@ -248,17 +349,13 @@ public class SessionManager {
      * Get session statistics
      */
     public SessionStats getStats() {
-        Map<String, Integer> connectionsByIp = new ConcurrentHashMap<>();
-
-        sessionsByIp.keySet().forEach(key -> {
-            String ip = key.substring(0, key.lastIndexOf(':'));
-            connectionsByIp.merge(ip, 1, Integer::sum);
-        });
+        Map<String, Integer> connections = new HashMap<>();
+        connectionsByIp.forEach((ip, count) -> connections.put(ip, count.get()));
 
         return new SessionStats(
                 sessionsById.size(),
-                connectionsByIp.size(),
-                connectionsByIp
+                connections.size(),
+                connections
         );
     }
 
@@ -279,6 +376,7 @@ public class SessionManager {
         }
 
         closeAll();
+        PlayerCache.getInstance().evictAll();
         log.info("SessionManager shutdown complete");
     }
 
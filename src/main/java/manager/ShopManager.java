@@ -4,15 +4,19 @@ import lombok.extern.slf4j.Slf4j;
 import model.shop.Shop;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Shops by name, published as one immutable map (see {@link ItemManager}).
+ */
 @Slf4j
 public class ShopManager {
 
     private ShopManager() {
     }
 
-    private final Map<String, Shop> shops = new HashMap<>();
+    private volatile Map<String, Shop> shops = Map.of();
 
     private static class Holder {
         private static final ShopManager INSTANCE = new ShopManager();
@@ -22,18 +26,19 @@ public class ShopManager {
         return ShopManager.Holder.INSTANCE;
     }
 
-    public void addShop(Shop shop) {
-        shops.putIfAbsent(shop.getName(), shop);
-        log.debug("Add Shop {} Size {}", shop.getName(), shop.getItems().size());
+    /**
+     * Replaces every shop in one swap; the first row wins for a duplicated name.
+     */
+    public synchronized void load(List<Shop> rows) {
+        Map<String, Shop> fresh = new HashMap<>();
+        for (Shop shop : rows) {
+            fresh.putIfAbsent(shop.getName(), shop);
+            log.debug("Add Shop {} Size {}", shop.getName(), shop.getItems().size());
+        }
+        shops = Map.copyOf(fresh);
     }
 
     public Shop getShop(String name) {
         return shops.get(name);
     }
-
-    public void clear() {
-        shops.clear();
-    }
-
-
 }
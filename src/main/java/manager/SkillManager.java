@@ -1,10 +1,10 @@
 package manager;
 
+import game.skill.SkillProfile;
 import lombok.extern.slf4j.Slf4j;
-import model.skill.LvSkill;
 import model.skill.Skill;
-import game.entity.player.PlayerEntity;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -13,7 +13,13 @@ public class SkillManager {
     private SkillManager() {
     }
 
-    private final Map<Integer, Map<Byte, Skill>> skills = new HashMap<>();
+    // Skills and their compiled profiles, replaced as a whole on (re)load
+    private volatile Registry registry = new Registry(0, Map.of(), Map.of());
+
+    private record Registry(int generation,
+                            Map<Integer, Map<Byte, Skill>> skills,
+                            Map<Integer, Map<Byte, SkillProfile[]>> profiles) {
+    }
 
     private static class Holder {
         private static final SkillManager INSTANCE = new SkillManager();
@@ -22,24 +28,72 @@ public class SkillManager {
     public static SkillManager getInstance() {
         return Holder.INSTANCE;
     }
-    public void addSkill(int role, Map<Byte, Skill> roleSkill) {
-        skills.putIfAbsent(role, roleSkill);
+
+    /**
+     * Compiles profiles for every skill level and publishes them together with the
+     * skills in a single swap, so readers never see a half-reloaded table.
+     */
+    public synchronized void load(Map<Integer, Map<Byte, Skill>> roleSkills) {
+        int generation = registry.generation() + 1;
+
+        Map<Integer, Map<Byte, Skill>> skills = new HashMap<>();
+        Map<Integer, Map<Byte, SkillProfile[]>> profiles = new HashMap<>();
+
+        roleSkills.forEach((role, roleSkill) -> {
+            Map<Byte, SkillProfile[]> roleProfiles = new HashMap<>();
+            roleSkill.forEach((sid, skill) -> roleProfiles.put(sid, compile(generation, role, skill)));
+
+            skills.put(role, Collections.unmodifiableMap(new HashMap<>(roleSkill)));
+            profiles.put(role, roleProfiles);
+        });
+
+        registry = new Registry(generation, skills, profiles);
+        log.debug("Skill registry generation {} published ({} roles)", generation, skills.size());
+    }
+
+    private SkillProfile[] compile(int generation, int role, Skill skill) {
+        int maxLevel = skill.levels != null ? skill.levels.size() : 0;
+        SkillProfile[] result = new SkillProfile[maxLevel + 1];
+        for (int level = 0; level <= maxLevel; level++) {
+            result[level] = SkillProfile.compile(generation, role, skill, (byte) level);
+        }
+        return result;
     }
 
     public Map<Byte, Skill> getRoleSkill(int role) {
-        return skills.get(role);
+        return registry.skills().get(role);
     }
 
 
     public Skill getSkill(int role, byte skillId) {
         Map<Byte, Skill> skillData = getRoleSkill(role);
-        return skillData.get(skillId);
+        return skillData != null ? skillData.get(skillId) : null;
     }
 
-    public void clear() {
-        skills.clear();
+    /**
+     * Returns the compiled profile for a learned level; levels above the table are
+     * clamped to the highest compiled one.
+     */
+    public SkillProfile getProfile(int role, byte skillId, int level) {
+        Map<Byte, SkillProfile[]> roleProfiles = registry.profiles().get(role);
+        if (roleProfiles == null) return null;
+
+        SkillProfile[] levels = roleProfiles.get(skillId);
+        if (levels == null || levels.length == 0) return null;
+
+        int index = Math.max(0, Math.min(level, levels.length - 1));
+        return levels[index];
     }
 
-}
+    /**
+     * Incremented on every load; profiles from an older generation are stale.
+     */
+    public int getGeneration() {
+        return registry.generation();
+    }
 
+    public synchronized void clear() {
+        registry = new Registry(registry.generation() + 1, Map.of(), Map.of());
+    }
 
+}
@@ -1,6 +1,8 @@
 package manager;
 
 
+import database.DatabaseExecutor;
+import game.TickExecutor;
 import game.entity.Position;
 import game.guild.GuildManager;
 import game.map.GameMap;
@@ -12,14 +14,17 @@ import model.map.MapData;
 import game.entity.player.PlayerEntity;
 import model.map.MapName;
 import model.monster.GuildMine;
+import model.npc.NpcName;
 import model.player.Player;
 import model.player.PlayerMapper;
 import service.NetworkService;
 import service.PlayerService;
 import utils.NumberUtils;
 
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Consumer;
 
@@ -29,6 +34,9 @@ public class WorldManager {
     public final ConcurrentHashMap<Integer, MapData> mapData = new ConcurrentHashMap<>();
     public final ConcurrentHashMap<Integer, GameMap> gameMaps = new ConcurrentHashMap<>();
 
+    // Walkable masks from the content bundle, consumed by createGameMaps()
+    private final ConcurrentHashMap<Integer, BitSet> prebuiltGrids = new ConcurrentHashMap<>();
+
 
     private WorldManager() {
     }
@@ -50,11 +58,21 @@ public class WorldManager {
         mapNames.put(mapName.getId(), mapName);
     }
 
-    public void createGameMaps() {
-        mapData.values().forEach(data ->
-                gameMaps.put(data.getId(), new GameMap(data.getId(), data))
+    public void setPrebuiltGrids(Map<Integer, BitSet> grids) {
+        prebuiltGrids.putAll(grids);
+    }
 
+    /**
+     * Builds every map (zones, spawns, path grid). Maps share nothing while being built, so
+     * they are constructed in parallel; a map that fails to build fails startup.
+     */
+    public void createGameMaps() {
+        long start = System.currentTimeMillis();
+        mapData.values().parallelStream().forEach(data ->
+                gameMaps.put(data.getId(), new GameMap(data.getId(), data, prebuiltGrids.remove(data.getId())))
         );
+        prebuiltGrids.clear();
+        log.info("Built {} maps in {} ms", gameMaps.size(), System.currentTimeMillis() - start);
 
         for (GuildMine mine : GuildManager.getInstance().getGuildCrystalMap().values()) {
             if (mine.getGuards().isEmpty())
@@ -107,6 +125,10 @@ public class WorldManager {
         player.setLocation(location, map, zone);
         player.onSpawn();
         NetworkService.gI().sendChangeMap(player);
+        if (!player.isModeBot() && map.hasNpc(NpcName.AMAN.getId())) {
+            // Storage NPC on this map: read the storage while the player walks over
+            player.getInventoryManager().prefetchStorage();
+        }
         if (location.getMap() == 50) {
             if (!player.getPlayerPet().getAllPet().isEmpty()) {
                 NetworkService.gI().sendPetContainer(player);
@@ -234,8 +256,30 @@ public class WorldManager {
         log.debug("MapData reloaded (data-only) : {} maps", freshData.size());
     }
 
+    /**
+     * Spawns a guard copy of a player. The character (and its inventory, pets, friends) is
+     * loaded on the database executor; the guard enters the map on the tick thread.
+     */
     public void createClone(int playerId, Position pos) {
+        DatabaseExecutor.gI().supply(() -> loadClone(playerId, pos))
+                .thenAcceptAsync(entity -> {
+                    if (entity == null) return;
+                    enterMap(entity);
+                    entity.initBot();
+                }, TickExecutor.getInstance())
+                .exceptionally(e -> {
+                    log.error("createClone() Failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    private PlayerEntity loadClone(int playerId, Position pos) {
         Player player = PlayerService.gI().getPlayer(playerId);
+        if (player == null) {
+            log.warn("createClone() player {} not found", playerId);
+            return null;
+        }
+
         PlayerEntity entity = PlayerMapper.toEntity(player);
         entity.setIdCopy(playerId);
         entity.setName(String.format("Guard - %s", player.getName()));
@@ -245,8 +289,7 @@ public class WorldManager {
         entity.setTypePK((byte) 0);
         entity.setId(NumberUtils.next());
         entity.setAttackCooldown(8000L);
-        enterMap(entity);
-        entity.initBot();
+        return entity;
     }
 
     public Collection<MapData> getMapData() {
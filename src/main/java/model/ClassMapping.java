@@ -0,0 +1,254 @@
+package model;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Type;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiled accessors for one model class: a constructor handle, getter/setter handles per field
+ * (with primitive setters so numeric columns are never boxed) and the column bindings for every
+ * ResultSet shape seen so far. Built once per class by {@link ModelMapper} and reused for every row.
+ */
+@Slf4j
+final class ClassMapping<T> {
+
+    enum Kind { INT, LONG, SHORT, BYTE, BOOLEAN, DOUBLE, FLOAT, STRING, OTHER }
+
+    private final Class<T> type;
+    private final MethodHandle constructor; // ()Object, null when there is no no-arg constructor
+
+    // Persistent (non-static, non-transient) fields, subclass first, as toMap() writes them
+    private final FieldAccessor[] columns;
+    // Every instance field by name; the subclass wins when a name is shadowed
+    private final Map<String, FieldAccessor> byName = new HashMap<>();
+    // Column bindings keyed by ResultSet shape (column names and SQL types)
+    private final Map<String, ColumnBinding[]> bindings = new ConcurrentHashMap<>();
+
+    ClassMapping(Class<T> type, List<Field> fields) {
+        this.type = type;
+        this.constructor = findConstructor(type);
+
+        List<FieldAccessor> persistent = new ArrayList<>();
+        for (Field field : fields) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers)) continue;
+
+            FieldAccessor accessor = new FieldAccessor(field);
+            byName.putIfAbsent(field.getName(), accessor);
+            if (!Modifier.isTransient(modifiers)) {
+                persistent.add(accessor);
+            }
+        }
+        this.columns = persistent.toArray(new FieldAccessor[0]);
+    }
+
+    Class<T> type() {
+        return type;
+    }
+
+    FieldAccessor[] columns() {
+        return columns;
+    }
+
+    FieldAccessor field(String name) {
+        return byName.get(name);
+    }
+
+    T newInstance() throws Throwable {
+        if (constructor == null) {
+            return type.getDeclaredConstructor().newInstance(); // surfaces the usual reflective error
+        }
+        return type.cast((Object) constructor.invokeExact());
+    }
+
+    /**
+     * Resolves columns to fields once per ResultSet shape; the result is cached on this mapping.
+     */
+    ColumnBinding[] bind(ResultSetMetaData metaData) throws SQLException {
+        int count = metaData.getColumnCount();
+        String[] names = new String[count];
+        int[] sqlTypes = new int[count];
+
+        StringBuilder key = new StringBuilder(count * 12);
+        for (int i = 0; i < count; i++) {
+            names[i] = metaData.getColumnName(i + 1);
+            sqlTypes[i] = metaData.getColumnType(i + 1);
+            key.append(names[i]).append(':').append(sqlTypes[i]).append(',');
+        }
+
+        return bindings.computeIfAbsent(key.toString(), k -> {
+            List<ColumnBinding> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                FieldAccessor accessor = byName.get(ModelMapper.toCamelCase(names[i]));
+                if (accessor == null) continue;
+                result.add(new ColumnBinding(i + 1, accessor, readMode(accessor, sqlTypes[i])));
+            }
+            return result.toArray(new ColumnBinding[0]);
+        });
+    }
+
+    /**
+     * Picks the typed JDBC getter when the column type matches the field, otherwise the
+     * generic getObject + conversion path.
+     */
+    private static Kind readMode(FieldAccessor accessor, int sqlType) {
+        Kind kind = accessor.kind;
+        if (kind == Kind.STRING) {
+            return isText(sqlType) ? Kind.STRING : Kind.OTHER;
+        }
+        if (!accessor.type.isPrimitive() || accessor.primitiveSetter == null) {
+            return Kind.OTHER;
+        }
+        if (kind == Kind.BOOLEAN) {
+            return sqlType == Types.BIT || sqlType == Types.BOOLEAN || sqlType == Types.TINYINT ? kind : Kind.OTHER;
+        }
+        return isNumeric(sqlType) ? kind : Kind.OTHER;
+    }
+
+    private static boolean isNumeric(int sqlType) {
+        return switch (sqlType) {
+            case Types.TINYINT, Types.SMALLINT, Types.INTEGER, Types.BIGINT, Types.BIT,
+                 Types.DECIMAL, Types.NUMERIC, Types.REAL, Types.FLOAT, Types.DOUBLE -> true;
+            default -> false;
+        };
+    }
+
+    private static boolean isText(int sqlType) {
+        return switch (sqlType) {
+            case Types.CHAR, Types.VARCHAR, Types.LONGVARCHAR,
+                 Types.NCHAR, Types.NVARCHAR, Types.LONGNVARCHAR, Types.CLOB -> true;
+            default -> false;
+        };
+    }
+
+    private static MethodHandle findConstructor(Class<?> type) {
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+            return lookup.findConstructor(type, MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(Object.class));
+        } catch (NoSuchMethodException | IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One resolved column: JDBC index, target field and how to read it.
+     */
+    record ColumnBinding(int index, FieldAccessor accessor, Kind mode) {
+    }
+
+    /**
+     * Handle-based access to one field. Falls back to the reflective Field when a handle cannot be
+     * created (e.g. a final field has no setter handle).
+     */
+    static final class FieldAccessor {
+        final Field field;
+        final String name;
+        final String column;
+        final Class<?> type;
+        final Type genericType;
+        final Kind kind;
+
+        private final MethodHandle getter;          // (Object)Object
+        private final MethodHandle setter;          // (Object,Object)void
+        private final MethodHandle primitiveSetter; // (Object,<primitive>)void
+
+        FieldAccessor(Field field) {
+            this.field = field;
+            this.name = field.getName();
+            this.column = ModelMapper.toSnakeCase(name);
+            this.type = field.getType();
+            this.genericType = field.getGenericType();
+            this.kind = kindOf(type);
+
+            MethodHandle get = null;
+            MethodHandle set = null;
+            MethodHandle primitiveSet = null;
+            try {
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup());
+                get = lookup.unreflectGetter(field)
+                        .asType(MethodType.methodType(Object.class, Object.class));
+                if (!Modifier.isFinal(field.getModifiers())) {
+                    MethodHandle raw = lookup.unreflectSetter(field);
+                    set = raw.asType(MethodType.methodType(void.class, Object.class, Object.class));
+                    if (type.isPrimitive()) {
+                        primitiveSet = raw.asType(MethodType.methodType(void.class, Object.class, type));
+                    }
+                }
+            } catch (IllegalAccessException | RuntimeException e) {
+                log.debug("Falling back to reflection for {}.{}: {}", field.getDeclaringClass().getName(), name, e.getMessage());
+            }
+            this.getter = get;
+            this.setter = set;
+            this.primitiveSetter = primitiveSet;
+        }
+
+        private static Kind kindOf(Class<?> type) {
+            if (type == int.class) return Kind.INT;
+            if (type == long.class) return Kind.LONG;
+            if (type == short.class) return Kind.SHORT;
+            if (type == byte.class) return Kind.BYTE;
+            if (type == boolean.class) return Kind.BOOLEAN;
+            if (type == double.class) return Kind.DOUBLE;
+            if (type == float.class) return Kind.FLOAT;
+            if (type == String.class) return Kind.STRING;
+            return Kind.OTHER;
+        }
+
+        Object get(Object target) throws Throwable {
+            if (getter == null) {
+                return field.get(target);
+            }
+            return (Object) getter.invokeExact(target);
+        }
+
+        void set(Object target, Object value) throws Throwable {
+            if (setter == null) {
+                field.set(target, value);
+                return;
+            }
+            setter.invokeExact(target, value);
+        }
+
+        void setInt(Object target, int value) throws Throwable {
+            primitiveSetter.invokeExact(target, value);
+        }
+
+        void setLong(Object target, long value) throws Throwable {
+            primitiveSetter.invokeExact(target, value);
+        }
+
+        void setShort(Object target, short value) throws Throwable {
+            primitiveSetter.invokeExact(target, value);
+        }
+
+        void setByte(Object target, byte value) throws Throwable {
+            primitiveSetter.invokeExact(target, value);
+        }
+
+        void setBoolean(Object target, boolean value) throws Throwable {
+            primitiveSetter.invokeExact(target, value);
+        }
+
+        void setDouble(Object target, double value) throws Throwable {
+            primitiveSetter.invokeExact(target, value);
+        }
+
+        void setFloat(Object target, float value) throws Throwable {
+            primitiveSetter.invokeExact(target, value);
+        }
+    }
+}
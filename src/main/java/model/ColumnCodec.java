@@ -0,0 +1,20 @@
+package model;
+
+/**
+ * Custom text encoding for one field type, used by {@link ModelMapper} instead of plain JSON.
+ * <p>
+ * Codecs only claim the values they recognise ({@link #canDecode(String)}); anything else still
+ * goes through the regular JSON path, so rows written in an older format keep loading and are
+ * rewritten by the codec on their next save.
+ */
+public interface ColumnCodec<T> {
+
+    /**
+     * @return true when the raw column value was written by this codec
+     */
+    boolean canDecode(String raw);
+
+    String encode(T value);
+
+    T decode(String raw);
+}
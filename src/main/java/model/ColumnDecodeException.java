@@ -0,0 +1,12 @@
+package model;
+
+/**
+ * A column claimed by a {@link ColumnCodec} could not be decoded. Fails the whole read rather
+ * than leaving the field at its default, which would be saved back over the real value.
+ */
+public class ColumnDecodeException extends RuntimeException {
+
+    public ColumnDecodeException(Class<?> type, Throwable cause) {
+        super("Failed to decode column for type " + type.getName() + ": " + cause.getMessage(), cause);
+    }
+}
@@ -9,6 +9,7 @@ import lombok.extern.slf4j.Slf4j;
 import java.lang.reflect.*;
 import java.sql.ResultSet;
 import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -28,12 +29,16 @@ public class ModelMapper {
 
     // Cache for reflection operations
     private static final Map<Class<?>, List<Field>> FIELD_CACHE = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, ClassMapping<?>> MAPPING_CACHE = new ConcurrentHashMap<>();
     private static final Map<String, String> SNAKE_CASE_CACHE = new ConcurrentHashMap<>();
     private static final Map<String, String> CAMEL_CASE_CACHE = new ConcurrentHashMap<>();
 
     // Registry for polymorphic types
     private static final Map<Class<?>, PolymorphicTypeRegistry<?>> POLYMORPHIC_REGISTRIES = new ConcurrentHashMap<>();
 
+    // Column codecs by exact field type, consulted before the JSON fallback
+    private static final Map<Class<?>, ColumnCodec<?>> COLUMN_CODECS = new ConcurrentHashMap<>();
+
     static {
         rebuildGson();
     }
@@ -109,6 +114,17 @@ public class ModelMapper {
         }
     }
 
+    /**
+     * Register a custom column encoding for a field type
+     *
+     * Usage:
+     * ModelMapper.registerColumnCodec(InventorySlot[].class, ItemCodec.INVENTORY);
+     */
+    public static <T> void registerColumnCodec(Class<T> fieldType, ColumnCodec<T> codec) {
+        COLUMN_CODECS.put(fieldType, codec);
+        log.debug("Registered column codec for {}", fieldType.getSimpleName());
+    }
+
     /**
      * Get concrete class from type discriminator
      */
@@ -237,31 +253,23 @@ public class ModelMapper {
             return Collections.emptyMap();
         }
 
-        Map<String, Object> map = new LinkedHashMap<>();
-        List<Field> fields = getCachedFields(model.getClass());
+        ClassMapping.FieldAccessor[] columns = mapping(model.getClass()).columns();
+        Map<String, Object> map = LinkedHashMap.newLinkedHashMap(columns.length);
 
-        for (Field field : fields) {
+        for (ClassMapping.FieldAccessor accessor : columns) {
             try {
-                int modifiers = field.getModifiers();
-                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) {
-                    continue;
-                }
-
-                Object value = field.get(model);
+                Object value = accessor.get(model);
 
                 if (excludeNulls && value == null) {
                     continue;
                 }
 
-                String columnName = toSnakeCase(field.getName());
-                Object dbValue = toDbValue(value);
-
-                map.put(columnName, dbValue);
+                map.put(accessor.column, toDbValue(value));
 
             } catch (IllegalAccessException e) {
-                log.debug("Cannot access field: {}", field.getName());
-            } catch (Exception e) {
-                log.error("Error processing field: {}", field.getName(), e);
+                log.debug("Cannot access field: {}", accessor.name);
+            } catch (Throwable e) {
+                log.error("Error processing field: {}", accessor.name, e);
             }
         }
 
@@ -285,9 +293,11 @@ public class ModelMapper {
                 return null;
             }
 
-            return mapRow(rs, modelClass, typeField);
+            return mapRow(rs, modelClass, typeField, new RowShape(rs.getMetaData()));
 
-        } catch (Exception e) {
+        } catch (ColumnDecodeException e) {
+            throw e;
+        } catch (Throwable e) {
             log.error("Error converting ResultSet to model: {}", modelClass.getName(), e);
             return null;
         }
@@ -312,14 +322,17 @@ public class ModelMapper {
                 return list;
             }
 
+            RowShape shape = new RowShape(rs.getMetaData());
             while (rs.next()) {
-                T instance = mapRow(rs, modelClass, typeField);
+                T instance = mapRow(rs, modelClass, typeField, shape);
                 if (instance != null) {
                     list.add(instance);
                 }
             }
 
-        } catch (Exception e) {
+        } catch (ColumnDecodeException e) {
+            throw e;
+        } catch (Throwable e) {
             log.error("Error converting ResultSet to list: {}", modelClass.getName(), e);
         }
 
@@ -330,7 +343,7 @@ public class ModelMapper {
      * Map single ResultSet row with polymorphism support
      */
     @SuppressWarnings("unchecked")
-    private static <T> T mapRow(ResultSet rs, Class<T> modelClass, String typeField) throws Exception {
+    private static <T> T mapRow(ResultSet rs, Class<T> modelClass, String typeField, RowShape shape) throws Throwable {
         // Check if we need polymorphic mapping
         Class<? extends T> concreteClass = modelClass;
 
@@ -356,21 +369,84 @@ public class ModelMapper {
             }
         }
 
-        T instance = concreteClass.getDeclaredConstructor().newInstance();
-        ResultSetMetaData metaData = rs.getMetaData();
-        int columnCount = metaData.getColumnCount();
+        ClassMapping<? extends T> mapping = mapping(concreteClass);
+        T instance = mapping.newInstance();
 
-        for (int i = 1; i <= columnCount; i++) {
-            String columnName = metaData.getColumnName(i);
-            String fieldName = toCamelCase(columnName);
-            Object value = rs.getObject(i);
-
-            setFieldWithType(instance, fieldName, value);
+        for (ClassMapping.ColumnBinding column : shape.bindingFor(mapping)) {
+            readColumn(rs, column, instance);
         }
 
         return instance;
     }
 
+    /**
+     * Column bindings for one ResultSet, resolved once per concrete class instead of per row.
+     */
+    private static final class RowShape {
+        private final ResultSetMetaData metaData;
+        private ClassMapping<?> lastMapping;
+        private ClassMapping.ColumnBinding[] lastBinding;
+
+        RowShape(ResultSetMetaData metaData) {
+            this.metaData = metaData;
+        }
+
+        ClassMapping.ColumnBinding[] bindingFor(ClassMapping<?> mapping) throws SQLException {
+            if (mapping != lastMapping) {
+                lastBinding = mapping.bind(metaData);
+                lastMapping = mapping;
+            }
+            return lastBinding;
+        }
+    }
+
+    /**
+     * Typed getters for matching primitive/text columns; SQL NULL leaves the field's default
+     * untouched. Everything else goes through getObject and the usual conversion.
+     */
+    private static void readColumn(ResultSet rs, ClassMapping.ColumnBinding column, Object instance) {
+        ClassMapping.FieldAccessor accessor = column.accessor();
+        int i = column.index();
+        try {
+            switch (column.mode()) {
+                case INT -> {
+                    int v = rs.getInt(i);
+                    if (!rs.wasNull()) accessor.setInt(instance, v);
+                }
+                case LONG -> {
+                    long v = rs.getLong(i);
+                    if (!rs.wasNull()) accessor.setLong(instance, v);
+                }
+                case SHORT -> {
+                    short v = rs.getShort(i);
+                    if (!rs.wasNull()) accessor.setShort(instance, v);
+                }
+                case BYTE -> {
+                    byte v = rs.getByte(i);
+                    if (!rs.wasNull()) accessor.setByte(instance, v);
+                }
+                case BOOLEAN -> {
+                    boolean v = rs.getBoolean(i);
+                    if (!rs.wasNull()) accessor.setBoolean(instance, v);
+                }
+                case DOUBLE -> {
+                    double v = rs.getDouble(i);
+                    if (!rs.wasNull()) accessor.setDouble(instance, v);
+                }
+                case FLOAT -> {
+                    float v = rs.getFloat(i);
+                    if (!rs.wasNull()) accessor.setFloat(instance, v);
+                }
+                case STRING -> accessor.set(instance, rs.getString(i));
+                default -> assign(accessor, instance, rs.getObject(i));
+            }
+        } catch (ColumnDecodeException e) {
+            throw e;
+        } catch (Throwable e) {
+            log.debug("Could not set field '{}' from column {}: {}", accessor.name, i, e.getMessage());
+        }
+    }
+
     /**
      * Serialize object to JSON string with polymorphism support
      */
@@ -474,6 +550,12 @@ public class ModelMapper {
             return ((Enum<?>) value).name();
         }
 
+        @SuppressWarnings("unchecked")
+        ColumnCodec<Object> codec = (ColumnCodec<Object>) COLUMN_CODECS.get(value.getClass());
+        if (codec != null) {
+            return codec.encode(value);
+        }
+
         if (value instanceof byte[]) {
             return gson.toJson(value);
         }
@@ -494,67 +576,53 @@ public class ModelMapper {
     }
 
     private static void setFieldWithType(Object instance, String fieldName, Object value) {
-        try {
-            Field field = findField(instance.getClass(), fieldName);
-            if (field == null) {
-                return;
-            }
-
-            try {
-                field.setAccessible(true);
-            } catch (Exception e) {
-                log.debug("Cannot make field accessible: {}.{}", instance.getClass().getName(), fieldName);
-                return;
-            }
-
-            Class<?> fieldType = field.getType();
-            Type genericType = field.getGenericType();
-
-            if (value == null) {
-                field.set(instance, null);
-                return;
-            }
-
-            if (fieldType.isAssignableFrom(value.getClass())) {
-                field.set(instance, value);
-                return;
-            }
-
-            Object converted = fromDbValue(value, fieldType, genericType);
-            field.set(instance, converted);
+        ClassMapping.FieldAccessor accessor = mapping(instance.getClass()).field(fieldName);
+        if (accessor == null) {
+            return;
+        }
 
-        } catch (InaccessibleObjectException e) {
-            log.debug("Module access denied for field '{}' in {}", fieldName, instance.getClass().getName());
-        } catch (Exception e) {
+        try {
+            assign(accessor, instance, value);
+        } catch (ColumnDecodeException e) {
+            throw e;
+        } catch (Throwable e) {
             log.debug("Could not set field '{}' = {}: {}", fieldName, value, e.getMessage());
         }
     }
 
-    public static Object getField(Object instance, String fieldName) {
-        try {
-            Field field = findField(instance.getClass(), fieldName);
-            if (field == null) {
-                return null;
-            }
+    private static void assign(ClassMapping.FieldAccessor accessor, Object instance, Object value) throws Throwable {
+        if (value == null) {
+            accessor.set(instance, null);
+            return;
+        }
 
-            try {
-                field.setAccessible(true);
-            } catch (Exception e) {
-                log.debug("Cannot make field accessible: {}.{}", instance.getClass().getName(), fieldName);
-                return null;
-            }
+        if (accessor.type.isAssignableFrom(value.getClass())) {
+            accessor.set(instance, value);
+            return;
+        }
 
-            return field.get(instance);
+        accessor.set(instance, fromDbValue(value, accessor.type, accessor.genericType));
+    }
 
-        } catch (InaccessibleObjectException e) {
-            log.debug("Module access denied for field '{}'", fieldName);
+    public static Object getField(Object instance, String fieldName) {
+        ClassMapping.FieldAccessor accessor = mapping(instance.getClass()).field(fieldName);
+        if (accessor == null) {
             return null;
-        } catch (Exception e) {
+        }
+
+        try {
+            return accessor.get(instance);
+        } catch (Throwable e) {
             log.debug("Could not get field '{}'", fieldName);
             return null;
         }
     }
 
+    @SuppressWarnings("unchecked")
+    private static <T> ClassMapping<T> mapping(Class<T> clazz) {
+        return (ClassMapping<T>) MAPPING_CACHE.computeIfAbsent(clazz, k -> new ClassMapping<>(clazz, getCachedFields(clazz)));
+    }
+
     private static Object fromDbValue(Object value, Class<?> targetType, Type genericType) {
         if (value == null) {
             return null;
@@ -592,6 +660,15 @@ public class ModelMapper {
             return Enum.valueOf((Class<Enum>) targetType, valueStr);
         }
 
+        ColumnCodec<?> codec = COLUMN_CODECS.get(targetType);
+        if (codec != null && value instanceof String && codec.canDecode(valueStr)) {
+            try {
+                return codec.decode(valueStr);
+            } catch (RuntimeException e) {
+                throw new ColumnDecodeException(targetType, e);
+            }
+        }
+
         if (targetType == byte[].class && value instanceof String && isJsonString(valueStr)) {
             try {
                 return gson.fromJson(valueStr, byte[].class);
@@ -663,24 +740,6 @@ public class ModelMapper {
                 (str.startsWith("[") && str.endsWith("]"));
     }
 
-    private static Field findField(Class<?> clazz, String fieldName) {
-        try {
-            if (isJdkClass(clazz)) {
-                return null;
-            }
-
-            return clazz.getDeclaredField(fieldName);
-        } catch (NoSuchFieldException e) {
-            if (clazz.getSuperclass() != null && !isJdkClass(clazz.getSuperclass())) {
-                return findField(clazz.getSuperclass(), fieldName);
-            }
-            return null;
-        } catch (Exception e) {
-            log.debug("Cannot find field: {}.{}", clazz.getName(), fieldName);
-            return null;
-        }
-    }
-
     private static List<Field> getCachedFields(Class<?> clazz) {
         return FIELD_CACHE.computeIfAbsent(clazz, k -> {
             List<Field> fields = new ArrayList<>();
@@ -727,7 +786,7 @@ public class ModelMapper {
         );
     }
 
-    private static String toCamelCase(String snakeCase) {
+    static String toCamelCase(String snakeCase) {
         if (snakeCase == null || snakeCase.isEmpty()) {
             return snakeCase;
         }
@@ -767,6 +826,7 @@ public class ModelMapper {
 
     public static void clearCache() {
         FIELD_CACHE.clear();
+        MAPPING_CACHE.clear();
         SNAKE_CASE_CACHE.clear();
         CAMEL_CASE_CACHE.clear();
         POLYMORPHIC_REGISTRIES.clear();
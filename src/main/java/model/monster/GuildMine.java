@@ -1,5 +1,6 @@
 package model.monster;
 
+import database.DirtyTracker;
 import lombok.Data;
 
 import java.util.List;
@@ -11,4 +12,6 @@ public class GuildMine {
     private int x;
     private int y;
     private List<Integer> guards;
+
+    private final transient DirtyTracker tracker = new DirtyTracker();
 }
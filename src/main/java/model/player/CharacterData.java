@@ -0,0 +1,19 @@
+package model.player;
+
+import game.equipment.PlayerEquipment;
+import game.friend.FriendList;
+import game.inventory.PlayerInventory;
+import game.pet.PlayerPet;
+
+/**
+ * The persisted rows of one character needed to log in, loaded together by
+ * {@link database.repositories.CharacterRepository}. Containers the character never saved are null;
+ * {@link game.entity.player.PlayerEntity#initial(CharacterData)} creates them. Storage is not
+ * included: it loads on first use ({@link game.inventory.InventoryManager#ensureStorage()}).
+ */
+public record CharacterData(Player player,
+                            PlayerEquipment equipment,
+                            PlayerInventory inventory,
+                            PlayerPet pet,
+                            FriendList friends) {
+}
@@ -13,27 +13,41 @@ import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.net.Socket;
-import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.TimeUnit;
+import java.util.Queue;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 
 @Slf4j
 
-public class Session implements AutoCloseable {
+public class Session implements AutoCloseable, Executor {
+
+    // Runs continuations handed back to sessions; ordering per session is kept by drainTasks()
+    private static final ExecutorService CONTINUATIONS = Executors.newVirtualThreadPerTaskExecutor();
 
     private volatile Socket socket;
     private volatile DataInputStream is;
     private volatile DataOutputStream os;
 
+    @Getter
     private final GameServer server;
+    private final String ipAddress;
     private final AtomicBoolean closed = new AtomicBoolean(false);
 
     private final BlockingQueue<Message> sendQueue = new LinkedBlockingQueue<>();
+    // Queued by closeAfterFlush(): the sender closes the session once it reaches it
+    private static final Message CLOSE = new Message(0);
+    private static final long FLUSH_TIMEOUT_MS = 2000;
     private final MessageHandler handler;
     private Thread receiverThread;
     private Thread senderThread;
 
+    // Held while a message or a continuation runs, so both see the session one at a time
+    private final ReentrantLock dispatchLock = new ReentrantLock();
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean draining = new AtomicBoolean(false);
+
     private volatile boolean sendKeyComplete;
     private volatile byte curR;
     private volatile byte curW;
@@ -54,10 +68,16 @@ public class Session implements AutoCloseable {
     @Getter
     private Account account;
 
+    // Assigned by SessionManager.register, 0 until then
+    @Setter
+    @Getter
+    private int sessionId;
+
 
     public Session(Socket socket, GameServer server) throws IOException {
         this.socket = socket;
         this.server = server;
+        this.ipAddress = socket.getInetAddress().getHostAddress();
         this.socket.setKeepAlive(true);
         this.socket.setTcpNoDelay(true);
         this.is = new DataInputStream(socket.getInputStream());
@@ -82,7 +102,12 @@ public class Session implements AutoCloseable {
                 if (msg.command == -40) {
                     sendKeys();
                 } else {
-                    handler.onMessage(this, msg);
+                    dispatchLock.lock();
+                    try {
+                        handler.onMessage(this, msg);
+                    } finally {
+                        dispatchLock.unlock();
+                    }
                 }
             }
         } catch (IOException e) {
@@ -93,11 +118,70 @@ public class Session implements AutoCloseable {
     }
 
 
+    // ---------------- CONTINUATIONS ----------------
+
+    /**
+     * Runs a task on behalf of this session, in submission order and never concurrently with
+     * message handling. Used to bring database results back to the session.
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (closed.get()) return;
+        tasks.offer(task);
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            CONTINUATIONS.execute(this::drainTasks);
+        }
+    }
+
+    private void drainTasks() {
+        dispatchLock.lock();
+        try {
+            Runnable task;
+            while (!closed.get() && (task = tasks.poll()) != null) {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.error("Session task failed", e);
+                }
+            }
+        } finally {
+            dispatchLock.unlock();
+            draining.set(false);
+        }
+
+        if (!closed.get() && !tasks.isEmpty()) {
+            scheduleDrain();
+        }
+    }
+
+    /**
+     * Runs work under the dispatch lock if no message or continuation holds it right now.
+     * Never blocks, so the tick thread can use it to read this session's player consistently.
+     *
+     * @return the work's result, or null when the session was busy
+     */
+    public <T> T tryExclusive(Supplier<T> work) {
+        if (!dispatchLock.tryLock()) return null;
+        try {
+            return work.get();
+        } finally {
+            dispatchLock.unlock();
+        }
+    }
+
     // ---------------- SENDER ----------------
     private void sendLoop() {
         try {
             while (!closed.get()) {
                 Message msg = sendQueue.poll(5, TimeUnit.SECONDS);
+                if (msg == CLOSE) {
+                    os.flush();
+                    break;
+                }
                 if (msg != null) {
                     try {
                         sendMessage(msg);
@@ -121,6 +205,16 @@ public class Session implements AutoCloseable {
         if (!closed.get()) sendQueue.offer(packet);
     }
 
+    /**
+     * Closes once everything queued so far is written, so a kicked client still receives the
+     * notice telling it why. A client that stops reading is closed anyway after a short timeout.
+     */
+    public void closeAfterFlush() {
+        if (closed.get()) return;
+        sendQueue.offer(CLOSE);
+        CompletableFuture.delayedExecutor(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS).execute(this::close);
+    }
+
     private Message readMessage() throws IOException {
         byte cmd = is.readByte();
         if (sendKeyComplete) {
@@ -266,9 +360,15 @@ public class Session implements AutoCloseable {
         }
     }
 
+    /**
+     * Remote address captured on accept, still valid after close so the session can be unindexed.
+     */
     public String getIpAddress() {
-        Socket s = socket;
-        return (s != null) ? s.getInetAddress().getHostAddress() : "disconnected";
+        return ipAddress;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
     }
 
     @Override
@@ -282,8 +382,9 @@ public class Session implements AutoCloseable {
         if (receiverThread != null) receiverThread.interrupt();
         if (senderThread != null) senderThread.interrupt();
 
-        // Clear queue before closing streams
+        // Clear queues before closing streams
         sendQueue.clear();
+        tasks.clear();
 
         // Close streams and socket
         try {
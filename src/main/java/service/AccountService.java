@@ -1,5 +1,7 @@
 package service;
 
+import database.DatabaseExecutor;
+import database.Lane;
 import database.repositories.AccountRepository;
 import lombok.extern.slf4j.Slf4j;
 import model.account.Account;
@@ -7,6 +9,7 @@ import utils.CryptoUtils;
 
 import java.sql.SQLException;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 
@@ -21,6 +24,14 @@ public class AccountService {
         return INSTANCE;
     }
 
+    public CompletableFuture<Account> loginAsync(String user, String pass) {
+        return DatabaseExecutor.gI().supply(Lane.LOGIN, () -> login(user, pass));
+    }
+
+    public CompletableFuture<Void> saveAsync(Account account) {
+        return DatabaseExecutor.gI().run(Lane.LOGIN, () -> save(account));
+    }
+
     /**
      * Login with username & password
      */
@@ -0,0 +1,155 @@
+package service;
+
+import database.DatabaseExecutor;
+import database.Lane;
+import database.repositories.CharacterRepository;
+import lombok.extern.slf4j.Slf4j;
+import model.player.CharacterData;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Character hydration. Requests arriving together (a login storm after a restart) are coalesced:
+ * while one batch is loading, new ids queue up and go out as the next batch, so N logins cost a
+ * handful of queries per batch instead of five per character.
+ */
+@Slf4j
+public class CharacterLoader {
+
+    private static final int MAX_BATCH = 200;
+
+    private final CharacterRepository repository = new CharacterRepository();
+
+    // characterId -> waiters; guarded by `this`
+    private final Map<Integer, CompletableFuture<CharacterData>> pending = new LinkedHashMap<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    private CharacterLoader() {
+    }
+
+    private static class Holder {
+        private static final CharacterLoader INSTANCE = new CharacterLoader();
+    }
+
+    public static CharacterLoader gI() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * Queues a character for the next batch. Completes with null when the character does not exist.
+     */
+    public CompletableFuture<CharacterData> loadAsync(int characterId) {
+        CompletableFuture<CharacterData> future;
+        synchronized (this) {
+            future = pending.computeIfAbsent(characterId, k -> new CompletableFuture<>());
+        }
+        scheduleBatch();
+        return future;
+    }
+
+    /**
+     * Blocking load, for code already off the session and tick threads. Database workers load
+     * inline instead of waiting on a batch that may need their own thread.
+     */
+    public CharacterData load(int characterId) {
+        if (DatabaseExecutor.isWorkerThread()) {
+            return loadAll(List.of(characterId)).get(characterId);
+        }
+        try {
+            return loadAsync(characterId).join();
+        } catch (CompletionException e) {
+            log.error("load() Failed: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public Map<Integer, CharacterData> loadAll(List<Integer> characterIds) {
+        try {
+            return repository.findAllById(characterIds);
+        } catch (SQLException e) {
+            log.error("loadAll() Failed: {}", e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * {@link #loadAccount} on the login lane, for session threads.
+     */
+    public CompletableFuture<List<CharacterData>> loadAccountAsync(int accountId) {
+        return DatabaseExecutor.gI().supply(Lane.LOGIN, () -> loadAccount(accountId));
+    }
+
+    /**
+     * Every character of an account (character select), through the same batched path.
+     */
+    public List<CharacterData> loadAccount(int accountId) {
+        try {
+            return repository.findAllByAccountId(accountId);
+        } catch (SQLException e) {
+            log.error("loadAccount() Failed: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    // ==================== BATCHING ====================
+
+    private void scheduleBatch() {
+        if (!scheduled.compareAndSet(false, true)) return;
+
+        DatabaseExecutor.gI().run(Lane.LOGIN, this::runBatches).whenComplete((ignored, e) -> {
+            if (e != null) {
+                // Queue full or worker failure: fail the waiters rather than leave them hanging
+                failPending(e);
+            }
+        });
+    }
+
+    private void runBatches() {
+        try {
+            Map<Integer, CompletableFuture<CharacterData>> batch;
+            while (!(batch = takeBatch()).isEmpty()) {
+                Map<Integer, CharacterData> loaded;
+                try {
+                    loaded = repository.findAllById(new ArrayList<>(batch.keySet()));
+                } catch (SQLException | RuntimeException e) {
+                    log.error("runBatches() Failed: {}", e.getMessage());
+                    batch.values().forEach(f -> f.completeExceptionally(e));
+                    continue;
+                }
+                batch.forEach((id, future) -> future.complete(loaded.get(id)));
+                log.debug("Hydrated {} characters in one batch", batch.size());
+            }
+        } finally {
+            scheduled.set(false);
+        }
+
+        // An id queued between the last take and the flag reset still needs a batch
+        synchronized (this) {
+            if (pending.isEmpty()) return;
+        }
+        scheduleBatch();
+    }
+
+    private synchronized Map<Integer, CompletableFuture<CharacterData>> takeBatch() {
+        Map<Integer, CompletableFuture<CharacterData>> batch = new HashMap<>();
+        Iterator<Map.Entry<Integer, CompletableFuture<CharacterData>>> it = pending.entrySet().iterator();
+        while (it.hasNext() && batch.size() < MAX_BATCH) {
+            Map.Entry<Integer, CompletableFuture<CharacterData>> entry = it.next();
+            batch.put(entry.getKey(), entry.getValue());
+            it.remove();
+        }
+        return batch;
+    }
+
+    private void failPending(Throwable e) {
+        Map<Integer, CompletableFuture<CharacterData>> batch;
+        while (!(batch = takeBatch()).isEmpty()) {
+            batch.values().forEach(f -> f.completeExceptionally(e));
+        }
+        scheduled.set(false);
+    }
+}
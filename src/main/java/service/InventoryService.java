@@ -36,11 +36,13 @@ public class InventoryService {
         }
     }
 
-    public void updateEquipment(PlayerEquipment playerInventory) {
+    public boolean updateEquipment(PlayerEquipment playerInventory) {
         try {
             repository.updateEquipment(playerInventory);
+            return true;
         } catch (SQLException e) {
             log.error("updateEquipment() Failed: {}", e.getMessage());
+            return false;
         }
     }
 
@@ -73,11 +75,13 @@ public class InventoryService {
         }
     }
 
-    public void updateInventory(PlayerInventory playerInventory) {
+    public boolean updateInventory(PlayerInventory playerInventory) {
         try {
             repository.updateInventory(playerInventory);
+            return true;
         } catch (SQLException e) {
             log.error("updateInventory() Failed: {}", e.getMessage());
+            return false;
         }
     }
 
@@ -111,11 +115,13 @@ public class InventoryService {
         }
     }
 
-    public void updateStorage(PlayerInventory playerInventory) {
+    public boolean updateStorage(PlayerInventory playerInventory) {
         try {
             repository.updateStorage(playerInventory);
+            return true;
         } catch (SQLException e) {
             log.error("updateStorage() Failed: {}", e.getMessage());
+            return false;
         }
     }
 
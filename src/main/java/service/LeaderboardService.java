@@ -0,0 +1,330 @@
+package service;
+
+import database.DatabaseExecutor;
+import database.Lane;
+import game.entity.player.PlayerEntity;
+import game.guild.Guild;
+import game.guild.GuildManager;
+import game.guild.GuildMember;
+import handler.Command;
+import lombok.extern.slf4j.Slf4j;
+import manager.WorldManager;
+import model.player.Part;
+import model.player.Player;
+import network.Message;
+import utils.PlayerHelper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ranked snapshots behind the Top Level and Top Guild pages.
+ * <p>
+ * The level board is reloaded from the database on a schedule and kept current in between by
+ * level-up and exp events of online players. Both pages are kept as encoded SET_PAGE payloads,
+ * rebuilt only when the ranking changed (or the online info went stale), so opening a page is a
+ * buffer copy instead of a query per row.
+ */
+@Slf4j
+public class LeaderboardService {
+
+    private static final int TOP_LEVEL_SIZE = 50;
+    private static final int MAX_GUILDS = 255; // count is written as a byte
+    private static final long REFRESH_MINUTES = 5;
+    // Online/map info in the level page is at most this old
+    private static final long PAYLOAD_TTL_MS = TimeUnit.SECONDS.toMillis(10);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "Leaderboard");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // playerId -> entry; holds the current top plus online players that levelled into range
+    private final Map<Integer, Entry> levelEntries = new ConcurrentHashMap<>();
+    private volatile int levelThreshold;
+    // Bumped on every ranking change; the payload is current when it was built at this version
+    private final AtomicLong levelVersion = new AtomicLong();
+    private volatile long levelBuiltVersion = -1;
+    private volatile byte[] levelPayload;
+    private volatile long levelBuiltAt;
+
+    private volatile long guildSignature = Long.MIN_VALUE;
+    private volatile byte[] guildPayload;
+
+    private LeaderboardService() {
+    }
+
+    private static class Holder {
+        private static final LeaderboardService INSTANCE = new LeaderboardService();
+    }
+
+    public static LeaderboardService gI() {
+        return Holder.INSTANCE;
+    }
+
+    /**
+     * One ranked row, immutable; updates replace the entry.
+     */
+    private record Entry(int playerId, String name, byte[] body, int level, long experience, List<Part> parts) {
+    }
+
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::refresh, 0, REFRESH_MINUTES, TimeUnit.MINUTES);
+        log.info("LeaderboardService started, refresh every {} min", REFRESH_MINUTES);
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    /**
+     * Reloads the level ranking from the database (on the database executor).
+     */
+    public void refresh() {
+        DatabaseExecutor.gI().supply(Lane.REPORTING, () -> {
+                    List<Player> players = PlayerService.gI().findTopByLevel(TOP_LEVEL_SIZE);
+                    Map<Integer, List<Part>> parts = PlayerHelper.getPartPlayers(players.stream().map(Player::getId).toList());
+                    return toEntries(players, parts);
+                })
+                .thenAccept(this::replaceLevelEntries)
+                .exceptionally(e -> {
+                    log.error("refresh() Failed: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    private static List<Entry> toEntries(List<Player> players, Map<Integer, List<Part>> parts) {
+        List<Entry> entries = new ArrayList<>(players.size());
+        for (Player player : players) {
+            entries.add(new Entry(player.getId(), player.getName(), player.getBody(), player.getLevel(),
+                    player.getExperience(), parts.getOrDefault(player.getId(), List.of())));
+        }
+        return entries;
+    }
+
+    private synchronized void replaceLevelEntries(List<Entry> entries) {
+        Map<Integer, Entry> fresh = new HashMap<>();
+        for (Entry entry : entries) {
+            fresh.put(entry.playerId(), entry);
+        }
+        // Online players are newer than their last saved row
+        for (Entry current : levelEntries.values()) {
+            if (WorldManager.getInstance().isOnline(current.playerId())) {
+                fresh.put(current.playerId(), current);
+            }
+        }
+
+        levelEntries.clear();
+        levelEntries.putAll(fresh);
+        levelVersion.incrementAndGet();
+        log.debug("Level leaderboard reloaded: {} entries", fresh.size());
+    }
+
+    // ==================== EVENTS ====================
+
+    /**
+     * Level changed (level up, admin set): the player enters or moves within the board. Holds the
+     * monitor so a concurrent reload cannot clear the entry away.
+     */
+    public synchronized void onLevelChanged(PlayerEntity player) {
+        if (player.isClone()) return;
+
+        Entry current = levelEntries.get(player.getId());
+        if (current == null && levelEntries.size() >= TOP_LEVEL_SIZE && player.getLevel() < levelThreshold) {
+            return;
+        }
+
+        List<Part> parts = player.getInventoryManager() != null
+                ? PlayerHelper.getPartPlayer(player.getInventoryManager().getWearing())
+                : current != null ? current.parts() : List.of();
+        levelEntries.put(player.getId(), new Entry(player.getId(), player.getName(), player.getBody(),
+                player.getLevel(), player.getExperience(), parts));
+        levelVersion.incrementAndGet();
+    }
+
+    /**
+     * Exp gained: only reorders players already on the board, a map lookup otherwise.
+     */
+    public void onExperienceChanged(PlayerEntity player) {
+        Entry current = levelEntries.get(player.getId());
+        if (current == null || current.experience() == player.getExperience()) return;
+
+        synchronized (this) {
+            // Rechecked under the monitor: a reload may have dropped the entry meanwhile
+            current = levelEntries.get(player.getId());
+            if (current == null) return;
+            levelEntries.put(player.getId(), new Entry(current.playerId(), current.name(), current.body(),
+                    player.getLevel(), player.getExperience(), current.parts()));
+        }
+        levelVersion.incrementAndGet();
+    }
+
+    // ==================== PAGES ====================
+
+    public void sendTopLevel(PlayerEntity p) {
+        send(p, topLevelPayload());
+    }
+
+    public void sendTopGuild(PlayerEntity p) {
+        send(p, topGuildPayload());
+    }
+
+    private void send(PlayerEntity p, byte[] payload) {
+        if (payload == null) return;
+        try {
+            Message m = new Message(Command.SET_PAGE);
+            m.out().write(payload);
+            p.send(m);
+        } catch (IOException e) {
+            log.error("send() leaderboard Failed: {}", e.getMessage());
+        }
+    }
+
+    private byte[] topLevelPayload() {
+        long now = System.currentTimeMillis();
+        byte[] payload = levelPayload;
+        if (payload != null && levelBuiltVersion == levelVersion.get() && now - levelBuiltAt < PAYLOAD_TTL_MS) {
+            return payload;
+        }
+
+        synchronized (this) {
+            long version = levelVersion.get();
+            if (levelPayload == null || levelBuiltVersion != version || now - levelBuiltAt >= PAYLOAD_TTL_MS) {
+                byte[] built = encodeTopLevel(rankLevel());
+                if (built == null) {
+                    return levelPayload; // last good page, if any; the next request retries
+                }
+                levelPayload = built;
+                levelBuiltVersion = version;
+                levelBuiltAt = now;
+            }
+            return levelPayload;
+        }
+    }
+
+    // Sorts the entries, drops the ones that fell out of range and updates the entry threshold
+    private List<Entry> rankLevel() {
+        List<Entry> ranked = new ArrayList<>(levelEntries.values());
+        ranked.sort(Comparator.comparingInt(Entry::level).reversed()
+                .thenComparing(Comparator.comparingLong(Entry::experience).reversed()));
+
+        if (ranked.size() > TOP_LEVEL_SIZE) {
+            for (Entry dropped : ranked.subList(TOP_LEVEL_SIZE, ranked.size())) {
+                levelEntries.remove(dropped.playerId(), dropped);
+            }
+            ranked = new ArrayList<>(ranked.subList(0, TOP_LEVEL_SIZE));
+        }
+        levelThreshold = ranked.isEmpty() ? 0 : ranked.getLast().level();
+        return ranked;
+    }
+
+    private byte[] encodeTopLevel(List<Entry> ranked) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(4096);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(6);
+            out.writeUTF("Top Level");
+            out.writeByte(99);
+            out.writeInt(0);
+            out.writeByte(ranked.size());
+            for (Entry entry : ranked) {
+                PlayerEntity online = WorldManager.getInstance().findPlayer(entry.playerId());
+                String info = String.format("Lv: %d", entry.level());
+                // Map and zone are briefly unset while the player changes map
+                if (online != null && online.isOnline() && online.getMap() != null && online.getZone() != null) {
+                    info = String.format("Lv: %d - Map: %s Area: %s", online.getLevel(), online.getMap().getName(), online.getZone().getId());
+                }
+                out.writeUTF(entry.name());
+                out.writeByte(entry.body()[0]);
+                out.writeByte(entry.body()[1]);
+                out.writeByte(entry.body()[2]);
+                out.writeShort(entry.level());
+
+                out.writeByte(entry.parts().size());
+                for (Part part : entry.parts()) {
+                    out.writeByte(part.getPart());
+                    out.writeByte(part.getType());
+                }
+
+                out.writeByte(WorldManager.getInstance().isOnline(entry.playerId()) ? 1 : 0); // type online
+                out.writeUTF(info);
+                Guild guild = GuildManager.getInstance().getPlayerGuild(entry.playerId());
+                GuildMember member = guild != null ? guild.getMember(entry.playerId()) : null;
+                if (member == null) {
+                    out.writeShort(-1);
+                } else {
+                    out.writeShort(guild.getIcon());
+                    out.writeUTF(guild.getShortName());
+                    out.writeByte(member.getPosition());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("encodeTopLevel() Failed: {}", e.getMessage());
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[] topGuildPayload() {
+        Collection<Guild> guilds = GuildManager.getInstance().getGuilds().values();
+
+        // Any guild change (level, slogan, icon...) moves its tracker version; creation/removal moves the set
+        long signature = guilds.size();
+        for (Guild guild : guilds) {
+            signature = signature * 31 + guild.getId() * 1_000_003L + guild.getTracker().version();
+        }
+
+        byte[] payload = guildPayload;
+        if (payload != null && signature == guildSignature) {
+            return payload;
+        }
+
+        synchronized (this) {
+            if (guildPayload == null || signature != guildSignature) {
+                byte[] built = encodeTopGuild(guilds);
+                if (built == null) {
+                    return guildPayload;
+                }
+                guildPayload = built;
+                guildSignature = signature;
+            }
+            return guildPayload;
+        }
+    }
+
+    private byte[] encodeTopGuild(Collection<Guild> guilds) {
+        List<Guild> ranked = guilds.stream()
+                .sorted(Comparator.comparingInt(Guild::getLevel).reversed()
+                        .thenComparing(Comparator.comparingInt(Guild::getExperience).reversed()))
+                .limit(MAX_GUILDS)
+                .toList();
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(2048);
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeByte(3);
+            out.writeUTF("Top Guild");
+            out.writeByte(0);
+            out.writeInt(0);
+
+            out.writeByte(ranked.size());
+            for (Guild guild : ranked) {
+                out.writeUTF(guild.getName());
+                out.writeInt(guild.getId());
+                out.writeShort(guild.getIcon());
+                out.writeUTF(guild.getShortName());
+                out.writeUTF(guild.getSlogan());
+            }
+        } catch (IOException | RuntimeException e) {
+            log.error("encodeTopGuild() Failed: {}", e.getMessage());
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -11,7 +11,6 @@ import game.map.Zone;
 import game.party.Party;
 import game.pet.Pet;
 import game.skill.DamageContext;
-import game.skill.DamageEffect;
 import game.stat.StatCalculator;
 import game.stat.StatType;
 import manager.*;
@@ -25,6 +24,7 @@ import model.menu.InputDialog;
 import model.menu.Menu;
 import game.equipment.EquipType;
 import model.npc.NpcData;
+import model.player.CharacterData;
 import model.player.Part;
 import model.reward.Reward;
 import model.shop.PetTemplate;
@@ -59,6 +59,9 @@ import static game.equipment.EquipType.LEG;
 public class NetworkService {
     private static final NetworkService INSTANCE = new NetworkService();
 
+    // Stat ids sent in MAIN_CHAR_INFO, in client order
+    private static final short[] MAIN_CHAR_ATTRIBUTES = new short[]{0, 1, 2, 3, 4, 7, 8, 9, 10, 11, 14, 15, 16, 17, 18, 19, 20, 28, 33, 34, 35, 36, 40, 29, 30, 31, 32, 181};
+
     public static NetworkService gI() {
         return INSTANCE;
     }
@@ -522,9 +525,8 @@ public class NetworkService {
             m.out().writeByte(p.getBody()[2]);
 
             // ATTRIBUTE INFORMATIONS
-            short[] attr = new short[]{0, 1, 2, 3, 4, 7, 8, 9, 10, 11, 14, 15, 16, 17, 18, 19, 20, 28, 33, 34, 35, 36, 40, 29, 30, 31, 32, 181};
-            m.out().writeByte(attr.length);
-            for (short value : attr) {
+            m.out().writeByte(MAIN_CHAR_ATTRIBUTES.length);
+            for (short value : MAIN_CHAR_ATTRIBUTES) {
                 m.out().writeByte(value);
                 m.out().writeInt(st.get(value));
             }
@@ -930,13 +932,19 @@ public class NetworkService {
 //        }
 //    }
     public void sendListCharacter(Session s) {
-        List<Player> characters = PlayerService.gI().getAllByAccountId(s.getAccount().getId());
+        sendListCharacter(s, CharacterLoader.gI().loadAccount(s.getAccount().getId()));
+    }
 
+    /**
+     * Character select list from characters already loaded (see {@link CharacterLoader#loadAccountAsync}).
+     */
+    public void sendListCharacter(Session s, List<CharacterData> characters) {
         Message m = new Message(Command.LIST_CHAR);
         try {
 
             m.out().writeByte(characters.size());
-            for (Player player : characters) {
+            for (CharacterData character : characters) {
+                Player player = character.player();
 
                 m.out().writeInt(player.getId());
                 m.out().writeUTF(player.getName());
@@ -946,7 +954,7 @@ public class NetworkService {
                 m.out().writeByte(body[2]);
                 m.out().writeByte(body[1]);
 
-                List<Part> parts = PlayerHelper.getPartPlayer(player.getId());
+                List<Part> parts = PlayerHelper.getPartPlayer(character.equipment());
 
                 m.out().writeByte(parts.size());
                 for (Part part : parts) {
@@ -1929,86 +1937,11 @@ public class NetworkService {
     }
 
     public void sendTopLevel(PlayerEntity p) {
-        List<Player> players = PlayerService.gI().findTopByLevel(50);
-
-        try {
-
-            Message m = new Message(Command.SET_PAGE);
-            m.out().writeByte(6);
-            m.out().writeUTF("Top Level");
-            m.out().writeByte(99);
-            m.out().writeInt(0);
-            m.out().writeByte(players.size());
-            for (Player player : players) {
-                PlayerEntity entity = WorldManager.getInstance().findPlayer(player.getId());
-                String info = String.format("Lv: %d", player.getLevel());
-                if (entity != null && entity.isOnline()) {
-                    info = String.format("Lv: %d - Map: %s Area: %s", entity.getLevel(), entity.getMap().getName(), entity.getZone().getId());
-                }
-                m.out().writeUTF(player.getName());
-                m.out().writeByte(player.getBody()[0]);
-                m.out().writeByte(player.getBody()[1]);
-                m.out().writeByte(player.getBody()[2]);
-                m.out().writeShort(player.getLevel());
-
-                List<Part> parts = PlayerHelper.getPartPlayer(player.getId());
-                m.out().writeByte(parts.size());
-
-                for (Part part : parts) {
-                    m.out().writeByte(part.getPart());
-                    m.out().writeByte(part.getType());
-                }
-
-                m.out().writeByte(WorldManager.getInstance().isOnline(player.getId()) ? 1 : 0); // type online
-                m.out().writeUTF(info);
-                Guild guild = GuildManager.getInstance().getPlayerGuild(player.getId());
-                if (guild == null) {
-                    m.out().writeShort(-1);
-                } else {
-                    m.out().writeShort(guild.getIcon());
-                    m.out().writeUTF(guild.getShortName());
-                    m.out().writeByte(guild.getMember(player.getId()).getPosition());
-                }
-            }
-
-            p.send(m);
-        } catch (Exception e) {
-            log.error("Unhandle Exception", e);
-        }
+        LeaderboardService.gI().sendTopLevel(p);
     }
 
     public void sendTopGuild(PlayerEntity p) {
-
-        try {
-
-            Message m = new Message(Command.SET_PAGE);
-            m.out().writeByte(3);
-            m.out().writeUTF("Top Guild");
-            m.out().writeByte(0);
-            m.out().writeInt(0);
-
-            List<Guild> guilds = GuildManager.getInstance()
-                    .getGuilds()
-                    .values()
-                    .stream()
-                    .sorted(Comparator.comparingInt(Guild::getLevel))
-                    .toList();
-
-            m.out().writeByte(guilds.size());
-            for (Guild guild : guilds) {
-
-                m.out().writeUTF(guild.getName());
-                m.out().writeInt(guild.getId());
-                m.out().writeShort(guild.getIcon());
-                m.out().writeUTF(guild.getShortName());
-                m.out().writeUTF(guild.getSlogan());
-
-            }
-
-            p.send(m);
-        } catch (Exception e) {
-            log.error("Unhandle Exception", e);
-        }
+        LeaderboardService.gI().sendTopGuild(p);
     }
 
 
@@ -2024,10 +1957,10 @@ public class NetworkService {
             m.out().writeInt(ctx.getFinalDamage()); // dame
             m.out().writeInt(ctx.getDefender().getHp()); // target HP after;
 
-            m.out().writeByte(ctx.getEffect().size());
-            for (DamageEffect effect : ctx.getEffect()) {
-                m.out().writeByte(effect.getId()); // 1: armor penetration, 2: life steal, 3: mana steal, 4: critical hit, 5: counterattack
-                m.out().writeInt(effect.getDamage());
+            m.out().writeByte(ctx.getEffectCount());
+            for (int i = 0; i < ctx.getEffectCount(); i++) {
+                m.out().writeByte(ctx.getEffectId(i)); // 1: armor penetration, 2: life steal, 3: mana steal, 4: critical hit, 5: counterattack
+                m.out().writeInt(ctx.getEffectDamage(i));
             }
 
             m.out().writeInt(ctx.getAttacker().getHp());
@@ -2066,10 +1999,10 @@ public class NetworkService {
             m.out().writeInt(ctx.getDefender().getHp()); // target HP after;
 
 
-            m.out().writeByte(ctx.getEffect().size());
-            for (DamageEffect effect : ctx.getEffect()) {
-                m.out().writeByte(effect.getId()); // 1: armor penetration, 2: life steal, 3: mana steal, 4: critical hit, 5: counterattack
-                m.out().writeInt(effect.getDamage());
+            m.out().writeByte(ctx.getEffectCount());
+            for (int i = 0; i < ctx.getEffectCount(); i++) {
+                m.out().writeByte(ctx.getEffectId(i)); // 1: armor penetration, 2: life steal, 3: mana steal, 4: critical hit, 5: counterattack
+                m.out().writeInt(ctx.getEffectDamage(i));
             }
 
             m.out().writeInt(ctx.getAttacker().getHp());
@@ -70,11 +70,13 @@ public class PlayerService {
         }
     }
 
-    public void update(Player player) {
+    public boolean update(Player player) {
         try {
             repository.update(player);
+            return true;
         } catch (SQLException e) {
             log.error("update() Failed: {}", e.getMessage());
+            return false;
         }
     }
 
@@ -96,11 +98,13 @@ public class PlayerService {
         }
     }
 
-    public void saveFriendList(FriendList list) {
+    public boolean saveFriendList(FriendList list) {
         try {
             repository.saveFriendList(list);
+            return true;
         } catch (Exception e) {
             log.error("saveFriendList() Failed: {}", e.getMessage());
+            return false;
         }
     }
 
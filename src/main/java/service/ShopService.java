@@ -1,5 +1,6 @@
 package service;
 
+import database.EconomyAudit;
 import game.equipment.EquipType;
 import game.guild.Guild;
 import game.guild.GuildManager;
@@ -487,6 +488,7 @@ public class ShopService {
                 }
 
                 p.getInventoryManager().addToBag(item, quantity);
+                auditPurchase(p, shopItem, totalPrice, item, quantity);
                 p.getInventoryManager().updateInventory();
                 NetworkService.gI().sendNoticeBox(p.getSession(), "Pembelian berhasil");
             }
@@ -527,6 +529,7 @@ public class ShopService {
 
 
                 p.getInventoryManager().addToBag(item);
+                auditPurchase(p, shopItem, totalPrice, item, 1);
                 p.getInventoryManager().updateInventory();
                 p.sendMessageDialog("Pembelian berhasil");
 
@@ -558,6 +561,7 @@ public class ShopService {
 
                 byte[] body = p.getBody();
                 body[2] = (byte) itemId;
+                auditPurchase(p, shopItem, totalPrice, null, 0);
                 p.getInventoryManager().updateInventory();
                 NetworkService.gI().sendMainCharInfo(p);
                 p.getZone().broadcast(player -> NetworkService.gI().sendCharInfo(player, p));
@@ -600,6 +604,7 @@ public class ShopService {
                 }
 
                 p.getInventoryManager().addToBag(item);
+                auditPurchase(p, shopItem, totalPrice, item, 1);
                 p.getInventoryManager().updateInventory();
                 p.sendMessageDialog("Pembelian berhasil");
             }
@@ -650,6 +655,8 @@ public class ShopService {
                         }
                     }
                     guild.setIcon((short) shopItem.getItemId());
+                    guild.markDirty();
+                    auditPurchase(p, shopItem, totalPrice, null, 0);
                     p.getZone().broadcast(player -> NetworkService.gI().sendCharInfo(player, p));
                     p.getInventoryManager().updateInventory();
                     NetworkService.gI().sendMainCharInfo(p);
@@ -670,6 +677,7 @@ public class ShopService {
                             return;
                         }
                     }
+                    auditPurchase(p, shopItem, totalPrice, null, 0);
 
                     p.getZone().broadcast(player -> NetworkService.gI().sendCharInfo(player, p));
                     p.getInventoryManager().updateInventory();
@@ -679,4 +687,17 @@ public class ShopService {
             }
         }
     }
+
+    // Currency paid for a purchase and the item received, if any
+    private static void auditPurchase(PlayerEntity p, ShopItem shopItem, long price, BaseItem item, int quantity) {
+        EconomyAudit audit = EconomyAudit.gI();
+        if (shopItem.useGem()) {
+            audit.gem(p, -price, EconomyAudit.Reason.SHOP_BUY, 0);
+        } else {
+            audit.gold(p, -price, EconomyAudit.Reason.SHOP_BUY, 0);
+        }
+        if (item != null) {
+            audit.item(p, item, quantity, EconomyAudit.Reason.SHOP_BUY, 0);
+        }
+    }
 }
@@ -3,13 +3,11 @@ package utils;
 import game.entity.player.PlayerEntity;
 import game.equipment.EquipType;
 import game.equipment.PlayerEquipment;
+import manager.WorldManager;
 import model.player.Part;
 import model.player.PlayerMapper;
 import service.InventoryService;
-import java.util.EnumSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
 
 import static game.equipment.EquipType.*;
 import static game.equipment.EquipType.HELMET;
@@ -17,9 +15,43 @@ import static game.equipment.EquipType.LEG;
 
 public class PlayerHelper {
 
+    /**
+     * Visible parts of a character. Online players are read from memory; offline ones hit the
+     * database, so call this from a {@link database.DatabaseExecutor} task, not the tick thread.
+     */
     public static List<Part> getPartPlayer(int playerId) {
+        PlayerEntity online = WorldManager.getInstance().findPlayer(playerId);
+        if (online != null && !online.isClone() && online.getInventoryManager() != null) {
+            return getPartPlayer(online.getInventoryManager().getWearing());
+        }
+
+        return getPartPlayer(InventoryService.gI().findEquipmentById(playerId));
+    }
+
+    /**
+     * Visible parts for many characters: online ones from memory, the rest in a single query.
+     */
+    public static Map<Integer, List<Part>> getPartPlayers(List<Integer> playerIds) {
+        Map<Integer, List<Part>> result = new HashMap<>();
+        List<Integer> offline = new ArrayList<>();
+        for (int playerId : playerIds) {
+            PlayerEntity online = WorldManager.getInstance().findPlayer(playerId);
+            if (online != null && !online.isClone() && online.getInventoryManager() != null) {
+                result.put(playerId, getPartPlayer(online.getInventoryManager().getWearing()));
+            } else {
+                offline.add(playerId);
+            }
+        }
+
+        if (!offline.isEmpty()) {
+            for (PlayerEquipment wear : InventoryService.gI().findEquipmentById(offline)) {
+                result.put(wear.getPlayerId(), getPartPlayer(wear));
+            }
+        }
+        return result;
+    }
 
-        PlayerEquipment wear = InventoryService.gI().findEquipmentById(playerId);
+    public static List<Part> getPartPlayer(PlayerEquipment wear) {
         if (wear == null) {
             return List.of();
         }
@@ -0,0 +1,118 @@
+package database;
+
+import database.repositories.CharacterRepository;
+import dev.PersistenceFixture;
+import game.entity.player.PlayerEntity;
+import game.inventory.ItemCodec;
+import game.inventory.PlayerInventory;
+import model.player.CharacterData;
+import model.player.Player;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIf;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Save/load round trips of whole characters against the embedded database. Runs with
+ * {@code mvn -Pembedded-db test}, which puts H2 on the test classpath; skipped without it.
+ */
+@EnabledIf("embeddedDatabaseAvailable")
+class PlayerPersistenceTest {
+
+    private static final int PLAYERS = 50;
+
+    private final CharacterRepository characters = new CharacterRepository();
+    private List<Integer> ids;
+
+    static boolean embeddedDatabaseAvailable() {
+        try {
+            Class.forName("org.h2.Driver");
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @BeforeEach
+    void seed() throws SQLException {
+        PersistenceFixture.init();
+        ids = PersistenceFixture.seed(PLAYERS);
+    }
+
+    @AfterAll
+    static void close() {
+        SQL.gI().close();
+    }
+
+    @Test
+    void hydrationReturnsSeededCharacters() throws SQLException {
+        Map<Integer, CharacterData> loaded = characters.findAllById(ids);
+        assertEquals(PLAYERS, loaded.size());
+
+        for (int id : ids) {
+            CharacterData data = loaded.get(id);
+            assertNotNull(data, "character " + id);
+
+            Player expected = PersistenceFixture.player(id);
+            assertEquals(expected.getName(), data.player().getName(), "name " + id);
+            assertEquals(expected.getGold(), data.player().getGold(), "gold " + id);
+            assertEquals(expected.getLevel(), data.player().getLevel(), "level " + id);
+
+            assertNotNull(data.equipment(), "equipment " + id);
+            assertEquals(PersistenceFixture.seededWearing(), ItemCodec.EQUIPMENT.encode(data.equipment().getItems()),
+                    "equipment " + id);
+            assertNotNull(data.inventory(), "bag " + id);
+            assertEquals(PersistenceFixture.seededBag(), ItemCodec.INVENTORY.encode(data.inventory().getItems()),
+                    "bag " + id);
+            assertNotNull(data.pet(), "pet " + id);
+            assertNotNull(data.friends(), "friends " + id);
+            assertEquals(2, data.friends().getFriends().size(), "friends " + id);
+        }
+    }
+
+    @Test
+    void flushWritesChangesAndOnlyChanges() throws SQLException {
+        Map<Integer, CharacterData> loaded = characters.findAllById(ids);
+        List<PlayerEntity> entities = new ArrayList<>();
+        List<PlayerSnapshot> snapshots = new ArrayList<>();
+        for (int id : ids) {
+            PlayerEntity entity = PersistenceFixture.entity(loaded.get(id));
+            entity.addGold(777);
+            entity.getInventoryManager().getInventory().remove(0);
+            if (id % 2 == 0) {
+                entity.getInventoryManager().ensureStorage().remove(1);
+            }
+            entities.add(entity);
+            snapshots.add(PlayerSnapshot.capture(entity, false));
+        }
+
+        // Write-behind only: a forced save would put a marker into the server's data/journal
+        assertTrue(DataSaver.flushSnapshots(snapshots).complete(), "flush complete");
+
+        Map<Integer, CharacterData> reloaded = characters.findAllById(ids);
+        for (PlayerEntity entity : entities) {
+            int id = entity.getId();
+            assertTrue(PlayerSnapshot.capture(entity, false).isEmpty(), "player " + id + " clean after flush");
+
+            CharacterData data = reloaded.get(id);
+            assertNotNull(data, "character " + id);
+            assertEquals(PersistenceFixture.player(id).getGold() + 777, data.player().getGold(), "gold " + id);
+            assertEquals(ItemCodec.INVENTORY.encode(entity.getInventoryManager().getInventory().getItems()),
+                    ItemCodec.INVENTORY.encode(data.inventory().getItems()), "bag " + id);
+
+            // Storage: written when it was loaded and changed, untouched otherwise
+            PlayerInventory stored = SQL.from(PlayerInventory.class).table("player_storage").where("playerId", id).first();
+            PlayerInventory live = entity.getInventoryManager().getStorage();
+            assertNotNull(stored, "storage " + id);
+            assertEquals(live != null ? ItemCodec.INVENTORY.encode(live.getItems()) : PersistenceFixture.seededBag(),
+                    ItemCodec.INVENTORY.encode(stored.getItems()), "storage " + id);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package dev;
+
+import database.DBConfig;
+import game.equipment.PlayerEquipment;
+import game.friend.FriendList;
+import game.inventory.PlayerInventory;
+import game.pet.PlayerPet;
+import lombok.extern.slf4j.Slf4j;
+import model.ModelMapper;
+import model.account.Account;
+import model.player.Player;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tables of the player persistence path, generated from the model classes the way
+ * {@link ModelMapper} maps them (persistent fields, snake_case columns; objects, arrays and
+ * slot columns as text), so the embedded schema cannot drift from what the repositories write.
+ */
+@Slf4j
+final class EmbeddedSchema {
+
+    private record Table(String name, Class<?> model, String key, boolean generated, String unique) {
+    }
+
+    private static final List<Table> TABLES = List.of(
+            new Table("account", Account.class, "id", true, null),
+            new Table("player", Player.class, "id", true, null),
+            new Table("player_equipment", PlayerEquipment.class, "id", true, "player_id"),
+            new Table("player_inventory", PlayerInventory.class, "id", true, "player_id"),
+            new Table("player_storage", PlayerInventory.class, "id", true, "player_id"),
+            new Table("player_pet", PlayerPet.class, "player_id", false, null),
+            new Table("friend_list", FriendList.class, "id", false, null));
+
+    private EmbeddedSchema() {
+    }
+
+    /**
+     * Drops and recreates every table, on a plain JDBC connection outside the pools.
+     */
+    static void create() throws SQLException {
+        DBConfig cfg = DBConfig.gI();
+        try (Connection conn = DriverManager.getConnection(cfg.getJdbcUrl(), cfg.getUsername(), cfg.getPassword());
+             Statement st = conn.createStatement()) {
+            for (Table table : TABLES) {
+                st.execute("DROP TABLE IF EXISTS `" + table.name() + "`");
+                st.execute(ddl(table));
+            }
+            if (!conn.getAutoCommit()) conn.commit();
+        }
+        log.info("Embedded schema created: {} tables", TABLES.size());
+    }
+
+    private static String ddl(Table table) {
+        StringBuilder sb = new StringBuilder("CREATE TABLE `").append(table.name()).append("` (");
+        columns(table.model()).forEach((column, type) -> {
+            sb.append('`').append(column).append("` ");
+            if (column.equals(table.key())) {
+                sb.append(type).append(table.generated() ? " AUTO_INCREMENT" : "").append(" PRIMARY KEY");
+            } else {
+                sb.append(type);
+            }
+            sb.append(", ");
+        });
+        if (table.unique() != null) {
+            sb.append("UNIQUE (`").append(table.unique()).append("`), ");
+        }
+        sb.setLength(sb.length() - 2);
+        return sb.append(')').toString();
+    }
+
+    // Column name -> SQL type, subclass fields first like ModelMapper.toMap
+    private static Map<String, String> columns(Class<?> model) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> c = model; c != null && c != Object.class; c = c.getSuperclass()) {
+            fields.addAll(List.of(c.getDeclaredFields()));
+        }
+
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (Field field : fields) {
+            int modifiers = field.getModifiers();
+            if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers)) continue;
+            columns.putIfAbsent(ModelMapper.toSnakeCase(field.getName()), sqlType(field.getType()));
+        }
+        return columns;
+    }
+
+    private static String sqlType(Class<?> type) {
+        if (type == int.class || type == Integer.class) return "INT";
+        if (type == long.class || type == Long.class) return "BIGINT";
+        if (type == short.class || type == Short.class) return "SMALLINT";
+        if (type == byte.class || type == Byte.class) return "TINYINT";
+        if (type == boolean.class || type == Boolean.class) return "BOOLEAN";
+        if (type == double.class || type == Double.class) return "DOUBLE";
+        if (type == float.class || type == Float.class) return "FLOAT";
+        if (type == String.class || type.isEnum()) return "VARCHAR(255)";
+        return "LONGTEXT"; // JSON or a registered column codec
+    }
+}
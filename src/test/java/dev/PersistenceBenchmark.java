@@ -0,0 +1,130 @@
+package dev;
+
+import database.DataSaver;
+import database.LatencyHistogram;
+import database.PlayerSnapshot;
+import database.SQL;
+import database.repositories.CharacterRepository;
+import game.entity.player.PlayerEntity;
+import lombok.extern.slf4j.Slf4j;
+import model.player.CharacterData;
+
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Throughput benchmarks for the player persistence path (repositories, {@link SQL},
+ * {@link PlayerSnapshot}, {@link DataSaver}) against an embedded H2 database in MySQL mode, so
+ * none of it needs a live MySQL. Every run starts from a fresh in-memory database with the
+ * same synthetic data ({@link PersistenceFixture}), so numbers are comparable between runs.
+ * <pre>
+ * mvn -Pembedded-db test-compile exec:java -Dexec.args="save [players] [rounds]"
+ * mvn -Pembedded-db test-compile exec:java -Dexec.args="login [players] [batch]"
+ * </pre>
+ * Round-trip correctness is covered by the tests run with {@code mvn -Pembedded-db test}.
+ */
+@Slf4j
+public class PersistenceBenchmark {
+
+    private static final int ROUNDS = 5;
+
+    private final CharacterRepository characters = new CharacterRepository();
+
+    public static void main(String[] args) throws Exception {
+        String command = args.length > 0 ? args[0] : "save";
+        int players = args.length > 1 ? Integer.parseInt(args[1]) : 1000;
+        int extra = args.length > 2 ? Integer.parseInt(args[2]) : -1;
+
+        PersistenceBenchmark benchmark = new PersistenceBenchmark();
+        int status = 0;
+        try {
+            PersistenceFixture.init();
+            switch (command) {
+                case "save" -> benchmark.benchSave(players, extra > 0 ? extra : ROUNDS);
+                case "login" -> benchmark.benchLogin(players, extra > 0 ? extra : PersistenceFixture.BATCH);
+                default -> {
+                    log.error("Unknown command {}, expected save or login", command);
+                    status = 2;
+                }
+            }
+        } finally {
+            SQL.gI().close();
+        }
+        System.exit(status);
+    }
+
+    /**
+     * Autosave of {@code count} online players: each round changes every player's row and bag,
+     * then captures and flushes them in scheduler-sized batches. The first round is warm-up.
+     */
+    private void benchSave(int count, int rounds) throws SQLException {
+        List<Integer> ids = PersistenceFixture.seed(count);
+        Map<Integer, CharacterData> loaded = characters.findAllById(ids);
+        List<PlayerEntity> entities = new ArrayList<>();
+        for (int id : ids) {
+            entities.add(PersistenceFixture.entity(loaded.get(id)));
+        }
+
+        for (int round = 0; round <= rounds; round++) {
+            LatencyHistogram batches = new LatencyHistogram();
+            long capture = 0;
+            long start = System.nanoTime();
+            int written = 0;
+
+            for (int from = 0; from < entities.size(); from += PersistenceFixture.BATCH) {
+                List<PlayerEntity> batch = entities.subList(from, Math.min(entities.size(), from + PersistenceFixture.BATCH));
+                long captureStart = System.nanoTime();
+                List<PlayerSnapshot> snapshots = new ArrayList<>(batch.size());
+                for (PlayerEntity entity : batch) {
+                    entity.addGold(1);
+                    entity.getInventoryManager().getInventory().getTracker().mark();
+                    snapshots.add(PlayerSnapshot.capture(entity, false));
+                }
+                long flushStart = System.nanoTime();
+                capture += flushStart - captureStart;
+
+                written += DataSaver.flushSnapshots(snapshots).written();
+                batches.recordNanos(System.nanoTime() - flushStart);
+            }
+
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            if (round == 0) continue;
+            log.info("save round {}: {} players, {} parts in {} ms ({} players/s), capture {} ms, batch p50={} ms p99={} ms",
+                    round, count, written, millis, count * 1000L / millis, capture / 1_000_000,
+                    batches.percentile(50) / 1000, batches.percentile(99) / 1000);
+        }
+    }
+
+    /**
+     * Login hydration of {@code count} characters in batches of {@code batchSize} (the size the
+     * character loader coalesces to), including building the runtime entities. The first round
+     * is warm-up; the order is shuffled with a fixed seed.
+     */
+    private void benchLogin(int count, int batchSize) throws SQLException {
+        List<Integer> ids = new ArrayList<>(PersistenceFixture.seed(count));
+        Random random = new Random(42);
+
+        for (int round = 0; round <= ROUNDS; round++) {
+            Collections.shuffle(ids, random);
+            LatencyHistogram batches = new LatencyHistogram();
+            long start = System.nanoTime();
+            int hydrated = 0;
+
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                long batchStart = System.nanoTime();
+                Map<Integer, CharacterData> loaded = characters.findAllById(ids.subList(from, Math.min(ids.size(), from + batchSize)));
+                for (CharacterData data : loaded.values()) {
+                    PersistenceFixture.entity(data);
+                }
+                hydrated += loaded.size();
+                batches.recordNanos(System.nanoTime() - batchStart);
+            }
+
+            long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+            if (round == 0) continue;
+            log.info("login round {}: {} characters in {} ms ({} logins/s), batch of {} p50={} ms p99={} ms",
+                    round, hydrated, millis, hydrated * 1000L / millis, batchSize,
+                    batches.percentile(50) / 1000, batches.percentile(99) / 1000);
+        }
+    }
+}
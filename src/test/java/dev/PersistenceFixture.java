@@ -0,0 +1,193 @@
+package dev;
+
+import database.SQL;
+import game.entity.player.PlayerEntity;
+import game.equipment.PlayerEquipment;
+import game.friend.FriendList;
+import game.inventory.ItemCodec;
+import game.inventory.PlayerInventory;
+import game.pet.PlayerPet;
+import game.stat.StatType;
+import lombok.extern.slf4j.Slf4j;
+import manager.ConfigManager;
+import model.ModelMapper;
+import model.account.Account;
+import model.config.Attribute;
+import model.config.AttributeConfig;
+import model.item.BaseItem;
+import model.item.EquipmentItem;
+import model.item.MaterialItem;
+import model.item.PotionItem;
+import model.player.CharacterData;
+import model.player.Player;
+import model.player.PlayerMapper;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic characters for exercising the player persistence path without a live MySQL: the
+ * embedded database config, a fresh schema and the same seeded rows on every run. Shared by
+ * {@link PersistenceBenchmark} and the round-trip tests ({@code mvn -Pembedded-db test}).
+ */
+@Slf4j
+public final class PersistenceFixture {
+
+    public static final String CONFIG = "data/config/database-embedded.yaml";
+    public static final int BATCH = 200; // SaveScheduler.MAX_BATCH
+
+    private static boolean registered;
+
+    private PersistenceFixture() {
+    }
+
+    /**
+     * Points the database at the embedded config (unless -Ddatabase.config says otherwise),
+     * registers the item types, codecs and per-role attribute configs the loaders register, and
+     * recreates the tables.
+     */
+    public static synchronized void init() throws SQLException {
+        if (!registered) {
+            if (System.getProperty("database.config") == null) {
+                System.setProperty("database.config", CONFIG);
+            }
+            ModelMapper.registerPolymorphicType(BaseItem.class, "EQUIPMENT", EquipmentItem.class);
+            ModelMapper.registerPolymorphicType(BaseItem.class, "POTION", PotionItem.class);
+            ModelMapper.registerPolymorphicType(BaseItem.class, "MATERIAL", MaterialItem.class);
+            ModelMapper.setDiscriminatorField(BaseItem.class, "category");
+            ItemCodec.register();
+            ItemCodecBenchmark.registerTemplates();
+            registerAttributes();
+            registered = true;
+        }
+        EmbeddedSchema.create();
+    }
+
+    /**
+     * Inserts {@code count} accounts, each with one character, equipment, bag, storage, pet and
+     * friend list. Ids run from 1 so every run writes the same rows.
+     */
+    public static List<Integer> seed(int count) throws SQLException {
+        long start = System.nanoTime();
+        List<Integer> ids = new ArrayList<>(count);
+        for (int from = 1; from <= count; from += BATCH) {
+            int to = Math.min(count, from + BATCH - 1);
+
+            List<Account> accounts = new ArrayList<>();
+            List<Player> players = new ArrayList<>();
+            List<PlayerEquipment> equipments = new ArrayList<>();
+            List<PlayerInventory> bags = new ArrayList<>();
+            List<PlayerInventory> storages = new ArrayList<>();
+            List<PlayerPet> pets = new ArrayList<>();
+            List<FriendList> friends = new ArrayList<>();
+
+            for (int id = from; id <= to; id++) {
+                ids.add(id);
+                accounts.add(account(id));
+                players.add(player(id));
+
+                PlayerEquipment equipment = new PlayerEquipment();
+                equipment.setId(id);
+                equipment.setPlayerId(id);
+                equipment.setItems(ItemCodecBenchmark.sampleWearing());
+                equipments.add(equipment);
+
+                bags.add(inventory(id));
+                storages.add(inventory(id));
+
+                PlayerPet pet = new PlayerPet();
+                pet.setPlayerId(id);
+                pets.add(pet);
+
+                FriendList list = new FriendList();
+                list.setId(id);
+                list.setFriends(new ArrayList<>(List.of(id % count + 1, (id + 1) % count + 1)));
+                friends.add(list);
+            }
+
+            SQL.transaction(() -> {
+                SQL.insertAll(accounts).execute();
+                SQL.insertAll(players).execute();
+                SQL.insertAll(equipments).execute();
+                SQL.insertAll(bags).execute();
+                SQL.insertAll(storages).table("player_storage").execute();
+                SQL.insertAll(pets).execute();
+                SQL.insertAll(friends).execute();
+            });
+        }
+        log.info("Seeded {} characters in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        return ids;
+    }
+
+    /**
+     * The character row as seeded for {@code id}.
+     */
+    public static Player player(int id) {
+        Player player = new Player();
+        player.setId(id);
+        player.setUid(id);
+        player.setName("Bench" + id);
+        player.setRole(id % 4);
+        player.setLevel(1 + id % 100);
+        player.setGold(1_000L * id);
+        player.setGems(id);
+        player.setExperience(10_000L * id);
+        return player;
+    }
+
+    /**
+     * Stored form of every seeded bag and storage.
+     */
+    public static String seededBag() {
+        return ItemCodec.INVENTORY.encode(ItemCodecBenchmark.sampleBag());
+    }
+
+    /**
+     * Stored form of every seeded equipment row.
+     */
+    public static String seededWearing() {
+        return ItemCodec.EQUIPMENT.encode(ItemCodecBenchmark.sampleWearing());
+    }
+
+    /**
+     * Same path as login: row to entity, then the runtime state from the loaded containers.
+     */
+    public static PlayerEntity entity(CharacterData data) {
+        PlayerEntity entity = PlayerMapper.toEntity(data.player());
+        entity.initial(data);
+        return entity;
+    }
+
+    // PlayerEntity.initial recalculates stats, which reads the role's attribute config
+    private static void registerAttributes() {
+        ConfigManager configs = ConfigManager.getInstance();
+        for (int role = 0; role < 4; role++) {
+            AttributeConfig config = new AttributeConfig();
+            config.setRole(role);
+            config.setName("Role" + role);
+            config.setStrength(List.of(new Attribute(StatType.PHYSICAL_DAMAGE.getValue(), 2)));
+            config.setDexterity(List.of(new Attribute(StatType.PHYSICAL_DAMAGE_PERCENT.getValue(), 0.01)));
+            config.setVitality(List.of(new Attribute(StatType.HP.getValue(), 10)));
+            config.setIntelligence(List.of(new Attribute(StatType.MP.getValue(), 5)));
+            configs.addAttributeConfig(config);
+        }
+    }
+
+    private static Account account(int id) {
+        Account account = new Account();
+        account.setId(id);
+        account.setUser("bench_" + id);
+        account.setPass("bench");
+        account.setIpAddress("127.0.0.1");
+        return account;
+    }
+
+    private static PlayerInventory inventory(int id) {
+        PlayerInventory inventory = new PlayerInventory(126);
+        inventory.setId(id);
+        inventory.setPlayerId(id);
+        inventory.setItems(ItemCodecBenchmark.sampleBag());
+        return inventory;
+    }
+}